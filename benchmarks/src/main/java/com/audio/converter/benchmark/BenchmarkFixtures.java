@@ -0,0 +1,100 @@
+package com.audio.converter.benchmark;
+
+import com.audio.converter.service.AudioMetrics;
+import com.audio.converter.service.AudioServiceImpl;
+import com.audio.converter.service.JavacvTranscoder;
+import com.audio.converter.service.ProcessTranscoder;
+import com.audio.converter.service.Transcoder;
+import com.audio.converter.service.TranscodingExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Wires service objects by hand, the way the unit tests do, so the benchmarks measure the
+ * conversion and storage code without starting a Spring context.
+ */
+final class BenchmarkFixtures {
+
+    static final String FFMPEG_PATH = System.getenv().getOrDefault("FFMPEG_PATH", "/usr/bin/ffmpeg");
+
+    private BenchmarkFixtures() {
+    }
+
+    static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        if (field == null) {
+            throw new IllegalArgumentException("No field " + name + " on " + target.getClass().getName());
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    static Transcoder transcoder(String engine) {
+        ProcessTranscoder processTranscoder = new ProcessTranscoder();
+        setField(processTranscoder, "ffmpegPath", FFMPEG_PATH);
+        if (!"javacv".equals(engine)) {
+            return processTranscoder;
+        }
+        JavacvTranscoder javacvTranscoder = new JavacvTranscoder();
+        setField(javacvTranscoder, "processTranscoder", processTranscoder);
+        javacvTranscoder.init();
+        return javacvTranscoder;
+    }
+
+    static TranscodingExecutor transcodingExecutor() {
+        TranscodingExecutor executor = new TranscodingExecutor();
+        setField(executor, "queueCapacity", 64);
+        setField(executor, "queueTimeoutMillis", 60_000L);
+        setField(executor, "retryAfterSeconds", 5L);
+        executor.init();
+        return executor;
+    }
+
+    static AudioServiceImpl audioService(Transcoder transcoder, TranscodingExecutor executor) {
+        AudioServiceImpl audioService = new AudioServiceImpl();
+        setField(audioService, "transcoder", transcoder);
+        setField(audioService, "transcodingExecutor", executor);
+        setField(audioService, "audioMetrics", new AudioMetrics(new SimpleMeterRegistry()));
+        return audioService;
+    }
+
+    /**
+     * Writes a 16-bit stereo 44.1 kHz sine tone, so clips of any length can be produced without fixtures.
+     */
+    static void writeSineWav(Path file, int seconds) throws IOException {
+        writeSineWav(file, seconds, 44100);
+    }
+
+    static void writeSineWav(Path file, int seconds, int sampleRate) throws IOException {
+        int channels = 2;
+        int frames = sampleRate * seconds;
+        int dataBytes = frames * channels * 2;
+
+        ByteBuffer header = ByteBuffer.allocate(44).order(ByteOrder.LITTLE_ENDIAN);
+        header.put("RIFF".getBytes()).putInt(36 + dataBytes).put("WAVE".getBytes());
+        header.put("fmt ".getBytes()).putInt(16).putShort((short) 1).putShort((short) channels)
+                .putInt(sampleRate).putInt(sampleRate * channels * 2).putShort((short) (channels * 2)).putShort((short) 16);
+        header.put("data".getBytes()).putInt(dataBytes);
+
+        try (OutputStream output = Files.newOutputStream(file)) {
+            output.write(header.array());
+            ByteBuffer block = ByteBuffer.allocate(sampleRate * channels * 2).order(ByteOrder.LITTLE_ENDIAN);
+            for (int second = 0; second < seconds; second++) {
+                block.clear();
+                for (int i = 0; i < sampleRate; i++) {
+                    short sample = (short) (Math.sin(2 * Math.PI * 440 * i / sampleRate) * Short.MAX_VALUE * 0.5);
+                    block.putShort(sample).putShort(sample);
+                }
+                output.write(block.array());
+            }
+        }
+    }
+}
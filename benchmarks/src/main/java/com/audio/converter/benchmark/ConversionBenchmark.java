@@ -0,0 +1,97 @@
+package com.audio.converter.benchmark;
+
+import com.audio.converter.model.AudioMetadata;
+import com.audio.converter.model.Format;
+import com.audio.converter.service.AudioServiceImpl;
+import com.audio.converter.service.Transcoder;
+import com.audio.converter.service.TranscodingExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion paths of AudioServiceImpl for each transcoder engine. Needs an ffmpeg binary at
+ * {@code FFMPEG_PATH} (default /usr/bin/ffmpeg) to produce the M4A input and for the process engine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConversionBenchmark {
+
+    @Param({"5", "30", "120"})
+    public int clipSeconds;
+
+    @Param({"process", "javacv"})
+    public String engine;
+
+    private Path workDirectory;
+    private File wav;
+    private File m4a;
+    private Resource wavResource;
+    private Transcoder transcoder;
+    private TranscodingExecutor executor;
+    private AudioServiceImpl audioService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        workDirectory = Files.createTempDirectory("conversion-benchmark");
+        wav = workDirectory.resolve("clip.wav").toFile();
+        m4a = workDirectory.resolve("clip.m4a").toFile();
+        BenchmarkFixtures.writeSineWav(wav.toPath(), clipSeconds);
+
+        transcoder = BenchmarkFixtures.transcoder(engine);
+        executor = BenchmarkFixtures.transcodingExecutor();
+        audioService = BenchmarkFixtures.audioService(transcoder, executor);
+        transcoder.transcode(wav, m4a, Format.M4A);
+        wavResource = new FileSystemResource(wav);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        executor.shutdown();
+        FileSystemUtils.deleteRecursively(workDirectory);
+    }
+
+    @Benchmark
+    public AudioMetadata convertM4AToWAV() throws IOException, InterruptedException {
+        File output = workDirectory.resolve("ingested.wav").toFile();
+        return executor.execute(() -> transcoder.ingest(m4a, output, Format.WAV, metadata -> true));
+    }
+
+    @Benchmark
+    public int convertWAVToM4A() throws IOException, InterruptedException {
+        return audioService.convertWAVToM4A(wavResource).getByteArray().length;
+    }
+
+    @Benchmark
+    public int convertWavToMp3() throws IOException, InterruptedException {
+        return audioService.convertWavToMp3(wavResource).getByteArray().length;
+    }
+
+    @Benchmark
+    public Boolean retrieveAudioFormat() {
+        return audioService.retrieveAudioFormat(m4a);
+    }
+}
@@ -0,0 +1,104 @@
+package com.audio.converter.benchmark;
+
+import com.audio.converter.model.Format;
+import com.audio.converter.service.PcmTranscoder;
+import com.audio.converter.service.Transcoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WAV-to-WAV operations done by PcmTranscoder in the JVM against the same operation run by ffmpeg:
+ * 48 kHz stereo to the 44.1 kHz stereo master format, and 44.1 kHz stereo to 16 kHz mono.
+ * The ffmpeg variants need a binary at {@code FFMPEG_PATH} (default /usr/bin/ffmpeg).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PcmBenchmark {
+
+    @Param({"5", "30", "120"})
+    public int clipSeconds;
+
+    private Path workDirectory;
+    private File wav48k;
+    private File wav44k;
+    private File output;
+    private Transcoder transcoder;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workDirectory = Files.createTempDirectory("pcm-benchmark");
+        wav48k = workDirectory.resolve("clip-48k.wav").toFile();
+        wav44k = workDirectory.resolve("clip-44k.wav").toFile();
+        output = workDirectory.resolve("output.wav").toFile();
+        BenchmarkFixtures.writeSineWav(wav48k.toPath(), clipSeconds, 48000);
+        BenchmarkFixtures.writeSineWav(wav44k.toPath(), clipSeconds);
+        transcoder = BenchmarkFixtures.transcoder("process");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(workDirectory);
+    }
+
+    @Benchmark
+    public long resampleToMasterJava() throws IOException {
+        return convert(wav48k, 44100, 2);
+    }
+
+    @Benchmark
+    public long resampleToMasterFfmpeg() throws IOException, InterruptedException {
+        transcoder.transcode(wav48k, output, Format.WAV);
+        return output.length();
+    }
+
+    @Benchmark
+    public long downmixTo16kMonoJava() throws IOException {
+        return convert(wav44k, 16000, 1);
+    }
+
+    @Benchmark
+    public long downmixTo16kMonoFfmpeg() throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(BenchmarkFixtures.FFMPEG_PATH, "-v", "error", "-y",
+                "-i", wav44k.getPath(), "-ar", "16000", "-ac", "1", "-c:a", "pcm_s16le", output.getPath())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        if (process.waitFor() != 0) {
+            throw new IOException("ffmpeg exited with " + process.exitValue());
+        }
+        return output.length();
+    }
+
+    private long convert(File input, int sampleRate, int channels) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(input.toPath()), 1 << 16);
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(output.toPath()), 1 << 16)) {
+            return PcmTranscoder.convert(in, out, sampleRate, channels);
+        }
+    }
+}
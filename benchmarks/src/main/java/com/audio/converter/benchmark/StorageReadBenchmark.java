@@ -0,0 +1,113 @@
+package com.audio.converter.benchmark;
+
+import com.audio.converter.service.BlobStore;
+import com.audio.converter.service.GCPService;
+import com.audio.converter.service.LocalBlobStore;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.contrib.nio.testing.LocalStorageHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read path of the blob stores. The gcs backend runs GCPService against the in-memory Storage
+ * from google-cloud-nio, so it measures the client-side streaming code rather than the network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StorageReadBenchmark {
+
+    private static final String BUCKET = "benchmark";
+    private static final String FOLDER = "converted-audio";
+    private static final int RANGE_BYTES = 64 * 1024;
+
+    @Param({"gcs", "local"})
+    public String backend;
+
+    @Param({"256", "4096", "32768"})
+    public int sizeKb;
+
+    private Path workDirectory;
+    private BlobStore blobStore;
+    private String objectName;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workDirectory = Files.createTempDirectory("storage-benchmark");
+        byte[] content = new byte[sizeKb * 1024];
+        new Random(42).nextBytes(content);
+
+        if ("gcs".equals(backend)) {
+            Storage storage = LocalStorageHelper.getOptions().getService();
+            GCPService gcpService = new GCPService(storage);
+            BenchmarkFixtures.setField(gcpService, "bucketName", BUCKET);
+            BenchmarkFixtures.setField(gcpService, "folderName", FOLDER);
+            BenchmarkFixtures.setField(gcpService, "uploadChunkSize", 16 * 1024 * 1024);
+            BenchmarkFixtures.setField(gcpService, "downloadChunkSize", 2 * 1024 * 1024);
+            objectName = gcpService.objectName("clip.wav");
+            storage.create(BlobInfo.newBuilder(BUCKET, objectName).build(), content);
+            blobStore = gcpService;
+        } else {
+            LocalBlobStore localBlobStore = new LocalBlobStore();
+            BenchmarkFixtures.setField(localBlobStore, "root", workDirectory.resolve("store").toString());
+            BenchmarkFixtures.setField(localBlobStore, "folderName", FOLDER);
+            localBlobStore.init();
+            Path upload = Files.write(workDirectory.resolve("clip.wav"), content);
+            objectName = localBlobStore.uploadFile(upload.toFile());
+            blobStore = localBlobStore;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(workDirectory);
+    }
+
+    @Benchmark
+    public long fullRead() throws IOException {
+        try (InputStream input = blobStore.getFileBytes(objectName).getInputStream()) {
+            return input.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    /**
+     * What Spring does for a Range request on a Resource body: skip to the start, copy the range.
+     */
+    @Benchmark
+    public long rangeRead() throws IOException {
+        long start = sizeKb * 1024L / 2;
+        try (InputStream input = blobStore.getFileBytes(objectName).getInputStream()) {
+            return StreamUtils.copyRange(input, OutputStream.nullOutputStream(), start, start + RANGE_BYTES - 1);
+        }
+    }
+
+    @Benchmark
+    public long transferTo() throws IOException {
+        return blobStore.transferTo(objectName, OutputStream.nullOutputStream());
+    }
+}
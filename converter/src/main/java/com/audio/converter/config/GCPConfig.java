@@ -3,12 +3,14 @@ package com.audio.converter.config;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.cloud.storage.Storage;
 import com.google.cloud.storage.StorageOptions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.io.IOException;
 
 @Configuration
+@ConditionalOnProperty(name = "storage.backend", havingValue = "gcs", matchIfMissing = true)
 public class GCPConfig {
 
     @Bean
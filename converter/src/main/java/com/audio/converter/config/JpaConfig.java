@@ -0,0 +1,22 @@
+package com.audio.converter.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JpaConfig {
+
+    /**
+     * Turns on JDBC batching so saveAll on batch uploads sends grouped inserts.
+     * Values set under spring.jpa.properties take precedence.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer() {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, "50");
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, "true");
+        };
+    }
+}
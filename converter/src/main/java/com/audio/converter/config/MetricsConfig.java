@@ -0,0 +1,67 @@
+package com.audio.converter.config;
+
+import com.audio.converter.model.CacheStats;
+import com.audio.converter.service.ExistenceCache;
+import com.audio.converter.service.ProcessTranscoder;
+import com.audio.converter.service.RenditionCache;
+import com.audio.converter.service.TranscodingExecutor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.ToDoubleFunction;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder transcoderMetrics(TranscodingExecutor transcodingExecutor, ProcessTranscoder processTranscoder) {
+        return registry -> {
+            Gauge.builder("transcoder.pool.active", transcodingExecutor, TranscodingExecutor::getActiveTasks)
+                    .description("Conversions running on the transcoding pool")
+                    .register(registry);
+            Gauge.builder("transcoder.pool.queued", transcodingExecutor, TranscodingExecutor::getQueuedTasks)
+                    .description("Conversions waiting for a transcoding pool thread")
+                    .register(registry);
+            Gauge.builder("ffmpeg.processes.running", processTranscoder, ProcessTranscoder::getRunningProcesses)
+                    .description("ffmpeg processes currently forked")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder existenceCacheMetrics(ExistenceCache existenceCache) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, existenceCache.getUsers(), "existence.users");
+            CaffeineCacheMetrics.monitor(registry, existenceCache.getPhrases(), "existence.phrases");
+        };
+    }
+
+    @Bean
+    public MeterBinder renditionCacheMetrics(RenditionCache renditionCache) {
+        return registry -> {
+            cacheCounter(registry, renditionCache, "memory_hit", CacheStats::getMemoryHits);
+            cacheCounter(registry, renditionCache, "disk_hit", CacheStats::getDiskHits);
+            cacheCounter(registry, renditionCache, "miss", CacheStats::getMisses);
+            Gauge.builder("rendition.cache.size", renditionCache, cache -> cache.stats().getMemoryBytes())
+                    .baseUnit("bytes")
+                    .tag("tier", "memory")
+                    .register(registry);
+            Gauge.builder("rendition.cache.size", renditionCache, cache -> cache.stats().getDiskBytes())
+                    .baseUnit("bytes")
+                    .tag("tier", "disk")
+                    .register(registry);
+        };
+    }
+
+    private static void cacheCounter(MeterRegistry registry, RenditionCache renditionCache,
+                                     String result, ToDoubleFunction<CacheStats> value) {
+        FunctionCounter.builder("rendition.cache.requests", renditionCache, cache -> value.applyAsDouble(cache.stats()))
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,40 @@
+package com.audio.converter.controller;
+
+import com.audio.converter.model.entity.Audio;
+import org.springframework.http.CacheControl;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validators and caching policy for audio downloads. Both are derived from the audio row alone, so a
+ * conditional request can be answered before the object is fetched or converted.
+ */
+final class AudioCacheHeaders {
+
+    private AudioCacheHeaders() {
+    }
+
+    /**
+     * Strong entity tag for one format and encoding profile of one version of the audio. Any update of the
+     * row changes it.
+     */
+    static String etag(Audio audio, String format, String profile) {
+        String tag = audio.getId() + "-" + Long.toHexString(Math.max(lastModified(audio), 0)) + "-" + format;
+        return "\"" + (profile == null || profile.isBlank() ? tag : tag + "-" + profile) + "\"";
+    }
+
+    /**
+     * Last modification in epoch milliseconds, or -1 if the row carries no timestamp.
+     */
+    static long lastModified(Audio audio) {
+        LocalDateTime modified = audio.getUpdatedAt() != null ? audio.getUpdatedAt() : audio.getCreatedAt();
+        return modified == null ? -1 : modified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    static CacheControl cacheControl(long maxAgeSeconds, boolean shared) {
+        CacheControl cacheControl = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS);
+        return shared ? cacheControl.cachePublic() : cacheControl.cachePrivate();
+    }
+}
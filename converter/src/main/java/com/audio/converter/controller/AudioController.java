@@ -0,0 +1,278 @@
+package com.audio.converter.controller;
+
+import com.audio.converter.model.AudioRequest;
+import com.audio.converter.model.BaseResponse;
+import com.audio.converter.model.BatchItemResult;
+import com.audio.converter.model.Format;
+import com.audio.converter.model.ResponseCode;
+import com.audio.converter.model.entity.Audio;
+import com.audio.converter.model.entity.AudioJob;
+import com.audio.converter.service.AudioJobService;
+import com.audio.converter.service.AudioService;
+import com.audio.converter.service.ContentStore;
+import com.audio.converter.service.RenditionCache;
+import com.audio.converter.util.RequestValidationException;
+import jakarta.validation.constraints.NotBlank;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/audio")
+@Validated
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AudioController {
+
+    // Request attributes through which Tomcat offers sendfile and is handed the file to send
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private AudioService audioService;
+
+    @Autowired
+    private AudioJobService audioJobService;
+
+    @Autowired
+    private RenditionCache renditionCache;
+
+    @Value("${audio.streaming.enabled:false}")
+    private boolean streamingEnabled;
+
+    @Value("${audio.batch.max-items:50}")
+    private int batchMaxItems;
+
+    @Value("${audio.http.cache-max-age-seconds:3600}")
+    private long cacheMaxAgeSeconds;
+
+    @Value("${audio.http.cache-public:false}")
+    private boolean cachePublic;
+
+    @PostMapping("/user/{userId}/phrase/{phraseId}")
+    public ResponseEntity<BaseResponse> uploadAudio(
+            @PathVariable @NotBlank String userId,
+            @PathVariable @NotBlank String phraseId,
+            @RequestPart("file") MultipartFile file) throws IOException {
+
+        if (file.isEmpty()) {
+            throw new RequestValidationException(ResponseCode.BIND_ERROR.getCode(), "Uploaded file is empty");
+        }
+
+        Path tempFilePath = Files.createTempFile("upload_", "_" + file.getOriginalFilename());
+        File tempFile = tempFilePath.toFile();
+        String sourceHash = spool(file, tempFilePath);
+
+        // The format is validated from the file header inside the same ffmpeg pass that converts it
+        try {
+            audioService.save(AudioRequest.builder()
+                    .targetFormat(Format.WAV)//still hardcoded
+                    .userId(userId)
+                    .phraseId(phraseId)
+                    .file(tempFile)
+                    .sourceHash(sourceHash)
+                    .build());
+        } finally {
+            // Mark for deletion after processing
+            Files.deleteIfExists(tempFilePath);
+        }
+
+        return ResponseEntity.ok().body(BaseResponse.builder()
+                .code(ResponseCode.SUCCESS.getCode())
+                .message(ResponseCode.SUCCESS.getMessage())
+                .build());
+    }
+
+    @PostMapping(value = "/user/{userId}/phrase/{phraseId}", params = "async=true")
+    public ResponseEntity<BaseResponse> uploadAudioAsync(
+            @PathVariable @NotBlank String userId,
+            @PathVariable @NotBlank String phraseId,
+            @RequestPart("file") MultipartFile file) throws IOException {
+
+        if (file.isEmpty()) {
+            throw new RequestValidationException(ResponseCode.BIND_ERROR.getCode(), "Uploaded file is empty");
+        }
+
+        // Spooled outside the temp dir so the job can still find it after a restart
+        Path spoolFile = audioJobService.createSpoolFile(file.getOriginalFilename());
+        file.transferTo(spoolFile);
+        AudioJob job = audioJobService.submit(userId, phraseId, spoolFile);
+
+        return ResponseEntity.accepted().body(BaseResponse.builder()
+                .code(ResponseCode.ACCEPTED.getCode())
+                .message(ResponseCode.ACCEPTED.getMessage())
+                .data(job)
+                .build());
+    }
+
+    @PostMapping("/user/{userId}/phrases")
+    public ResponseEntity<BaseResponse> uploadAudioBatch(
+            @PathVariable @NotBlank String userId,
+            @RequestParam("phraseIds") List<String> phraseIds,
+            @RequestPart("files") List<MultipartFile> files) throws IOException {
+
+        if (phraseIds.size() != files.size()) {
+            throw new RequestValidationException(ResponseCode.BIND_ERROR.getCode(), "Each file needs exactly one phraseId");
+        }
+        if (files.size() > batchMaxItems) {
+            throw new RequestValidationException(ResponseCode.BIND_ERROR.getCode(), "At most " + batchMaxItems + " files per batch");
+        }
+        if (files.stream().anyMatch(MultipartFile::isEmpty)) {
+            throw new RequestValidationException(ResponseCode.BIND_ERROR.getCode(), "Uploaded file is empty");
+        }
+
+        List<Path> tempFiles = new ArrayList<>();
+        List<BatchItemResult> results;
+        try {
+            List<AudioRequest> requests = new ArrayList<>();
+            for (int i = 0; i < files.size(); i++) {
+                Path tempFilePath = Files.createTempFile("upload_", "_" + files.get(i).getOriginalFilename());
+                tempFiles.add(tempFilePath);
+                String sourceHash = spool(files.get(i), tempFilePath);
+                requests.add(AudioRequest.builder()
+                        .targetFormat(Format.WAV)
+                        .userId(userId)
+                        .phraseId(phraseIds.get(i))
+                        .file(tempFilePath.toFile())
+                        .sourceHash(sourceHash)
+                        .build());
+            }
+            results = audioService.saveBatch(userId, requests);
+        } finally {
+            for (Path tempFile : tempFiles) {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+
+        // Per-item outcomes are in data; the request itself succeeded even if some items did not
+        return ResponseEntity.ok().body(BaseResponse.builder()
+                .code(ResponseCode.SUCCESS.getCode())
+                .message(ResponseCode.SUCCESS.getMessage())
+                .data(results)
+                .build());
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<BaseResponse> getJob(@PathVariable @NotBlank String jobId) {
+        return ResponseEntity.ok().body(BaseResponse.builder()
+                .code(ResponseCode.SUCCESS.getCode())
+                .message(ResponseCode.SUCCESS.getMessage())
+                .data(audioJobService.get(jobId))
+                .build());
+    }
+
+    @GetMapping("/user/{userId}/phrase/{phraseId}/{audioFormat}")
+    public ResponseEntity<?> getAudio(
+            @PathVariable @NotBlank String userId,
+            @PathVariable @NotBlank String phraseId,
+            @PathVariable @NotBlank String audioFormat,
+            @RequestParam(value = "profile", required = false) String profile,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            WebRequest webRequest) {
+        Format.fromValue(audioFormat).orElseThrow(() -> new RequestValidationException(ResponseCode.FORMAT_INVALID.getCode(), ResponseCode.FORMAT_INVALID.getMessage()));
+        Audio audio = audioService.find(userId, phraseId, audioFormat);
+        String etag = AudioCacheHeaders.etag(audio, audioFormat, profile);
+        long lastModified = AudioCacheHeaders.lastModified(audio);
+        CacheControl cacheControl = AudioCacheHeaders.cacheControl(cacheMaxAgeSeconds, cachePublic);
+        // A client holding this version is answered from the row, without touching storage or ffmpeg
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        // In redirect mode stored objects go from storage to the client without passing through here
+        Optional<URI> redirect = audioService.redirectUrl(audio, audioFormat, profile);
+        if (redirect.isPresent()) {
+            return ResponseEntity.status(HttpStatus.FOUND).location(redirect.get()).cacheControl(CacheControl.noStore()).build();
+        }
+
+        String fileName = userId.concat("_").concat(phraseId).concat(".").concat(audioFormat);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .eTag(etag)
+                .cacheControl(cacheControl);
+        if (lastModified >= 0) {
+            response.lastModified(lastModified);
+        }
+
+        // A stored object on local disk is left to Tomcat, which sends it with sendfile after this method returns
+        if (range == null && Boolean.TRUE.equals(webRequest.getAttribute(SENDFILE_SUPPORT, RequestAttributes.SCOPE_REQUEST))) {
+            Optional<File> file = audioService.localFile(audio, audioFormat, profile);
+            if (file.isPresent()) {
+                long length = file.get().length();
+                webRequest.setAttribute(SENDFILE_FILENAME, file.get().getAbsolutePath(), RequestAttributes.SCOPE_REQUEST);
+                webRequest.setAttribute(SENDFILE_START, 0L, RequestAttributes.SCOPE_REQUEST);
+                webRequest.setAttribute(SENDFILE_END, length, RequestAttributes.SCOPE_REQUEST);
+                return response.contentLength(length).build();
+            }
+        }
+
+        // Range requests need a Resource body, which Spring answers with 206 and seeks into instead of a full copy
+        Object body = streamingEnabled && range == null
+                ? audioService.stream(audio, audioFormat, profile)
+                : audioService.get(audio, audioFormat, profile);
+        return response.body(body);
+    }
+
+    @GetMapping("/user/{userId}/archive/{audioFormat}")
+    public ResponseEntity<StreamingResponseBody> getUserArchive(
+            @PathVariable @NotBlank String userId,
+            @PathVariable @NotBlank String audioFormat) {
+        Format.fromValue(audioFormat).orElseThrow(() -> new RequestValidationException(ResponseCode.FORMAT_INVALID.getCode(), ResponseCode.FORMAT_INVALID.getMessage()));
+        return archive(userId + "_" + audioFormat + ".zip", audioService.archiveByUser(userId, audioFormat));
+    }
+
+    @GetMapping("/phrase/{phraseId}/archive/{audioFormat}")
+    public ResponseEntity<StreamingResponseBody> getPhraseArchive(
+            @PathVariable @NotBlank String phraseId,
+            @PathVariable @NotBlank String audioFormat) {
+        Format.fromValue(audioFormat).orElseThrow(() -> new RequestValidationException(ResponseCode.FORMAT_INVALID.getCode(), ResponseCode.FORMAT_INVALID.getMessage()));
+        return archive(phraseId + "_" + audioFormat + ".zip", audioService.archiveByPhrase(phraseId, audioFormat));
+    }
+
+    /**
+     * Writes the part to the file, hashing it on the way so the service need not read it again to recognise a re-upload.
+     */
+    private static String spool(MultipartFile file, Path target) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            return ContentStore.write(input, target);
+        }
+    }
+
+    private static ResponseEntity<StreamingResponseBody> archive(String fileName, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(body);
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<BaseResponse> getCacheStats() {
+        return ResponseEntity.ok().body(BaseResponse.builder()
+                .code(ResponseCode.SUCCESS.getCode())
+                .message(ResponseCode.SUCCESS.getMessage())
+                .data(renditionCache.stats())
+                .build());
+    }
+}
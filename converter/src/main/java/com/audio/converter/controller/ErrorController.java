@@ -4,8 +4,10 @@ import com.audio.converter.model.BaseResponse;
 import com.audio.converter.model.ResponseCode;
 import com.audio.converter.util.BusinessLogicException;
 import com.audio.converter.util.RequestValidationException;
+import com.audio.converter.util.ServiceOverloadedException;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.ConstraintViolation;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -42,6 +44,13 @@ public class ErrorController {
                 .body(constructBaseResponse(ex.getCode(),ex.getMessage()));
     }
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<BaseResponse> handleServiceOverloadedException(ServiceOverloadedException ex) {
+        return ResponseEntity.status(ex.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(constructBaseResponse(ex.getCode(), ex.getMessage()));
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<BaseResponse> handleRuntimeException(RuntimeException ex) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
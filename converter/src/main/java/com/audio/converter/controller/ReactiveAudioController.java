@@ -0,0 +1,308 @@
+package com.audio.converter.controller;
+
+import com.audio.converter.model.AudioRequest;
+import com.audio.converter.model.BaseResponse;
+import com.audio.converter.model.Format;
+import com.audio.converter.model.ResponseCode;
+import com.audio.converter.model.entity.Audio;
+import com.audio.converter.service.AudioJobService;
+import com.audio.converter.service.AudioService;
+import com.audio.converter.service.ContentStore;
+import com.audio.converter.service.RenditionCache;
+import com.audio.converter.util.RequestValidationException;
+import jakarta.validation.constraints.NotBlank;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.http.codec.multipart.FormFieldPart;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * WebFlux counterpart of {@link AudioController}, active when the application runs with
+ * {@code spring.main.web-application-type=reactive}. Uploads are written to disk buffer by buffer
+ * and downloads are emitted as ffmpeg produces them, with the client's demand throttling the writer.
+ * The service layer is blocking, so it runs on the bounded elastic scheduler.
+ */
+@RestController
+@RequestMapping("/audio")
+@Validated
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAudioController {
+
+    private static final Executor BLOCKING = task -> Schedulers.boundedElastic().schedule(task);
+    private static final MediaType APPLICATION_ZIP = MediaType.parseMediaType("application/zip");
+
+    @Autowired
+    private AudioService audioService;
+
+    @Autowired
+    private AudioJobService audioJobService;
+
+    @Value("${audio.http.cache-max-age-seconds:3600}")
+    private long cacheMaxAgeSeconds;
+
+    @Value("${audio.http.cache-public:false}")
+    private boolean cachePublic;
+
+    @Autowired
+    private RenditionCache renditionCache;
+
+    @Value("${audio.batch.max-items:50}")
+    private int batchMaxItems;
+
+    @PostMapping(value = "/user/{userId}/phrase/{phraseId}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Mono<ResponseEntity<BaseResponse>> uploadAudio(
+            @PathVariable @NotBlank String userId,
+            @PathVariable @NotBlank String phraseId,
+            @RequestPart("file") FilePart file) {
+        // ffmpeg needs a seekable input for M4A (the moov atom may come last), so parts are spooled to a
+        // temp file rather than piped; nothing is held in memory beyond the buffers in flight
+        return blocking(() -> Files.createTempFile("upload_", "_" + file.filename()))
+                // Eager cleanup deletes the file before the response completes, not after
+                .flatMap(tempFile -> Mono.using(() -> tempFile,
+                        spooled -> spool(file, spooled)
+                                .flatMap(sourceHash -> blocking(() -> audioService.save(AudioRequest.builder()
+                                        .targetFormat(Format.WAV)
+                                        .userId(userId)
+                                        .phraseId(phraseId)
+                                        .file(spooled.toFile())
+                                        .sourceHash(sourceHash)
+                                        .build()))),
+                        spooled -> spooled.toFile().delete(),
+                        true))
+                .thenReturn(ResponseEntity.ok().body(BaseResponse.builder()
+                        .code(ResponseCode.SUCCESS.getCode())
+                        .message(ResponseCode.SUCCESS.getMessage())
+                        .build()));
+    }
+
+    @PostMapping(value = "/user/{userId}/phrase/{phraseId}", params = "async=true", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Mono<ResponseEntity<BaseResponse>> uploadAudioAsync(
+            @PathVariable @NotBlank String userId,
+            @PathVariable @NotBlank String phraseId,
+            @RequestPart("file") FilePart file) {
+        Path spoolFile = audioJobService.createSpoolFile(file.filename());
+        return spool(file, spoolFile)
+                .doOnError(e -> spoolFile.toFile().delete())
+                .then(blocking(() -> audioJobService.submit(userId, phraseId, spoolFile)))
+                .map(job -> ResponseEntity.accepted().body(BaseResponse.builder()
+                        .code(ResponseCode.ACCEPTED.getCode())
+                        .message(ResponseCode.ACCEPTED.getMessage())
+                        .data(job)
+                        .build()));
+    }
+
+    @PostMapping(value = "/user/{userId}/phrases", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Mono<ResponseEntity<BaseResponse>> uploadAudioBatch(
+            @PathVariable @NotBlank String userId,
+            ServerWebExchange exchange) {
+        return exchange.getMultipartData().flatMap(parts -> {
+            // WebFlux binds only query parameters to @RequestParam; phraseIds may come as form fields too, as with MVC
+            List<String> phraseIds = Stream.concat(
+                            exchange.getRequest().getQueryParams().getOrDefault("phraseIds", List.of()).stream(),
+                            parts.getOrDefault("phraseIds", List.of()).stream()
+                                    .filter(FormFieldPart.class::isInstance)
+                                    .map(part -> ((FormFieldPart) part).value()))
+                    .flatMap(value -> Arrays.stream(value.split(",")))
+                    .toList();
+            List<FilePart> files = parts.getOrDefault("files", List.of()).stream()
+                    .filter(FilePart.class::isInstance)
+                    .map(FilePart.class::cast)
+                    .toList();
+            if (phraseIds.size() != files.size()) {
+                throw new RequestValidationException(ResponseCode.BIND_ERROR.getCode(), "Each file needs exactly one phraseId");
+            }
+            if (files.size() > batchMaxItems) {
+                throw new RequestValidationException(ResponseCode.BIND_ERROR.getCode(), "At most " + batchMaxItems + " files per batch");
+            }
+
+            // Parts arrive one after another on the same connection, so they are spooled in order
+            List<Path> tempFiles = new ArrayList<>();
+            return Mono.using(() -> tempFiles,
+                    spooled -> Flux.range(0, files.size())
+                            .concatMap(i -> blocking(() -> Files.createTempFile("upload_", "_" + files.get(i).filename()))
+                                    .doOnNext(spooled::add)
+                                    .flatMap(tempFile -> spool(files.get(i), tempFile).map(sourceHash -> AudioRequest.builder()
+                                            .targetFormat(Format.WAV)
+                                            .userId(userId)
+                                            .phraseId(phraseIds.get(i))
+                                            .file(tempFile.toFile())
+                                            .sourceHash(sourceHash)
+                                            .build())))
+                            .collectList()
+                            .flatMap(requests -> blocking(() -> audioService.saveBatch(userId, requests))),
+                    spooled -> spooled.forEach(tempFile -> tempFile.toFile().delete()),
+                    true);
+        }).map(results -> ResponseEntity.ok().body(BaseResponse.builder()
+                .code(ResponseCode.SUCCESS.getCode())
+                .message(ResponseCode.SUCCESS.getMessage())
+                .data(results)
+                .build()));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public Mono<ResponseEntity<BaseResponse>> getJob(@PathVariable @NotBlank String jobId) {
+        return blocking(() -> audioJobService.get(jobId))
+                .map(job -> ResponseEntity.ok().body(BaseResponse.builder()
+                        .code(ResponseCode.SUCCESS.getCode())
+                        .message(ResponseCode.SUCCESS.getMessage())
+                        .data(job)
+                        .build()));
+    }
+
+    @GetMapping("/user/{userId}/phrase/{phraseId}/{audioFormat}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAudio(
+            @PathVariable @NotBlank String userId,
+            @PathVariable @NotBlank String phraseId,
+            @PathVariable @NotBlank String audioFormat,
+            @RequestParam(value = "profile", required = false) String profile,
+            ServerWebExchange exchange) {
+        Format.fromValue(audioFormat).orElseThrow(() -> new RequestValidationException(ResponseCode.FORMAT_INVALID.getCode(), ResponseCode.FORMAT_INVALID.getMessage()));
+        return download(userId, phraseId, audioFormat, profile, exchange,
+                audio -> publish(audioService.stream(audio, audioFormat, profile), exchange.getResponse().bufferFactory()));
+    }
+
+    @GetMapping(value = "/user/{userId}/phrase/{phraseId}/{audioFormat}", headers = HttpHeaders.RANGE)
+    public Mono<ResponseEntity<Resource>> getAudioRange(
+            @PathVariable @NotBlank String userId,
+            @PathVariable @NotBlank String phraseId,
+            @PathVariable @NotBlank String audioFormat,
+            @RequestParam(value = "profile", required = false) String profile,
+            ServerWebExchange exchange) {
+        Format.fromValue(audioFormat).orElseThrow(() -> new RequestValidationException(ResponseCode.FORMAT_INVALID.getCode(), ResponseCode.FORMAT_INVALID.getMessage()));
+        // A Resource lets WebFlux answer the range with 206 and read only the requested part
+        return download(userId, phraseId, audioFormat, profile, exchange, audio -> audioService.get(audio, audioFormat, profile));
+    }
+
+    /**
+     * Answers 304 from the audio row when the client's copy is current, so neither storage nor ffmpeg
+     * is touched, and redirects to storage in redirect mode; otherwise sends the body produced for the
+     * audio with its validators and caching headers.
+     */
+    private <T> Mono<ResponseEntity<T>> download(String userId, String phraseId, String audioFormat, String profile,
+                                                 ServerWebExchange exchange, Function<Audio, T> body) {
+        String fileName = userId.concat("_").concat(phraseId).concat(".").concat(audioFormat);
+        CacheControl cacheControl = AudioCacheHeaders.cacheControl(cacheMaxAgeSeconds, cachePublic);
+        return blocking(() -> audioService.find(userId, phraseId, audioFormat)).flatMap(audio -> {
+            String etag = AudioCacheHeaders.etag(audio, audioFormat, profile);
+            long lastModified = AudioCacheHeaders.lastModified(audio);
+            if (exchange.checkNotModified(etag, lastModified >= 0 ? Instant.ofEpochMilli(lastModified) : Instant.MIN)) {
+                return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build());
+            }
+            return blocking(() -> audioService.redirectUrl(audio, audioFormat, profile)).flatMap(redirect -> redirect.isPresent()
+                    ? Mono.just(ResponseEntity.status(HttpStatus.FOUND).location(redirect.get()).cacheControl(CacheControl.noStore()).build())
+                    : blocking(() -> body.apply(audio)).map(content -> {
+                        ResponseEntity.BodyBuilder response = attachment(fileName, MediaType.APPLICATION_OCTET_STREAM)
+                                .eTag(etag)
+                                .cacheControl(cacheControl);
+                        if (lastModified >= 0) {
+                            response.lastModified(lastModified);
+                        }
+                        return response.body(content);
+                    }));
+        });
+    }
+
+    @GetMapping("/user/{userId}/archive/{audioFormat}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUserArchive(
+            @PathVariable @NotBlank String userId,
+            @PathVariable @NotBlank String audioFormat,
+            ServerHttpResponse response) {
+        Format.fromValue(audioFormat).orElseThrow(() -> new RequestValidationException(ResponseCode.FORMAT_INVALID.getCode(), ResponseCode.FORMAT_INVALID.getMessage()));
+        return blocking(() -> audioService.archiveByUser(userId, audioFormat))
+                .map(body -> attachment(userId + "_" + audioFormat + ".zip", APPLICATION_ZIP).body(publish(body, response.bufferFactory())));
+    }
+
+    @GetMapping("/phrase/{phraseId}/archive/{audioFormat}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getPhraseArchive(
+            @PathVariable @NotBlank String phraseId,
+            @PathVariable @NotBlank String audioFormat,
+            ServerHttpResponse response) {
+        Format.fromValue(audioFormat).orElseThrow(() -> new RequestValidationException(ResponseCode.FORMAT_INVALID.getCode(), ResponseCode.FORMAT_INVALID.getMessage()));
+        return blocking(() -> audioService.archiveByPhrase(phraseId, audioFormat))
+                .map(body -> attachment(phraseId + "_" + audioFormat + ".zip", APPLICATION_ZIP).body(publish(body, response.bufferFactory())));
+    }
+
+    @GetMapping("/cache/stats")
+    public Mono<ResponseEntity<BaseResponse>> getCacheStats() {
+        return Mono.fromSupplier(() -> ResponseEntity.ok().body(BaseResponse.builder()
+                .code(ResponseCode.SUCCESS.getCode())
+                .message(ResponseCode.SUCCESS.getMessage())
+                .data(renditionCache.stats())
+                .build()));
+    }
+
+    /**
+     * Writes the part to the file and emits the SHA-256 of its content, hashed buffer by buffer on the way.
+     */
+    private static Mono<String> spool(FilePart file, Path target) {
+        return Mono.defer(() -> {
+            MessageDigest digest = ContentStore.sha256();
+            Flux<DataBuffer> content = file.content().doOnNext(buffer -> {
+                try (DataBuffer.ByteBufferIterator buffers = buffer.readableByteBuffers()) {
+                    buffers.forEachRemaining(digest::update);
+                }
+            });
+            return DataBufferUtils.write(content, target)
+                    .then(blocking(() -> Files.size(target)))
+                    .flatMap(size -> size == 0
+                            ? Mono.error(new RequestValidationException(ResponseCode.BIND_ERROR.getCode(), "Uploaded file is empty"))
+                            : Mono.just(ContentStore.hex(digest)));
+        });
+    }
+
+    /**
+     * Runs the body on a blocking thread. The output stream it writes to waits for downstream demand,
+     * so a slow client slows the transcoder instead of filling memory.
+     */
+    private static Flux<DataBuffer> publish(StreamingResponseBody body, DataBufferFactory bufferFactory) {
+        return Flux.from(DataBufferUtils.outputStreamPublisher(output -> {
+            try {
+                body.writeTo(output);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, bufferFactory, BLOCKING));
+    }
+
+    private static ResponseEntity.BodyBuilder attachment(String fileName, MediaType contentType) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(contentType);
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> task) {
+        return Mono.fromCallable(task).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,26 @@
+package com.audio.converter.model;
+
+import com.audio.converter.model.entity.Audio;
+import lombok.Getter;
+
+/**
+ * Result of the single query behind request validation: which of user and phrase exist, and the
+ * active audio for the pair if there is one.
+ */
+@Getter
+public class AudioLookup {
+    private String userId;
+    private String phraseId;
+    private Audio audio;
+
+    @lombok.Builder(builderClassName = "Builder", toBuilder = true)
+    public AudioLookup(String userId, String phraseId, Audio audio) {
+        this.userId = userId;
+        this.phraseId = phraseId;
+        this.audio = audio;
+    }
+
+    public boolean phraseExists() {
+        return phraseId != null;
+    }
+}
@@ -0,0 +1,24 @@
+package com.audio.converter.model;
+
+import lombok.Getter;
+
+@Getter
+public class AudioMetadata {
+    private String container;
+    private String codec;
+    private Long durationMillis;
+    private Integer sampleRate;
+    private Integer channels;
+    /** Bits per second as reported by the demuxer. */
+    private Integer bitrate;
+
+    @lombok.Builder(builderClassName = "Builder", toBuilder = true)
+    public AudioMetadata(String container, String codec, Long durationMillis, Integer sampleRate, Integer channels, Integer bitrate) {
+        this.container = container;
+        this.codec = codec;
+        this.durationMillis = durationMillis;
+        this.sampleRate = sampleRate;
+        this.channels = channels;
+        this.bitrate = bitrate;
+    }
+}
@@ -16,12 +16,15 @@ public class AudioRequest {
     private File file;
     private String phraseId;
     private String userId;
+    /** SHA-256 of the file when it was hashed while being written; worked out from the file otherwise. */
+    private String sourceHash;
 
     @lombok.Builder(builderClassName = "Builder", toBuilder = true)
-    public AudioRequest(Format targetFormat, File file, String phraseId, String userId) {
+    public AudioRequest(Format targetFormat, File file, String phraseId, String userId, String sourceHash) {
         this.targetFormat = targetFormat;
         this.file = file;
         this.phraseId = phraseId;
         this.userId = userId;
+        this.sourceHash = sourceHash;
     }
 }
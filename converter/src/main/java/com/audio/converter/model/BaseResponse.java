@@ -10,11 +10,14 @@ public class BaseResponse {
     private String message;
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private Resource audio;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Object data;
 
     @lombok.Builder(builderClassName = "Builder", toBuilder = true)
-    public BaseResponse(String code, String message, Resource audio) {
+    public BaseResponse(String code, String message, Resource audio, Object data) {
         this.code = code;
         this.message = message;
         this.audio = audio;
+        this.data = data;
     }
 }
@@ -0,0 +1,21 @@
+package com.audio.converter.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+
+@Getter
+public class BatchItemResult {
+    private String phraseId;
+    private String code;
+    private String message;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String audioId;
+
+    @lombok.Builder(builderClassName = "Builder", toBuilder = true)
+    public BatchItemResult(String phraseId, String code, String message, String audioId) {
+        this.phraseId = phraseId;
+        this.code = code;
+        this.message = message;
+        this.audioId = audioId;
+    }
+}
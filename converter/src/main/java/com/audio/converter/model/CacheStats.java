@@ -0,0 +1,30 @@
+package com.audio.converter.model;
+
+import lombok.Getter;
+
+@Getter
+public class CacheStats {
+    private long memoryHits;
+    private long diskHits;
+    private long misses;
+    private long memoryEvictions;
+    private long diskEvictions;
+    private long memoryEntries;
+    private long memoryBytes;
+    private long diskEntries;
+    private long diskBytes;
+
+    @lombok.Builder(builderClassName = "Builder", toBuilder = true)
+    public CacheStats(long memoryHits, long diskHits, long misses, long memoryEvictions, long diskEvictions,
+                      long memoryEntries, long memoryBytes, long diskEntries, long diskBytes) {
+        this.memoryHits = memoryHits;
+        this.diskHits = diskHits;
+        this.misses = misses;
+        this.memoryEvictions = memoryEvictions;
+        this.diskEvictions = diskEvictions;
+        this.memoryEntries = memoryEntries;
+        this.memoryBytes = memoryBytes;
+        this.diskEntries = diskEntries;
+        this.diskBytes = diskBytes;
+    }
+}
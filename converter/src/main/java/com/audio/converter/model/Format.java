@@ -9,7 +9,8 @@ import java.util.Optional;
 public enum Format {
     WAV("wav"),
     M4A("m4a"),
-    MP3("mp3");
+    MP3("mp3"),
+    FLAC("flac");
 
     private final String value;
 
@@ -0,0 +1,8 @@
+package com.audio.converter.model;
+
+public enum JobStatus {
+    PENDING,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
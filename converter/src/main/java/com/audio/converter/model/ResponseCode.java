@@ -11,13 +11,18 @@ public enum ResponseCode {
     RETRIEVE_FAILED("RETRIEVE_FAILED", "Retrieve Invalid"),
     UPLOAD_FAILED("UPLOAD_FAILED", "Upload Invalid"),
     FORMAT_INVALID("FORMAT_INVALID", "Format File is invalid"),
+    PROFILE_INVALID("PROFILE_INVALID", "Encoding profile is not exist"),
     USER_NOT_EXIST("USER_NOT_EXIST", "User is not exist"),
     FILE_NOT_EXIST("FILE_NOT_EXIST","File is not exist"),
     FILE_SIZE_EXCEEDED("FILE_SIZE_EXCEEDED","File size exceeds the allowed limit!"),
     PHRASE_NOT_EXIST("PHRASE_NOT_EXIST","Phrase is not exist"),
     AUDIO_NOT_EXIST("AUDIO_NOT_EXIST","Audio is not exist"),
     CANNOT_CONNECT_TO_GCP("CANNOT_CONNECT_TO_GCP","Cannot Connect to GCP"),
-    AUDIO_ALREADY_EXIST("AUDIO_ALREADY_EXIST","Audio already exist");
+    AUDIO_ALREADY_EXIST("AUDIO_ALREADY_EXIST","Audio already exist"),
+    TRANSCODER_BUSY("TRANSCODER_BUSY","Too many conversions in progress, retry later"),
+    TRANSCODER_TIMEOUT("TRANSCODER_TIMEOUT","Conversion was not started in time, retry later"),
+    JOB_NOT_EXIST("JOB_NOT_EXIST","Job is not exist"),
+    ACCEPTED("ACCEPTED","Upload accepted for processing");
 
 
     private String code;
@@ -0,0 +1,151 @@
+package com.audio.converter.model;
+
+import lombok.Getter;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Formats accepted for upload. Each is recognised from the first {@value #SNIFF_BYTES} bytes of the file, so
+ * anything else is rejected without starting ffmpeg; {@link #accepts} then checks what the demuxer reports.
+ */
+@Getter
+public enum SourceFormat {
+    M4A("m4a", SourceFormat::isIsoMedia, "mov,mp4,m4a", "aac"),
+    WAV("wav", SourceFormat::isWave, "wav", "pcm_"),
+    FLAC("flac", (head, offset, length) -> startsWith(head, offset, length, "fLaC"), "flac", "flac"),
+    OGG("ogg", (head, offset, length) -> offset == 0 && startsWith(head, 0, length, "OggS"), "ogg", "opus", "vorbis"),
+    WEBM("webm", SourceFormat::isWebm, "matroska,webm", "opus", "vorbis"),
+    // Last: a frame sync is only two bytes, so every container with a signature of its own is tried first
+    MP3("mp3", SourceFormat::isMpegAudio, "mp3", "mp3");
+
+    public static final int SNIFF_BYTES = 4096;
+
+    private static final byte[] EBML = {0x1A, 0x45, (byte) 0xDF, (byte) 0xA3};
+
+    private final String value;
+    private final Sniffer sniffer;
+    /** Demuxer name as reported by ffmpeg. */
+    private final String container;
+    private final String[] codecs;
+
+    SourceFormat(String value, Sniffer sniffer, String container, String... codecs) {
+        this.value = value;
+        this.sniffer = sniffer;
+        this.container = container;
+        this.codecs = codecs;
+    }
+
+    /**
+     * Whether the demuxed header matches this format: the expected container carrying one of its codecs.
+     */
+    public boolean accepts(AudioMetadata metadata) {
+        if (metadata.getContainer() == null || metadata.getCodec() == null
+                || !metadata.getContainer().toLowerCase().startsWith(container)) {
+            return false;
+        }
+        String codec = metadata.getCodec().toLowerCase();
+        return Arrays.stream(codecs).anyMatch(codec::contains);
+    }
+
+    public static Optional<SourceFormat> detect(File file) throws IOException {
+        try (InputStream input = new FileInputStream(file)) {
+            byte[] head = input.readNBytes(SNIFF_BYTES);
+            return detect(head, head.length);
+        }
+    }
+
+    /**
+     * The first format whose signature the head of a file matches.
+     */
+    public static Optional<SourceFormat> detect(byte[] head, int length) {
+        // An ID3v2 tag may precede MP3 and FLAC streams
+        int offset = id3Length(head, length);
+        if (offset < length) {
+            for (SourceFormat format : values()) {
+                if (format.sniffer.matches(head, offset, length)) {
+                    return Optional.of(format);
+                }
+            }
+        }
+        // A tag followed by nothing recognisable, or too large to see past, is almost always MP3
+        return offset > 0 ? Optional.of(MP3) : Optional.empty();
+    }
+
+    @FunctionalInterface
+    private interface Sniffer {
+        /**
+         * @param offset where the audio starts, past any ID3v2 tag
+         */
+        boolean matches(byte[] head, int offset, int length);
+    }
+
+    private static boolean isIsoMedia(byte[] head, int offset, int length) {
+        // The ftyp box comes first; which brands carry AAC is left to the demuxer
+        return offset == 0 && startsWith(head, 4, length, "ftyp");
+    }
+
+    private static boolean isWave(byte[] head, int offset, int length) {
+        return offset == 0 && startsWith(head, 0, length, "RIFF") && startsWith(head, 8, length, "WAVE");
+    }
+
+    private static boolean isWebm(byte[] head, int offset, int length) {
+        if (offset != 0 || !startsWith(head, 0, length, EBML)) {
+            return false;
+        }
+        // The DocType element sits in the EBML header; plain Matroska is not accepted
+        byte[] docType = "webm".getBytes(StandardCharsets.US_ASCII);
+        for (int i = EBML.length; i + docType.length <= Math.min(length, 64); i++) {
+            if (startsWith(head, i, length, docType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isMpegAudio(byte[] head, int offset, int length) {
+        if (offset + 3 > length) {
+            return false;
+        }
+        int b1 = head[offset + 1] & 0xFF;
+        int b2 = head[offset + 2] & 0xFF;
+        // 11-bit frame sync, layer III, and neither the free/bad bitrate index nor the reserved sample rate.
+        // ADTS AAC shares the sync but has layer bits 00.
+        return (head[offset] & 0xFF) == 0xFF && (b1 & 0xE0) == 0xE0 && (b1 & 0x06) == 0x02
+                && (b2 & 0xF0) != 0 && (b2 & 0xF0) != 0xF0 && (b2 & 0x0C) != 0x0C;
+    }
+
+    /**
+     * Size of an ID3v2 tag at the start of the file including its header, or 0 if there is none.
+     */
+    private static int id3Length(byte[] head, int length) {
+        if (length < 10 || !startsWith(head, 0, length, "ID3")) {
+            return 0;
+        }
+        // Syncsafe integer: 7 bits per byte
+        int size = (head[6] & 0x7F) << 21 | (head[7] & 0x7F) << 14 | (head[8] & 0x7F) << 7 | (head[9] & 0x7F);
+        boolean footer = (head[5] & 0x10) != 0;
+        return 10 + size + (footer ? 10 : 0);
+    }
+
+    private static boolean startsWith(byte[] head, int offset, int length, String signature) {
+        return startsWith(head, offset, length, signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static boolean startsWith(byte[] head, int offset, int length, byte[] signature) {
+        if (offset + signature.length > length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if (head[offset + i] != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
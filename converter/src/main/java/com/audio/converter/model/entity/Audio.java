@@ -1,5 +1,6 @@
 package com.audio.converter.model.entity;
 
+import com.audio.converter.repository.AudioEntityListener;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
@@ -20,10 +21,12 @@ import java.time.LocalDateTime;
 @Entity
 @Data
 @NoArgsConstructor
+@EntityListeners(AudioEntityListener.class)
 @Table(
         name = "audio",
         indexes = {
                 @Index(name = "idx_user_phrase_deleted", columnList = "user_id,phrase_id,deleted_at"),
+                @Index(name = "idx_audio_source_sha256", columnList = "source_sha256"),
         }
 )
 public class Audio {
@@ -41,9 +44,32 @@ public class Audio {
     @Column(name = "path", nullable = false, length = 1000)
     private String path;
 
+    /**
+     * SHA-256 of the uploaded file, combined with the preprocessing applied to it, used to recognise a re-upload
+     * of the same recording.
+     */
+    @Column(name = "source_sha256", length = 64)
+    private String sourceHash;
+
     @Column(name = "description", length = 1000)
     private String description;
 
+    @Column(name = "duration_ms")
+    private Long durationMillis;
+
+    /** Length of the stored WAV after silence trimming, or null when the upload was stored untrimmed. */
+    @Column(name = "trimmed_duration_ms")
+    private Long trimmedDurationMillis;
+
+    @Column(name = "sample_rate")
+    private Integer sampleRate;
+
+    @Column(name = "channels")
+    private Integer channels;
+
+    @Column(name = "bitrate")
+    private Integer bitrate;
+
     @Column(name = "user_id", nullable = false)
     private String userId;
 
@@ -74,12 +100,18 @@ public class Audio {
     private LocalDateTime deletedAt;
 
     @lombok.Builder(builderClassName = "Builder", toBuilder = true)
-    public Audio(String id, String originalFormat, String convertedFormat, String path, String description, String userId, String phraseId, LocalDateTime createdAt, String createdBy, String updatedBy, LocalDateTime updatedAt, String deletedBy, LocalDateTime deletedAt) {
+    public Audio(String id, String originalFormat, String convertedFormat, String path, String sourceHash, String description, Long durationMillis, Long trimmedDurationMillis, Integer sampleRate, Integer channels, Integer bitrate, String userId, String phraseId, LocalDateTime createdAt, String createdBy, String updatedBy, LocalDateTime updatedAt, String deletedBy, LocalDateTime deletedAt) {
         this.id = id;
         this.originalFormat = originalFormat;
         this.convertedFormat = convertedFormat;
         this.path = path;
+        this.sourceHash = sourceHash;
         this.description = description;
+        this.durationMillis = durationMillis;
+        this.trimmedDurationMillis = trimmedDurationMillis;
+        this.sampleRate = sampleRate;
+        this.channels = channels;
+        this.bitrate = bitrate;
         this.userId = userId;
         this.phraseId = phraseId;
         this.createdAt = createdAt;
@@ -0,0 +1,81 @@
+package com.audio.converter.model.entity;
+
+import com.audio.converter.model.JobStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@NoArgsConstructor
+@Table(
+        name = "audio_job",
+        indexes = {
+                @Index(name = "idx_audio_job_status", columnList = "status"),
+        }
+)
+public class AudioJob {
+    @Id
+    @GeneratedValue
+    @UuidGenerator
+    private String id;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "phrase_id", nullable = false)
+    private String phraseId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private JobStatus status;
+
+    @JsonIgnore
+    @Column(name = "source_path", nullable = false, length = 1000)
+    private String sourcePath;
+
+    /** The audio this job saved, written in the same transaction as the audio row. */
+    @Column(name = "audio_id")
+    private String audioId;
+
+    @Column(name = "error_code", length = 50)
+    private String errorCode;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+    @JsonSerialize(using = LocalDateTimeSerializer.class)
+    @JsonDeserialize(using = LocalDateTimeDeserializer.class)
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+    @JsonSerialize(using = LocalDateTimeSerializer.class)
+    @JsonDeserialize(using = LocalDateTimeDeserializer.class)
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @lombok.Builder(builderClassName = "Builder", toBuilder = true)
+    public AudioJob(String id, String userId, String phraseId, JobStatus status, String sourcePath, String audioId, String errorCode, String errorMessage, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.phraseId = phraseId;
+        this.status = status;
+        this.sourcePath = sourcePath;
+        this.audioId = audioId;
+        this.errorCode = errorCode;
+        this.errorMessage = errorMessage;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+}
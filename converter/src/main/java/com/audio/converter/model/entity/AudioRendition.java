@@ -0,0 +1,57 @@
+package com.audio.converter.model.entity;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@NoArgsConstructor
+@Table(
+        name = "audio_rendition",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_audio_rendition_format", columnNames = {"audio_id", "format"}),
+        }
+)
+public class AudioRendition {
+    @Id
+    @GeneratedValue
+    @UuidGenerator
+    private String id;
+
+    @Column(name = "audio_id", nullable = false)
+    private String audioId;
+
+    @Column(name = "format", nullable = false, length = 10)
+    private String format;
+
+    @Column(name = "path", nullable = false, length = 1000)
+    private String path;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+    @JsonSerialize(using = LocalDateTimeSerializer.class)
+    @JsonDeserialize(using = LocalDateTimeDeserializer.class)
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @lombok.Builder(builderClassName = "Builder", toBuilder = true)
+    public AudioRendition(String id, String audioId, String format, String path, Long sizeBytes, LocalDateTime createdAt) {
+        this.id = id;
+        this.audioId = audioId;
+        this.format = format;
+        this.path = path;
+        this.sizeBytes = sizeBytes;
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,64 @@
+package com.audio.converter.model.entity;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.LocalDateTime;
+
+/**
+ * A stored object identified by the SHA-256 of its bytes, with the number of audios and
+ * renditions pointing at it.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(
+        name = "stored_content",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_stored_content_hash", columnNames = {"sha256"}),
+        },
+        indexes = {
+                @Index(name = "idx_stored_content_path", columnList = "path"),
+        }
+)
+public class StoredContent {
+    @Id
+    @GeneratedValue
+    @UuidGenerator
+    private String id;
+
+    @Column(name = "sha256", nullable = false, length = 64)
+    private String sha256;
+
+    @Column(name = "path", nullable = false, length = 1000)
+    private String path;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+    @JsonSerialize(using = LocalDateTimeSerializer.class)
+    @JsonDeserialize(using = LocalDateTimeDeserializer.class)
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @lombok.Builder(builderClassName = "Builder", toBuilder = true)
+    public StoredContent(String id, String sha256, String path, Long sizeBytes, Integer refCount, LocalDateTime createdAt) {
+        this.id = id;
+        this.sha256 = sha256;
+        this.path = path;
+        this.sizeBytes = sizeBytes;
+        this.refCount = refCount;
+        this.createdAt = createdAt;
+    }
+}
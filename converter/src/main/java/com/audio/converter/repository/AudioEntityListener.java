@@ -0,0 +1,25 @@
+package com.audio.converter.repository;
+
+import com.audio.converter.model.entity.Audio;
+import com.audio.converter.service.RenditionCache;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Drops cached renditions whenever an Audio row is updated or soft-deleted,
+ * so readers never get a conversion of content that no longer applies.
+ */
+public class AudioEntityListener {
+
+    @Autowired
+    private RenditionCache renditionCache;
+
+    @PostUpdate
+    @PostRemove
+    public void evictRenditions(Audio audio) {
+        if (audio.getId() != null) {
+            renditionCache.invalidate(audio.getId());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.audio.converter.repository;
+
+import com.audio.converter.model.JobStatus;
+import com.audio.converter.model.entity.AudioJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface AudioJobRepository extends JpaRepository<AudioJob, String> {
+    List<AudioJob> findByStatusIn(Collection<JobStatus> statuses);
+
+}
@@ -0,0 +1,17 @@
+package com.audio.converter.repository;
+
+import com.audio.converter.model.entity.AudioRendition;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface AudioRenditionRepository extends JpaRepository<AudioRendition, String> {
+    Optional<AudioRendition> findByAudioIdAndFormat(String audioId, String format);
+
+    List<AudioRendition> findByAudioIdInAndFormat(Collection<String> audioIds, String format);
+
+    List<AudioRendition> findByAudioId(String audioId);
+
+}
@@ -0,0 +1,37 @@
+package com.audio.converter.repository;
+
+import com.audio.converter.model.AudioLookup;
+import com.audio.converter.model.entity.Audio;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface AudioRepository extends JpaRepository<Audio, String> {
+    @Query("SELECT audio FROM Audio audio WHERE audio.userId = :userId and audio.phraseId = :phraseId and audio.deletedAt IS null")
+    Audio findByUserIdAndPhraseAndDeletedAtIsNull(String userId, String phraseId);
+
+    @Query("SELECT audio FROM Audio audio WHERE audio.userId = :userId and audio.phraseId IN :phraseIds and audio.deletedAt IS null")
+    List<Audio> findByUserIdAndPhraseIdInAndDeletedAtIsNull(String userId, Collection<String> phraseIds);
+
+    /**
+     * Answers user existence, phrase existence and the active audio in one round trip.
+     * Empty when the user does not exist; the phrase id is null when the phrase does not.
+     */
+    @Query("SELECT new com.audio.converter.model.AudioLookup(u.id, p.id, audio) FROM User u "
+            + "LEFT JOIN Phrase p ON p.id = :phraseId "
+            + "LEFT JOIN Audio audio ON audio.userId = u.id and audio.phraseId = p.id and audio.deletedAt IS null "
+            + "WHERE u.id = :userId")
+    Optional<AudioLookup> lookup(String userId, String phraseId);
+
+    List<Audio> findByUserIdAndDeletedAtIsNull(String userId);
+
+    List<Audio> findByPhraseIdAndDeletedAtIsNull(String phraseId);
+
+    /**
+     * Any audio, deleted or not, converted from a source with this hash; its stored objects are still there.
+     */
+    Optional<Audio> findFirstBySourceHash(String sourceHash);
+}
@@ -0,0 +1,34 @@
+package com.audio.converter.repository;
+
+import com.audio.converter.model.entity.StoredContent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public interface StoredContentRepository extends JpaRepository<StoredContent, String> {
+    Optional<StoredContent> findBySha256(String sha256);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE StoredContent content SET content.refCount = content.refCount + 1 WHERE content.sha256 = :sha256")
+    int incrementRefCount(String sha256);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE StoredContent content SET content.refCount = content.refCount + 1 WHERE content.path IN :paths")
+    int incrementRefCountByPathIn(Collection<String> paths);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE StoredContent content SET content.refCount = content.refCount - 1 WHERE content.path IN :paths")
+    int decrementRefCountByPathIn(Collection<String> paths);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM StoredContent content WHERE content.path = :path AND content.refCount <= 0")
+    int deleteUnreferenced(String path);
+}
@@ -0,0 +1,190 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.AudioRequest;
+import com.audio.converter.model.Format;
+import com.audio.converter.model.JobStatus;
+import com.audio.converter.model.ResponseCode;
+import com.audio.converter.model.SourceFormat;
+import com.audio.converter.model.entity.AudioJob;
+import com.audio.converter.repository.AudioJobRepository;
+import com.audio.converter.util.BusinessLogicException;
+import com.audio.converter.util.RequestValidationException;
+import com.audio.converter.util.ServiceOverloadedException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts uploads for background processing. Each upload is spooled to disk and tracked in the
+ * audio_job table, so jobs that were pending when the service stopped are picked up again on start.
+ */
+@Slf4j
+@Service
+public class AudioJobService {
+
+    private static final List<JobStatus> UNFINISHED = List.of(JobStatus.PENDING, JobStatus.RUNNING);
+
+    @Autowired
+    private AudioJobRepository audioJobRepository;
+
+    @Autowired
+    private AudioService audioService;
+
+    @Value("${audio.jobs.spool-dir:${java.io.tmpdir}/audio-jobs}")
+    private String spoolDir;
+
+    @Value("${audio.jobs.workers:2}")
+    private int workers;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private Path spoolDirectory;
+    private ScheduledThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() throws IOException {
+        spoolDirectory = Paths.get(spoolDir);
+        Files.createDirectories(spoolDirectory);
+        // Job workers only orchestrate; the conversions themselves still go through the transcoding pool
+        executor = new ScheduledThreadPoolExecutor(workers, ThreadFactories.named("audio-job-", virtualThreads));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Path in the spool directory for an upload; the file is kept across restarts until its job finishes.
+     */
+    public Path createSpoolFile(String originalFilename) {
+        return spoolDirectory.resolve(UUID.randomUUID() + "_" + Paths.get(String.valueOf(originalFilename)).getFileName());
+    }
+
+    /**
+     * Queues the spooled upload for processing. The user, phrase and existing audio are checked first, with the
+     * same cached lookups as a synchronous upload, so a request that cannot succeed is refused rather than
+     * accepted and failed later; the spool file is then removed.
+     */
+    public AudioJob submit(String userId, String phraseId, Path spoolFile) {
+        try {
+            // Same checks as a synchronous upload, so a job is only accepted for content it can convert
+            if (detect(spoolFile).isEmpty()) {
+                throw new RequestValidationException(ResponseCode.FORMAT_INVALID.getCode(), ResponseCode.FORMAT_INVALID.getMessage());
+            }
+            audioService.validateUpload(userId, phraseId);
+        } catch (RuntimeException e) {
+            spoolFile.toFile().delete();
+            throw e;
+        }
+        AudioJob job = audioJobRepository.save(AudioJob.builder()
+                .userId(userId)
+                .phraseId(phraseId)
+                .status(JobStatus.PENDING)
+                .sourcePath(spoolFile.toString())
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+        executor.execute(() -> process(job.getId()));
+        return job;
+    }
+
+    private static Optional<SourceFormat> detect(Path spoolFile) {
+        try {
+            return SourceFormat.detect(spoolFile.toFile());
+        } catch (IOException e) {
+            log.warn("Could not read spooled upload {} to detect its format", spoolFile, e);
+            return Optional.empty();
+        }
+    }
+
+    public AudioJob get(String jobId) {
+        return audioJobRepository.findById(jobId).orElseThrow(() ->
+                new RequestValidationException(ResponseCode.JOB_NOT_EXIST.getCode(), ResponseCode.JOB_NOT_EXIST.getMessage()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        List<AudioJob> jobs = audioJobRepository.findByStatusIn(UNFINISHED);
+        if (!jobs.isEmpty()) {
+            log.info("Resuming {} unfinished audio jobs", jobs.size());
+        }
+        jobs.forEach(job -> executor.execute(() -> process(job.getId())));
+    }
+
+    void process(String jobId) {
+        AudioJob job = audioJobRepository.findById(jobId).orElse(null);
+        if (job == null || !UNFINISHED.contains(job.getStatus())) {
+            return;
+        }
+
+        // A job that was running when the service stopped may have saved its audio before it was marked as finished;
+        // its audio id is committed together with the audio, so it alone tells whether it did
+        if (job.getAudioId() != null) {
+            finish(job, JobStatus.SUCCEEDED, null, null);
+            return;
+        }
+
+        File source = new File(job.getSourcePath());
+        if (!source.exists()) {
+            finish(job, JobStatus.FAILED, ResponseCode.UPLOAD_FAILED.getCode(), "Uploaded file is no longer available");
+            return;
+        }
+
+        update(job, JobStatus.RUNNING);
+        try {
+            audioService.save(AudioRequest.builder()
+                    .targetFormat(Format.WAV)
+                    .userId(job.getUserId())
+                    .phraseId(job.getPhraseId())
+                    .file(source)
+                    .build(), audio -> {
+                job.setAudioId(audio.getId());
+                audioJobRepository.save(job);
+            });
+            finish(job, JobStatus.SUCCEEDED, null, null);
+        } catch (ServiceOverloadedException e) {
+            // Transcoding pool is saturated; keep the spooled file and try again once it has drained a bit
+            update(job, JobStatus.PENDING);
+            executor.schedule(() -> process(jobId), e.getRetryAfterSeconds(), TimeUnit.SECONDS);
+        } catch (RequestValidationException e) {
+            finish(job, JobStatus.FAILED, e.getCode(), e.getMessage());
+        } catch (BusinessLogicException e) {
+            finish(job, JobStatus.FAILED, e.getCode(), e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Audio job failed: id={}", jobId, e);
+            finish(job, JobStatus.FAILED, ResponseCode.SYSTEM_ERROR.getCode(), ResponseCode.SYSTEM_ERROR.getMessage());
+        }
+    }
+
+    private void update(AudioJob job, JobStatus status) {
+        job.setStatus(status);
+        job.setUpdatedAt(LocalDateTime.now());
+        audioJobRepository.save(job);
+    }
+
+    private void finish(AudioJob job, JobStatus status, String errorCode, String errorMessage) {
+        job.setErrorCode(errorCode);
+        job.setErrorMessage(errorMessage);
+        update(job, status);
+        new File(job.getSourcePath()).delete();
+    }
+}
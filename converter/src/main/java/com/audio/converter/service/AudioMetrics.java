@@ -0,0 +1,200 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.Format;
+import com.audio.converter.model.SourceFormat;
+import com.audio.converter.util.BusinessLogicException;
+import com.audio.converter.util.RequestValidationException;
+import com.audio.converter.util.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Per-stage timers and byte counters for the upload and retrieval paths. Every stage is
+ * recorded under {@code audio.stage.duration}, tagged with the stage, the audio format and
+ * the outcome (SUCCESS or the response code it failed with), so the slowest stage can be read
+ * straight off the Prometheus histograms.
+ */
+@Component
+public class AudioMetrics {
+
+    public static final String VALIDATE = "validate";
+    public static final String TRANSCODE = "transcode";
+    public static final String STORAGE_UPLOAD = "storage.upload";
+    public static final String STORAGE_DOWNLOAD = "storage.download";
+    public static final String DB_SAVE = "db.save";
+
+    private static final String SUCCESS = "SUCCESS";
+    /** Format tag of a stage that covers uploads of more than one format. */
+    private static final String MIXED = "mixed";
+
+    private final MeterRegistry registry;
+
+    public AudioMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public <T> T time(String stage, Format format, Supplier<T> task) {
+        return time(stage, format.getValue(), task);
+    }
+
+    /**
+     * Times a stage of the upload path, tagged with the format the upload arrived in.
+     */
+    public <T> T time(String stage, SourceFormat format, Supplier<T> task) {
+        return time(stage, format.getValue(), task);
+    }
+
+    /**
+     * Times a stage covering several uploads, e.g. the validation of a batch; tagged {@value #MIXED} unless
+     * they all arrived in the same format.
+     */
+    public <T> T time(String stage, Collection<SourceFormat> formats, Supplier<T> task) {
+        String tag = formats.stream().distinct().count() == 1 ? formats.iterator().next().getValue() : MIXED;
+        return time(stage, tag, task);
+    }
+
+    private <T> T time(String stage, String format, Supplier<T> task) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = SUCCESS;
+        try {
+            return task.get();
+        } catch (RuntimeException e) {
+            outcome = outcome(e);
+            throw e;
+        } finally {
+            sample.stop(timer(stage, format, outcome));
+        }
+    }
+
+    public <T> T timeTask(String stage, Format format, TranscodingExecutor.TranscodingTask<T> task)
+            throws IOException, InterruptedException {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = SUCCESS;
+        try {
+            return task.call();
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            outcome = outcome(e);
+            throw e;
+        } finally {
+            sample.stop(timer(stage, format.getValue(), outcome));
+        }
+    }
+
+    public void bytesIn(SourceFormat format, long bytes) {
+        bytes("in", format.getValue(), bytes);
+    }
+
+    public void bytesOut(Format format, long bytes) {
+        bytes("out", format.getValue(), bytes);
+    }
+
+    /**
+     * Counts a request that was answered by another request's in-flight conversion.
+     */
+    public void coalesced(Format format) {
+        Counter.builder("audio.conversion.coalesced")
+                .description("Conversions served from an identical one already in flight")
+                .tag("format", format.getValue())
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Counts a download handed to storage with a redirect instead of being sent by this application.
+     */
+    public void redirected(Format format) {
+        Counter.builder("audio.delivery.redirects")
+                .description("Downloads redirected to a signed storage URL")
+                .tag("format", format.getValue())
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Counts content that was already stored and not written again.
+     */
+    public void deduplicated(Format format, long bytes) {
+        deduplicated(format.getValue(), bytes);
+    }
+
+    /**
+     * Counts an upload whose stored objects were reused, tagged with the format it arrived in.
+     */
+    public void deduplicated(SourceFormat format, long bytes) {
+        deduplicated(format.getValue(), bytes);
+    }
+
+    /**
+     * Counts the silence cut from an upload during ingest.
+     */
+    public void trimmed(Format format, long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        Counter.builder("audio.ingest.trimmed")
+                .description("Silence removed from uploads before they were stored")
+                .baseUnit("milliseconds")
+                .tag("format", format.getValue())
+                .register(registry)
+                .increment(millis);
+    }
+
+    private void deduplicated(String format, long bytes) {
+        Counter.builder("audio.storage.deduplicated")
+                .description("Stored objects reused instead of uploading identical content")
+                .tag("format", format)
+                .register(registry)
+                .increment();
+        if (bytes > 0) {
+            Counter.builder("audio.storage.deduplicated.bytes")
+                    .description("Bytes not written to storage because identical content was already stored")
+                    .baseUnit("bytes")
+                    .tag("format", format)
+                    .register(registry)
+                    .increment(bytes);
+        }
+    }
+
+    private void bytes(String direction, String format, long bytes) {
+        if (bytes <= 0) {
+            return;
+        }
+        Counter.builder("audio.bytes")
+                .description("Audio bytes received from uploads and sent to clients")
+                .baseUnit("bytes")
+                .tag("direction", direction)
+                .tag("format", format)
+                .register(registry)
+                .increment(bytes);
+    }
+
+    private Timer timer(String stage, String format, String outcome) {
+        return Timer.builder("audio.stage.duration")
+                .description("Time spent in each stage of the upload and retrieval paths")
+                .tag("stage", stage)
+                .tag("format", format)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static String outcome(Exception e) {
+        // Response codes keep the tag set small; anything unmapped is reported by its type
+        if (e instanceof RequestValidationException validation) {
+            return validation.getCode();
+        }
+        if (e instanceof BusinessLogicException business) {
+            return business.getCode();
+        }
+        if (e instanceof ServiceOverloadedException overloaded) {
+            return overloaded.getCode();
+        }
+        return e.getClass().getSimpleName();
+    }
+}
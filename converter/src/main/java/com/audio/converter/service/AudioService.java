@@ -0,0 +1,114 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.AudioRequest;
+import com.audio.converter.model.BatchItemResult;
+import com.audio.converter.model.entity.Audio;
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public interface AudioService {
+    Boolean save(AudioRequest request);
+
+    /**
+     * Same as {@link #save(AudioRequest)}; {@code onSaved} is called with the new audio inside the transaction that
+     * saves it, so whatever it writes is committed together with the audio or not at all.
+     */
+    Boolean save(AudioRequest request, Consumer<Audio> onSaved);
+
+    /**
+     * The checks {@link #save} makes before converting: the user and phrase exist and the user has no audio
+     * for the phrase yet. Lets an upload accepted for later processing be refused while the client still waits.
+     */
+    void validateUpload(String userId, String phraseId);
+
+    /**
+     * Saves several uploads of one user. Items are converted and uploaded concurrently, and each gets
+     * its own result in request order, so one bad file does not fail the rest.
+     */
+    List<BatchItemResult> saveBatch(String userId, List<AudioRequest> requests);
+    Resource get(String userID, String phraseId, String format);
+
+    /**
+     * Validates a download and returns the audio it refers to, so a caller can answer conditional
+     * requests from the row before anything is fetched or converted.
+     */
+    Audio find(String userId, String phraseId, String format);
+
+    /**
+     * Same as {@link #get(String, String, String)} for an audio already returned by {@link #find}.
+     */
+    default Resource get(Audio audio, String format) {
+        return get(audio, format, null);
+    }
+
+    /**
+     * Same as {@link #get(Audio, String)} encoded with the named {@link EncodingProfile}, or with the
+     * format's default encoding when {@code profile} is null. Each profile is converted and cached on its own.
+     */
+    Resource get(Audio audio, String format, String profile);
+
+    /**
+     * Streams the audio in the requested format without materializing it in memory.
+     * Validation happens before this returns, so errors surface before the response is committed.
+     */
+    StreamingResponseBody stream(String userId, String phraseId, String format);
+
+    /**
+     * Same as {@link #stream(String, String, String)} for an audio already returned by {@link #find}.
+     */
+    default StreamingResponseBody stream(Audio audio, String format) {
+        return stream(audio, format, null);
+    }
+
+    /**
+     * Same as {@link #stream(Audio, String)} encoded with the named {@link EncodingProfile}.
+     */
+    StreamingResponseBody stream(Audio audio, String format, String profile);
+
+    /**
+     * With {@code audio.delivery.mode=redirect}, a time-limited URL from which the client can fetch the
+     * audio straight from storage. Empty in proxy mode, when the format still has to be converted, or when
+     * the store cannot hand out such URLs; the audio is then served through {@link #get} or {@link #stream}.
+     */
+    default Optional<URI> redirectUrl(Audio audio, String format) {
+        return redirectUrl(audio, format, null);
+    }
+
+    /**
+     * Same as {@link #redirectUrl(Audio, String)}; a profile that changes the encoding is always converted
+     * on the way, so it is never redirected.
+     */
+    Optional<URI> redirectUrl(Audio audio, String format, String profile);
+
+    /**
+     * The stored object for the format as a file on this node, when the store keeps objects on local disk
+     * and the format is served unconverted, so the web server can send it from the file without copying it
+     * through the application. Empty otherwise; the audio is then served through {@link #get} or {@link #stream}.
+     */
+    Optional<File> localFile(Audio audio, String format, String profile);
+
+    /**
+     * Streams a ZIP with every audio of the user in the requested format, one entry per phrase.
+     * Entries are fetched and converted a few at a time and written as they become ready.
+     */
+    StreamingResponseBody archiveByUser(String userId, String format);
+
+    /**
+     * Same as {@link #archiveByUser(String, String)} for every user's audio of one phrase.
+     */
+    StreamingResponseBody archiveByPhrase(String phraseId, String format);
+
+    /**
+     * Checks the header of the file for an accepted upload format without converting it.
+     * Uploads go through {@link #save(AudioRequest)}, which performs the same check in its conversion pass.
+     */
+    Boolean retrieveAudioFormat(File file) throws IOException ;
+
+}
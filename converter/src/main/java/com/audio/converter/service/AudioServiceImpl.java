@@ -0,0 +1,1221 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.AudioLookup;
+import com.audio.converter.model.AudioMetadata;
+import com.audio.converter.model.AudioRequest;
+import com.audio.converter.model.BatchItemResult;
+import com.audio.converter.model.Format;
+import com.audio.converter.model.ResponseCode;
+import com.audio.converter.model.SourceFormat;
+import com.audio.converter.model.entity.Audio;
+import com.audio.converter.model.entity.AudioRendition;
+import com.audio.converter.repository.AudioRenditionRepository;
+import com.audio.converter.repository.AudioRepository;
+import com.audio.converter.repository.PhraseRepository;
+import com.audio.converter.repository.UserRepository;
+import com.audio.converter.util.BusinessLogicException;
+import com.audio.converter.util.RequestValidationException;
+import com.audio.converter.util.ServiceOverloadedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+@Service
+@Slf4j
+public class AudioServiceImpl implements AudioService {
+
+    /** Enough for the fmt chunk and the LIST chunk ffmpeg writes ahead of a WAV master's samples. */
+    private static final int WAV_HEAD_BYTES = 4096;
+
+    @Autowired
+    private AudioRepository audioRepository;
+
+    @Autowired
+    private AudioRenditionRepository audioRenditionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PhraseRepository phraseRepository;
+
+    @Autowired
+    private ExistenceCache existenceCache;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private ContentStore contentStore;
+
+    @Autowired
+    private RenditionCache renditionCache;
+
+    @Autowired
+    private EncodingProfiles encodingProfiles;
+
+    @Autowired
+    private Transcoder transcoder;
+
+    @Autowired
+    private TranscodingExecutor transcodingExecutor;
+
+    @Autowired
+    private StorageExecutor storageExecutor;
+
+    @Autowired
+    private AudioMetrics audioMetrics;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${audio.streaming.enabled:false}")
+    private boolean streamingEnabled;
+
+    @Value("${audio.renditions.eager:}")
+    private String eagerRenditions;
+
+    @Value("${audio.master-format:wav}")
+    private String masterFormat;
+
+    @Value("${audio.archive.concurrency:4}")
+    private int archiveConcurrency;
+
+    @Value("${audio.delivery.mode:proxy}")
+    private String deliveryMode;
+
+    @Value("${audio.delivery.url-ttl-seconds:300}")
+    private long deliveryUrlTtlSeconds;
+
+    @Value("${audio.preprocess.trim-silence:false}")
+    private boolean trimSilence;
+
+    @Value("${audio.preprocess.silence-threshold-db:-50}")
+    private double silenceThresholdDb;
+
+    @Value("${audio.preprocess.max-silence-ms:1000}")
+    private long maxSilenceMillis;
+
+    @Value("${audio.preprocess.normalize-loudness:false}")
+    private boolean normalizeLoudness;
+
+    @Value("${audio.preprocess.loudness-target-lufs:-16}")
+    private double loudnessTargetLufs;
+
+    private final SingleFlight<String, byte[]> conversions = new SingleFlight<>();
+
+    @Override
+    public Boolean save(AudioRequest request) {
+        return save(request, audio -> {
+        });
+    }
+
+    @Override
+    public Boolean save(AudioRequest request, Consumer<Audio> onSaved) {
+        // Unknown formats are turned away from the first few KB, before any query, hashing or ffmpeg
+        SourceFormat source = sourceFormat(request.getFile());
+        audioMetrics.time(AudioMetrics.VALIDATE, source, () -> {
+            validateUpload(request.getUserId(), request.getPhraseId());
+            return null;
+        });
+        audioMetrics.bytesIn(source, request.getFile().length());
+
+        //validate and convert the upload to the master format in a single ffmpeg pass
+        List<File> outputFiles = new ArrayList<>();
+        StoredUpload stored;
+        try {
+            Format master = masterFormat();
+            Set<Format> eagerFormats = eagerFormats();
+            // Hashed while it was spooled, or in one sequential read; a file uploaded before with the same preprocessing
+            // needs no ffmpeg run or storage write at all
+            String sourceHash = sourceHash(request, ingestFilter());
+            Optional<StoredUpload> reused = reuse(request.getFile(), source, sourceHash, eagerFormats);
+            if (reused.isPresent()) {
+                stored = reused.get();
+            } else if (!eagerFormats.isEmpty()) {
+                // One ffmpeg run writes the master and every eager rendition; several outputs need files, not a pipe
+                Map<Format, File> outputs = outputFiles(request.getFile(), master, eagerFormats);
+                outputFiles.addAll(outputs.values());
+                IngestFilter filter = ingestFilter();
+                AudioMetadata metadata = transcodingExecutor.execute(() -> audioMetrics.timeTask(AudioMetrics.TRANSCODE, master, () ->
+                        transcoder.ingest(request.getFile(), outputs, filter, source::accepts)));
+                Long trimmedDuration = trimmedDuration(filter, metadata, master, outputs.get(master));
+                List<AudioRendition> renditions = new ArrayList<>();
+                stored = new StoredUpload(sourceHash, source, master, uploadOutputs(outputs, master, renditions), metadata,
+                        trimmedDuration, renditions);
+            } else if (streamingEnabled) {
+                // Pipe ffmpeg's output straight into the GCS writer
+                stored = convertAndUpload(request.getFile(), source, sourceHash, master);
+            } else {
+                // Convert the upload to the master format
+                File masterFile = new File(request.getFile().getParent(), UUID.randomUUID() + "." + master.getValue());
+                outputFiles.add(masterFile);
+                IngestFilter filter = ingestFilter();
+                AudioMetadata metadata = transcodingExecutor.execute(() -> audioMetrics.timeTask(AudioMetrics.TRANSCODE, master, () ->
+                        ingest(request.getFile(), source, master, filter, masterFile)));
+                Long trimmedDuration = trimmedDuration(filter, metadata, master, masterFile);
+                // Upload to GCS
+                stored = new StoredUpload(sourceHash, source, master, contentStore.store(masterFile, master), metadata,
+                        trimmedDuration, List.of());
+            }
+        } catch (RequestValidationException | ServiceOverloadedException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Fail to Upload the file", e);
+            throw new BusinessLogicException(ResponseCode.UPLOAD_FAILED.getCode(), ResponseCode.UPLOAD_FAILED.getMessage());
+        } finally {
+            // Clean up temp files; the uploaded input belongs to the caller, which may retry with it
+            outputFiles.forEach(File::delete);
+        }
+        Audio entity = toEntity(request, stored);
+        try{ saveAtomically(stored.format, List.of(stored), () -> {
+                Audio saved = audioRepository.save(entity);
+                if (!stored.renditions.isEmpty()) {
+                    stored.renditions.forEach(rendition -> rendition.setAudioId(saved.getId()));
+                    audioRenditionRepository.saveAll(stored.renditions);
+                }
+                onSaved.accept(saved);
+                return saved;
+            });
+        }catch (Exception e){
+            log.error("Fail to save Audio to repository {}", e);
+            throw new BusinessLogicException(ResponseCode.UPLOAD_FAILED.getCode(), ResponseCode.UPLOAD_FAILED.getMessage());
+        }
+        return true;
+    }
+
+    @Override
+    public void validateUpload(String userId, String phraseId) {
+        if (Objects.nonNull(lookupAudio(userId, phraseId))) {
+            throw new RequestValidationException(ResponseCode.AUDIO_ALREADY_EXIST.getCode(), ResponseCode.AUDIO_ALREADY_EXIST.getMessage());
+        }
+    }
+
+    @Override
+    public List<BatchItemResult> saveBatch(String userId, List<AudioRequest> requests) {
+        Set<String> phraseIds = requests.stream().map(AudioRequest::getPhraseId).collect(Collectors.toSet());
+        // One lookup per table for the whole batch instead of one per item
+        Set<String> existingPhrases = new HashSet<>();
+        Set<String> uploadedPhrases = new HashSet<>();
+        // Sniffed up front so the validation is tagged with what the batch carries; unrecognised items fail on their own
+        List<Optional<SourceFormat>> sources = requests.stream().map(request -> detectSource(request.getFile())).toList();
+        List<SourceFormat> recognised = sources.stream().flatMap(Optional::stream).toList();
+        audioMetrics.time(AudioMetrics.VALIDATE, recognised, () -> {
+            requireUser(userId);
+            phraseRepository.findAllById(phraseIds).forEach(phrase -> existingPhrases.add(phrase.getId()));
+            phraseIds.forEach(phraseId -> existenceCache.putPhrase(phraseId, existingPhrases.contains(phraseId)));
+            audioRepository.findByUserIdAndPhraseIdInAndDeletedAtIsNull(userId, phraseIds)
+                    .forEach(audio -> uploadedPhrases.add(audio.getPhraseId()));
+            return null;
+        });
+
+        // Accepted items are all queued before any is awaited, so they convert and upload side by side
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        Map<Integer, CompletableFuture<StoredUpload>> pending = new LinkedHashMap<>();
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            AudioRequest request = requests.get(i);
+            if (!existingPhrases.contains(request.getPhraseId())) {
+                results[i] = failed(request, ResponseCode.PHRASE_NOT_EXIST.getCode(), ResponseCode.PHRASE_NOT_EXIST.getMessage());
+            } else if (uploadedPhrases.contains(request.getPhraseId()) || !seen.add(request.getPhraseId())) {
+                results[i] = failed(request, ResponseCode.AUDIO_ALREADY_EXIST.getCode(), ResponseCode.AUDIO_ALREADY_EXIST.getMessage());
+            } else if (sources.get(i).isEmpty()) {
+                results[i] = failed(request, ResponseCode.FORMAT_INVALID.getCode(), ResponseCode.FORMAT_INVALID.getMessage());
+            } else {
+                SourceFormat source = sources.get(i).get();
+                audioMetrics.bytesIn(source, request.getFile().length());
+                pending.put(i, ingestAsync(request, source));
+            }
+        }
+
+        // Parallel lists: Audio is a @Data entity, so it cannot key a map once saving assigns its id
+        List<Audio> entities = new ArrayList<>();
+        List<StoredUpload> uploads = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        pending.forEach((index, future) -> {
+            AudioRequest request = requests.get(index);
+            try {
+                StoredUpload stored = future.join();
+                Audio entity = toEntity(request, stored);
+                entities.add(entity);
+                uploads.add(stored);
+                positions.add(index);
+            } catch (CompletionException e) {
+                results[index] = failed(request, e.getCause());
+            }
+        });
+
+        if (!entities.isEmpty()) {
+            List<Audio> saved;
+            try {
+                // Ids are generated client side, so Hibernate can group these into JDBC batch inserts
+                saved = saveAtomically(masterFormat(), uploads, () -> {
+                    List<Audio> audios = audioRepository.saveAll(entities);
+                    List<AudioRendition> savedRenditions = new ArrayList<>();
+                    for (int i = 0; i < audios.size(); i++) {
+                        String audioId = audios.get(i).getId();
+                        uploads.get(i).renditions.forEach(rendition -> rendition.setAudioId(audioId));
+                        savedRenditions.addAll(uploads.get(i).renditions);
+                    }
+                    if (!savedRenditions.isEmpty()) {
+                        audioRenditionRepository.saveAll(savedRenditions);
+                    }
+                    return audios;
+                });
+            } catch (Exception e) {
+                log.error("Fail to save batch of {} audios to repository", entities.size(), e);
+                positions.forEach(index -> results[index] = failed(requests.get(index),
+                        ResponseCode.UPLOAD_FAILED.getCode(), ResponseCode.UPLOAD_FAILED.getMessage()));
+                return Arrays.asList(results);
+            }
+            for (int i = 0; i < entities.size(); i++) {
+                results[positions.get(i)] = BatchItemResult.builder()
+                        .phraseId(saved.get(i).getPhraseId())
+                        .code(ResponseCode.SUCCESS.getCode())
+                        .message(ResponseCode.SUCCESS.getMessage())
+                        .audioId(saved.get(i).getId())
+                        .build();
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private CompletableFuture<StoredUpload> ingestAsync(AudioRequest request, SourceFormat source) {
+        Set<Format> eagerFormats = eagerFormats();
+        // Sources are hashed on the storage pool, so the items of a batch hash side by side too
+        return storageExecutor.submit(() -> {
+            String sourceHash = sourceHash(request, ingestFilter());
+            return reuse(request.getFile(), source, sourceHash, eagerFormats)
+                    .map(CompletableFuture::completedFuture)
+                    .orElseGet(() -> convertAsync(request, source, sourceHash, eagerFormats));
+        }).thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<StoredUpload> convertAsync(AudioRequest request, SourceFormat source, String sourceHash,
+                                                         Set<Format> eagerFormats) {
+        Format master = masterFormat();
+        Map<Format, File> outputs = outputFiles(request.getFile(), master, eagerFormats);
+        IngestFilter filter = ingestFilter();
+        return transcodingExecutor.submit(() -> audioMetrics.timeTask(AudioMetrics.TRANSCODE, master, () ->
+                        transcoder.ingest(request.getFile(), outputs, filter, source::accepts)))
+                .thenCompose(metadata -> storageExecutor.submit(() -> {
+                    Long trimmedDuration = trimmedDuration(filter, metadata, master, outputs.get(master));
+                    List<AudioRendition> renditions = new ArrayList<>();
+                    return new StoredUpload(sourceHash, source, master, uploadOutputs(outputs, master, renditions), metadata,
+                            trimmedDuration, renditions);
+                }))
+                .whenComplete((stored, error) -> outputs.values().forEach(File::delete));
+    }
+
+    private BatchItemResult failed(AudioRequest request, Throwable error) {
+        if (error instanceof RequestValidationException e) {
+            return failed(request, e.getCode(), e.getMessage());
+        }
+        if (error instanceof BusinessLogicException e) {
+            return failed(request, e.getCode(), e.getMessage());
+        }
+        if (error instanceof ServiceOverloadedException e) {
+            return failed(request, e.getCode(), e.getMessage());
+        }
+        log.error("Fail to Upload the file: phraseId={}", request.getPhraseId(), error);
+        return failed(request, ResponseCode.UPLOAD_FAILED.getCode(), ResponseCode.UPLOAD_FAILED.getMessage());
+    }
+
+    private static BatchItemResult failed(AudioRequest request, String code, String message) {
+        return BatchItemResult.builder()
+                .phraseId(request.getPhraseId())
+                .code(code)
+                .message(message)
+                .build();
+    }
+
+    /**
+     * Temp files next to the upload for the master and each of the given renditions.
+     */
+    private static Map<Format, File> outputFiles(File input, Format master, Set<Format> renditions) {
+        Map<Format, File> outputs = new EnumMap<>(Format.class);
+        outputs.put(master, new File(input.getParent(), UUID.randomUUID() + "." + master.getValue()));
+        renditions.forEach(format ->
+                outputs.put(format, new File(input.getParent(), UUID.randomUUID() + "." + format.getValue())));
+        return outputs;
+    }
+
+    /**
+     * Uploads the master and returns its path; every other output is added to {@code renditions}.
+     */
+    private String uploadOutputs(Map<Format, File> outputs, Format master, List<AudioRendition> renditions)
+            throws IOException, InterruptedException {
+        String path = contentStore.store(outputs.get(master), master);
+        for (Map.Entry<Format, File> output : outputs.entrySet()) {
+            if (output.getKey() == master) {
+                continue;
+            }
+            long size = output.getValue().length();
+            renditions.add(AudioRendition.builder()
+                    .format(output.getKey().getValue())
+                    .path(contentStore.store(output.getValue(), output.getKey()))
+                    .sizeBytes(size)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        return path;
+    }
+
+    private static Audio toEntity(AudioRequest request, StoredUpload stored) {
+        AudioMetadata metadata = stored.metadata;
+        return Audio.builder()
+                .path(stored.path)
+                .sourceHash(stored.sourceHash)
+                .updatedBy(request.getUserId())
+                .createdBy(request.getUserId())
+                .convertedFormat(stored.format.getValue())
+                .durationMillis(metadata.getDurationMillis())
+                .trimmedDurationMillis(stored.trimmedDurationMillis)
+                .sampleRate(metadata.getSampleRate())
+                .channels(metadata.getChannels())
+                .bitrate(metadata.getBitrate())
+                .phraseId(request.getPhraseId())
+                .userId(request.getUserId())
+                .originalFormat(stored.source.getValue())
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * What an earlier upload of the same source stored, provided it covers every rendition produced now,
+     * so this upload can refer to those objects instead of converting and uploading again.
+     */
+    private Optional<StoredUpload> reuse(File upload, SourceFormat source, String sourceHash, Set<Format> eagerFormats) {
+        if (sourceHash == null) {
+            return Optional.empty();
+        }
+        Optional<Audio> previous = audioRepository.findFirstBySourceHash(sourceHash);
+        if (previous.isEmpty()) {
+            return Optional.empty();
+        }
+        List<AudioRendition> renditions = new ArrayList<>();
+        for (AudioRendition rendition : audioRenditionRepository.findByAudioId(previous.get().getId())) {
+            if (Format.fromValue(rendition.getFormat()).filter(eagerFormats::contains).isPresent()) {
+                renditions.add(AudioRendition.builder()
+                        .format(rendition.getFormat())
+                        .path(rendition.getPath())
+                        .sizeBytes(rendition.getSizeBytes())
+                        .createdAt(LocalDateTime.now())
+                        .build());
+            }
+        }
+        if (renditions.size() < eagerFormats.size()) {
+            return Optional.empty();
+        }
+
+        List<String> paths = new ArrayList<>();
+        paths.add(previous.get().getPath());
+        renditions.forEach(rendition -> paths.add(rendition.getPath()));
+        if (contentStore.retain(paths) < paths.size()) {
+            // Released by the last audio referring to them after the lookup; drop what was retained and convert
+            log.info("Stored objects of audio {} are gone, converting the upload again", previous.get().getId());
+            contentStore.release(paths);
+            return Optional.empty();
+        }
+        audioMetrics.deduplicated(source, upload.length());
+        AudioMetadata metadata = AudioMetadata.builder()
+                .durationMillis(previous.get().getDurationMillis())
+                .sampleRate(previous.get().getSampleRate())
+                .channels(previous.get().getChannels())
+                .bitrate(previous.get().getBitrate())
+                .build();
+        return Optional.of(new StoredUpload(sourceHash, source, masterFormat(previous.get()), previous.get().getPath(), metadata,
+                previous.get().getTrimmedDurationMillis(), renditions));
+    }
+
+    /**
+     * What identifies an upload for reuse: the SHA-256 of its bytes, taken while it was spooled or read here, combined
+     * with the preprocessing it goes through, as a trimmed or normalized master differs from a plain one. Null if the
+     * upload cannot be read; the transcoder then reports the actual problem.
+     */
+    private static String sourceHash(AudioRequest request, IngestFilter filter) {
+        String hash = request.getSourceHash();
+        if (hash == null) {
+            try {
+                hash = ContentStore.sha256(request.getFile());
+            } catch (IOException e) {
+                log.warn("Could not hash upload {}, storing it without deduplication", request.getFile(), e);
+                return null;
+            }
+        }
+        if (!filter.isEnabled()) {
+            // Plain conversions keep the bare hash, so uploads stored before preprocessing existed still match
+            return hash;
+        }
+        MessageDigest digest = ContentStore.sha256();
+        digest.update((hash + ":" + filter.toFfmpeg()).getBytes(StandardCharsets.UTF_8));
+        return ContentStore.hex(digest);
+    }
+
+    /**
+     * Gives back the references taken for an upload that was not saved.
+     */
+    /**
+     * Runs the saves of audio and rendition rows in one transaction. The uploads' objects are released only when it
+     * certainly rolled back, i.e. a statement failed: a commit that fails after every statement ran may still have
+     * applied, and an object left referenced too long only wastes space, while one deleted too early breaks a download.
+     */
+    private <T> T saveAtomically(Format format, List<StoredUpload> uploads, Supplier<T> saves) {
+        AtomicBoolean written = new AtomicBoolean();
+        try {
+            return audioMetrics.time(AudioMetrics.DB_SAVE, format, () -> transactionTemplate.execute(status -> {
+                T saved = saves.get();
+                // Constraint violations surface here rather than in the commit
+                audioRepository.flush();
+                written.set(true);
+                return saved;
+            }));
+        } catch (RuntimeException e) {
+            if (written.get()) {
+                log.error("Commit failed after the audio rows were written, keeping their stored objects", e);
+            } else {
+                uploads.forEach(this::release);
+            }
+            throw e;
+        }
+    }
+
+    private void release(StoredUpload stored) {
+        List<String> paths = new ArrayList<>();
+        paths.add(stored.path);
+        stored.renditions.forEach(rendition -> paths.add(rendition.getPath()));
+        try {
+            contentStore.release(paths);
+        } catch (RuntimeException e) {
+            log.warn("Could not release stored objects {}", paths, e);
+        }
+    }
+
+    private static final class StoredUpload {
+        private final String sourceHash;
+        private final SourceFormat source;
+        private final Format format;
+        private final String path;
+        private final AudioMetadata metadata;
+        private final Long trimmedDurationMillis;
+        private final List<AudioRendition> renditions;
+
+        private StoredUpload(String sourceHash, SourceFormat source, Format format, String path, AudioMetadata metadata,
+                             Long trimmedDurationMillis, List<AudioRendition> renditions) {
+            this.sourceHash = sourceHash;
+            this.source = source;
+            this.format = format;
+            this.path = path;
+            this.metadata = metadata;
+            this.trimmedDurationMillis = trimmedDurationMillis;
+            this.renditions = renditions;
+        }
+    }
+
+    private Set<Format> eagerFormats() {
+        Set<Format> formats = EnumSet.noneOf(Format.class);
+        if (eagerRenditions == null) {
+            return formats;
+        }
+        Arrays.stream(eagerRenditions.split(","))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .forEach(value -> formats.add(Format.fromValue(value).orElseThrow(() ->
+                        new IllegalStateException("Unknown format in audio.renditions.eager: " + value))));
+        // The master is always stored
+        formats.remove(masterFormat());
+        return formats;
+    }
+
+    /**
+     * Format new uploads are stored in: WAV, or FLAC for the same PCM at a fraction of the size.
+     */
+    private Format masterFormat() {
+        return Format.fromValue(masterFormat)
+                .filter(format -> format == Format.WAV || format == Format.FLAC)
+                .orElseThrow(() -> new IllegalStateException("audio.master-format must be wav or flac: " + masterFormat));
+    }
+
+    /**
+     * Format the audio's master was stored in, which stays as it was when audio.master-format changes.
+     */
+    private static Format masterFormat(Audio audio) {
+        return Format.fromValue(audio.getConvertedFormat()).orElse(Format.WAV);
+    }
+
+    /**
+     * Validates the user and phrase and returns their active audio, or null if there is none.
+     * With both ids in the existence cache only the audio is queried; otherwise one join answers all three.
+     */
+    private Audio lookupAudio(String userId, String phraseId) {
+        Boolean userExists = existenceCache.user(userId);
+        Boolean phraseExists = existenceCache.phrase(phraseId);
+        if (Boolean.FALSE.equals(userExists)) {
+            throw new RequestValidationException(ResponseCode.USER_NOT_EXIST.getCode(), ResponseCode.USER_NOT_EXIST.getMessage());
+        }
+        if (Boolean.TRUE.equals(userExists) && Boolean.FALSE.equals(phraseExists)) {
+            throw new RequestValidationException(ResponseCode.PHRASE_NOT_EXIST.getCode(), ResponseCode.PHRASE_NOT_EXIST.getMessage());
+        }
+        if (Boolean.TRUE.equals(userExists) && Boolean.TRUE.equals(phraseExists)) {
+            return audioRepository.findByUserIdAndPhraseAndDeletedAtIsNull(userId, phraseId);
+        }
+
+        Optional<AudioLookup> lookup = audioRepository.lookup(userId, phraseId);
+        existenceCache.putUser(userId, lookup.isPresent());
+        if (lookup.isEmpty()) {
+            throw new RequestValidationException(ResponseCode.USER_NOT_EXIST.getCode(), ResponseCode.USER_NOT_EXIST.getMessage());
+        }
+        existenceCache.putPhrase(phraseId, lookup.get().phraseExists());
+        if (!lookup.get().phraseExists()) {
+            throw new RequestValidationException(ResponseCode.PHRASE_NOT_EXIST.getCode(), ResponseCode.PHRASE_NOT_EXIST.getMessage());
+        }
+        return lookup.get().getAudio();
+    }
+
+    private void requireUser(String userId) {
+        Boolean exists = existenceCache.user(userId);
+        if (exists == null) {
+            exists = userRepository.existsById(userId);
+            existenceCache.putUser(userId, exists);
+        }
+        if (!exists) {
+            throw new RequestValidationException(ResponseCode.USER_NOT_EXIST.getCode(), ResponseCode.USER_NOT_EXIST.getMessage());
+        }
+    }
+
+    private void requirePhrase(String phraseId) {
+        Boolean exists = existenceCache.phrase(phraseId);
+        if (exists == null) {
+            exists = phraseRepository.existsById(phraseId);
+            existenceCache.putPhrase(phraseId, exists);
+        }
+        if (!exists) {
+            throw new RequestValidationException(ResponseCode.PHRASE_NOT_EXIST.getCode(), ResponseCode.PHRASE_NOT_EXIST.getMessage());
+        }
+    }
+
+    private StoredUpload convertAndUpload(File input, SourceFormat source, String sourceHash, Format master)
+            throws IOException, InterruptedException {
+        // The hash is only known once everything is written, so the object goes under a random name first
+        String objectName = blobStore.objectName(UUID.randomUUID() + "." + master.getValue());
+        MessageDigest digest = ContentStore.sha256();
+        IngestFilter filter = ingestFilter();
+        AudioMetadata metadata;
+        long size;
+        byte[] head;
+        try (HeadOutputStream output = new HeadOutputStream(new DigestOutputStream(blobStore.openOutputStream(objectName), digest), WAV_HEAD_BYTES)) {
+            // Upload and conversion overlap here, so both are recorded as the transcode stage
+            metadata = transcodingExecutor.execute(() -> audioMetrics.timeTask(AudioMetrics.TRANSCODE, master, () ->
+                    ingest(input, source, master, filter, output)));
+            size = output.written();
+            head = output.head();
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            // Closing the writer has already committed whatever was written, so remove the partial object
+            blobStore.delete(objectName);
+            throw e;
+        }
+        // FLAC written to a pipe has no sample count in its header, so only a WAV master's length is known here
+        Long trimmedDuration = master == Format.WAV ? trimmedDuration(filter, metadata, head, size) : null;
+        return new StoredUpload(sourceHash, source, master, contentStore.adopt(objectName, ContentStore.hex(digest), size, master),
+                metadata, trimmedDuration, List.of());
+    }
+
+    private AudioMetadata ingest(File input, SourceFormat source, Format master, IngestFilter filter, File output)
+            throws IOException, InterruptedException {
+        Optional<WavHeader> pcm = pcmSource(input, source, master, filter);
+        if (pcm.isPresent()) {
+            try (OutputStream stream = new FileOutputStream(output)) {
+                return ingestPcm(input, pcm.get(), stream);
+            }
+        }
+        return transcoder.ingest(input, output, master, filter, source::accepts);
+    }
+
+    private AudioMetadata ingest(File input, SourceFormat source, Format master, IngestFilter filter, OutputStream output)
+            throws IOException, InterruptedException {
+        Optional<WavHeader> pcm = pcmSource(input, source, master, filter);
+        if (pcm.isPresent()) {
+            return ingestPcm(input, pcm.get(), output);
+        }
+        return transcoder.ingest(input, output, master, filter, source::accepts);
+    }
+
+    /**
+     * Header of a PCM WAV upload that can go into a WAV master without ffmpeg, i.e. with no filter to run and a
+     * channel layout {@link ChannelMixer} handles. Empty for anything else, including WAV carrying a codec such as
+     * ADPCM and surround layouts, which ffmpeg decodes and downmixes.
+     */
+    private static Optional<WavHeader> pcmSource(File input, SourceFormat source, Format master, IngestFilter filter) {
+        if (source != SourceFormat.WAV || master != Format.WAV || filter.isEnabled()) {
+            return Optional.empty();
+        }
+        try (InputStream stream = new FileInputStream(input)) {
+            WavHeader header = WavHeader.read(stream);
+            if (!ChannelMixer.supports(header.getChannels(), OutputEncoding.WAV.getChannels())) {
+                log.debug("WAV upload {} has {} channels, converting it with ffmpeg", input, header.getChannels());
+                return Optional.empty();
+            }
+            return Optional.of(header);
+        } catch (IOException e) {
+            log.debug("WAV upload {} is not plain PCM, converting it with ffmpeg", input, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes a PCM WAV upload as the master in-process: resampled or remixed when it differs from the master's
+     * rate and layout, otherwise copied as it is.
+     */
+    private static AudioMetadata ingestPcm(File input, WavHeader header, OutputStream output) throws IOException {
+        OutputEncoding wav = OutputEncoding.WAV;
+        long frames;
+        try (InputStream stream = new FileInputStream(input)) {
+            frames = PcmTranscoder.convert(stream, output, wav.getSampleRate(), wav.getChannels());
+        }
+        int bits = header.getBitsPerSample();
+        return AudioMetadata.builder()
+                .container(SourceFormat.WAV.getContainer())
+                .codec(header.isFloatingPoint() ? "pcm_f" + bits + "le" : bits == 8 ? "pcm_u8" : "pcm_s" + bits + "le")
+                .durationMillis(frames * 1000 / wav.getSampleRate())
+                .sampleRate(header.getSampleRate())
+                .channels(header.getChannels())
+                .bitrate(header.getSampleRate() * header.getBlockAlign() * 8)
+                .build();
+    }
+
+    private IngestFilter ingestFilter() {
+        return new IngestFilter(trimSilence, silenceThresholdDb, maxSilenceMillis, normalizeLoudness, loudnessTargetLufs);
+    }
+
+    /**
+     * Length of the trimmed master file: from its header and size for WAV, from a probe for FLAC. Null when silence
+     * is not trimmed.
+     */
+    private Long trimmedDuration(IngestFilter filter, AudioMetadata metadata, Format master, File output) throws IOException {
+        if (master == Format.WAV) {
+            byte[] head;
+            try (InputStream input = new FileInputStream(output)) {
+                head = input.readNBytes(WAV_HEAD_BYTES);
+            }
+            return trimmedDuration(filter, metadata, head, output.length());
+        }
+        if (!filter.isTrimSilence()) {
+            return null;
+        }
+        Long trimmed = transcoder.probe(output).map(AudioMetadata::getDurationMillis).orElse(null);
+        if (trimmed != null && metadata.getDurationMillis() != null) {
+            audioMetrics.trimmed(master, metadata.getDurationMillis() - trimmed);
+        }
+        return trimmed;
+    }
+
+    /**
+     * Length of the trimmed WAV master, from the format in its header and the size of what follows it; ffmpeg
+     * writes chunks such as LIST ahead of the samples, and to a pipe it cannot fill in the data size.
+     * Null when silence is not trimmed or the header cannot be read.
+     */
+    private Long trimmedDuration(IngestFilter filter, AudioMetadata metadata, byte[] head, long wavBytes) {
+        if (!filter.isTrimSilence()) {
+            return null;
+        }
+        long trimmed;
+        try {
+            trimmed = WavHeader.read(head, wavBytes).getDurationMillis();
+        } catch (IOException e) {
+            log.warn("Could not read the header of the trimmed master", e);
+            return null;
+        }
+        if (metadata.getDurationMillis() != null) {
+            audioMetrics.trimmed(Format.WAV, metadata.getDurationMillis() - trimmed);
+        }
+        return trimmed;
+    }
+
+    /**
+     * The format the upload's first bytes identify.
+     *
+     * @throws RequestValidationException with {@code FORMAT_INVALID} when none matches or the file cannot be read
+     */
+    private static SourceFormat sourceFormat(File upload) {
+        return detectSource(upload).orElseThrow(() ->
+                new RequestValidationException(ResponseCode.FORMAT_INVALID.getCode(), ResponseCode.FORMAT_INVALID.getMessage()));
+    }
+
+    private static Optional<SourceFormat> detectSource(File upload) {
+        try {
+            return SourceFormat.detect(upload);
+        } catch (IOException e) {
+            log.warn("Could not read upload {} to detect its format", upload, e);
+            return Optional.empty();
+        }
+    }
+
+    private Audio findAudio(String userId, String phraseId) {
+        Audio audio = lookupAudio(userId, phraseId);
+
+        if (Objects.isNull(audio)) {
+            throw new RequestValidationException(ResponseCode.AUDIO_NOT_EXIST.getCode(), ResponseCode.AUDIO_NOT_EXIST.getMessage());
+        }
+        return audio;
+    }
+
+    @Override
+    public Audio find(String userId, String phraseId, String format) {
+        Format targetFormat = Format.fromValue(format).orElse(Format.WAV);
+        return audioMetrics.time(AudioMetrics.VALIDATE, targetFormat, () -> findAudio(userId, phraseId));
+    }
+
+    @Override
+    public StreamingResponseBody stream(String userId, String phraseId, String format) {
+        return stream(find(userId, phraseId, format), format);
+    }
+
+    @Override
+    public StreamingResponseBody stream(Audio audio, String format, String profileName) {
+        Format targetFormat = Format.fromValue(format).orElse(Format.WAV);
+        Format master = masterFormat(audio);
+        EncodingProfile profile = profile(targetFormat, profileName);
+        String variant = profile == null ? null : profile.getName();
+        long generation = renditionCache.generation();
+
+        if (targetFormat != master || profile != null) {
+            Optional<Resource> cached = renditionCache.get(audio.getId(), targetFormat, variant);
+            if (cached.isPresent()) {
+                Resource resource = cached.get();
+                return output -> audioMetrics.bytesOut(targetFormat, resource.getInputStream().transferTo(output));
+            }
+        }
+
+        // Renditions produced at upload time are served as stored, without transcoding
+        Optional<AudioRendition> stored = profile == null ? findRendition(audio, targetFormat) : Optional.empty();
+        String path = stored.map(AudioRendition::getPath).orElse(audio.getPath());
+
+        // A store on local disk is read in place: copied from the file, or handed to ffmpeg as a file.
+        // Either way the object is resolved before the response is committed so a missing one maps to an error response.
+        Optional<File> localFile = blobStore.localFile(path);
+        InputStream source = localFile.isPresent() ? null : blobStore.openInputStream(path);
+        if (profile == null && (targetFormat == master || stored.isPresent())) {
+            return output -> {
+                try {
+                    long sent = audioMetrics.timeTask(AudioMetrics.STORAGE_DOWNLOAD, targetFormat, () -> {
+                        if (source == null) {
+                            return blobStore.transferTo(path, output);
+                        }
+                        try (InputStream input = source) {
+                            return input.transferTo(output);
+                        }
+                    });
+                    audioMetrics.bytesOut(targetFormat, sent);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while streaming " + path, e);
+                }
+            };
+        }
+
+        OutputEncoding encoding = profile == null ? OutputEncoding.forFormat(targetFormat) : profile.apply(targetFormat);
+        return output -> {
+            CapturingOutputStream capture = new CapturingOutputStream(output, renditionCache.getMemoryMaxEntryBytes());
+            try (InputStream input = source) {
+                // Each request converts into its own response: sharing one conversion here would tie every waiter
+                // to the first client's speed and connection. get() coalesces, as it converts into a buffer first.
+                transcodeTo(capture, input, localFile, master, encoding);
+                capture.captured().ifPresent(content -> renditionCache.put(audio.getId(), targetFormat, variant, content, generation));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("File conversion interrupted: path={}, error={}", audio.getPath(), e);
+                throw new BusinessLogicException(ResponseCode.CONVERSION_FAILED.getCode(), ResponseCode.CONVERSION_FAILED.getMessage());
+            }
+            audioMetrics.bytesOut(targetFormat, capture.written());
+        };
+    }
+
+    @Override
+    public Optional<URI> redirectUrl(Audio audio, String format, String profile) {
+        if (!"redirect".equalsIgnoreCase(deliveryMode)) {
+            return Optional.empty();
+        }
+        // Only objects already in storage can be handed out; other formats and profiles are converted on the way
+        Format targetFormat = Format.fromValue(format).orElse(Format.WAV);
+        if (profile(targetFormat, profile) != null) {
+            return Optional.empty();
+        }
+        Optional<URI> url = storedPath(audio, targetFormat)
+                .flatMap(objectName -> blobStore.signedUrl(objectName, Duration.ofSeconds(deliveryUrlTtlSeconds)));
+        url.ifPresent(ignored -> audioMetrics.redirected(targetFormat));
+        return url;
+    }
+
+    @Override
+    public Optional<File> localFile(Audio audio, String format, String profile) {
+        Format targetFormat = Format.fromValue(format).orElse(Format.WAV);
+        if (profile(targetFormat, profile) != null) {
+            return Optional.empty();
+        }
+        Optional<File> file = storedPath(audio, targetFormat).flatMap(blobStore::localFile);
+        file.ifPresent(sent -> audioMetrics.bytesOut(targetFormat, sent.length()));
+        return file;
+    }
+
+    /**
+     * The object that holds the audio in the given format unconverted: the master, or a rendition
+     * stored at upload time.
+     */
+    private Optional<String> storedPath(Audio audio, Format format) {
+        return format == masterFormat(audio)
+                ? Optional.of(audio.getPath())
+                : findRendition(audio, format).map(AudioRendition::getPath);
+    }
+
+    private void transcodeTo(OutputStream output, InputStream input, Optional<File> localFile, Format master,
+                             OutputEncoding encoding) throws IOException, InterruptedException {
+        transcodingExecutor.execute(() -> audioMetrics.timeTask(AudioMetrics.TRANSCODE, encoding.getFormat(), () -> {
+            if (encoding.getFormat() == Format.WAV && master == Format.WAV) {
+                // The master is WAV already, so a WAV profile only resamples or remixes PCM
+                try (InputStream wav = input != null ? input : new FileInputStream(localFile.get())) {
+                    PcmTranscoder.convert(wav, output, encoding.getSampleRate(), encoding.getChannels());
+                }
+            } else if (input == null) {
+                transcoder.transcode(localFile.get(), output, encoding);
+            } else {
+                transcoder.transcode(input, output, encoding);
+            }
+            return null;
+        }));
+    }
+
+    /**
+     * Identifies a conversion by its master, target format and profile, so get() requests for the same rendition coalesce.
+     */
+    private static String conversionKey(Audio audio, Format format, String profile) {
+        String key = audio.getPath() + ":" + format.getValue();
+        return profile == null ? key : key + ":" + profile;
+    }
+
+    /**
+     * The requested profile, or null when none was asked for or it leaves the format's encoding unchanged,
+     * in which case the stored object or rendition is served as is.
+     */
+    private EncodingProfile profile(Format format, String name) {
+        return encodingProfiles.resolve(name).filter(profile -> !profile.isDefaultFor(format)).orElse(null);
+    }
+
+    @Override
+    public StreamingResponseBody archiveByUser(String userId, String format) {
+        Format targetFormat = Format.fromValue(format).orElse(Format.WAV);
+        List<Audio> audios = audioMetrics.time(AudioMetrics.VALIDATE, targetFormat, () -> {
+            requireUser(userId);
+            return audioRepository.findByUserIdAndDeletedAtIsNull(userId);
+        });
+        return archive(audios, targetFormat, Audio::getPhraseId);
+    }
+
+    @Override
+    public StreamingResponseBody archiveByPhrase(String phraseId, String format) {
+        Format targetFormat = Format.fromValue(format).orElse(Format.WAV);
+        List<Audio> audios = audioMetrics.time(AudioMetrics.VALIDATE, targetFormat, () -> {
+            requirePhrase(phraseId);
+            return audioRepository.findByPhraseIdAndDeletedAtIsNull(phraseId);
+        });
+        return archive(audios, targetFormat, Audio::getUserId);
+    }
+
+    private StreamingResponseBody archive(List<Audio> audios, Format format, Function<Audio, String> entryName) {
+        if (audios.isEmpty()) {
+            throw new RequestValidationException(ResponseCode.AUDIO_NOT_EXIST.getCode(), ResponseCode.AUDIO_NOT_EXIST.getMessage());
+        }
+        // Stored renditions of the whole archive in one query instead of one per entry; audios already
+        // mastered in the requested format are served from their master
+        Map<String, String> storedPaths = new HashMap<>();
+        List<String> renditionIds = audios.stream().filter(audio -> masterFormat(audio) != format).map(Audio::getId).toList();
+        if (!renditionIds.isEmpty()) {
+            audioRenditionRepository.findByAudioIdInAndFormat(renditionIds, format.getValue())
+                    .forEach(rendition -> storedPaths.put(rendition.getAudioId(), rendition.getPath()));
+        }
+
+        return output -> {
+            ZipOutputStream zip = new ZipOutputStream(output);
+            // mp3 and m4a are already compressed; only WAV gains anything from deflating
+            zip.setLevel(format == Format.WAV ? Deflater.DEFAULT_COMPRESSION : Deflater.NO_COMPRESSION);
+            // At most archiveConcurrency entries are being fetched or converted ahead of the one being written,
+            // and each is held in a temp file, so memory use does not grow with the archive
+            Deque<Map.Entry<String, CompletableFuture<ArchiveSource>>> window = new ArrayDeque<>();
+            Iterator<Audio> remaining = audios.iterator();
+            List<String> missing = new ArrayList<>();
+            try {
+                while (remaining.hasNext() || !window.isEmpty()) {
+                    while (remaining.hasNext() && window.size() < archiveConcurrency) {
+                        Audio audio = remaining.next();
+                        window.add(Map.entry(entryName.apply(audio) + "." + format.getValue(),
+                                storageExecutor.submit(() -> archiveSource(audio, storedPaths.get(audio.getId()), format))));
+                    }
+                    Map.Entry<String, CompletableFuture<ArchiveSource>> entry = window.poll();
+                    try {
+                        writeEntry(zip, entry.getKey(), entry.getValue().join(), format);
+                    } catch (CompletionException e) {
+                        log.warn("Leaving {} out of the archive", entry.getKey(), e.getCause());
+                        missing.add(entry.getKey());
+                    }
+                }
+                if (!missing.isEmpty()) {
+                    // The response is already committed, so failed entries are reported inside the archive
+                    zip.putNextEntry(new ZipEntry("MISSING.txt"));
+                    zip.write(String.join("\n", missing).getBytes(StandardCharsets.UTF_8));
+                    zip.closeEntry();
+                }
+                zip.finish();
+            } finally {
+                // Client went away mid-archive: let queued entries finish and drop their temp files
+                window.forEach(entry -> entry.getValue().thenAccept(ArchiveSource::release));
+            }
+        };
+    }
+
+    private void writeEntry(ZipOutputStream zip, String name, ArchiveSource source, Format format) throws IOException {
+        try (InputStream input = source.resource.getInputStream()) {
+            zip.putNextEntry(new ZipEntry(name));
+            audioMetrics.bytesOut(format, input.transferTo(zip));
+            zip.closeEntry();
+        } finally {
+            source.release();
+        }
+    }
+
+    private ArchiveSource archiveSource(Audio audio, String storedPath, Format format) throws IOException, InterruptedException {
+        Format master = masterFormat(audio);
+        if (format != master) {
+            Optional<Resource> cached = renditionCache.get(audio.getId(), format);
+            if (cached.isPresent()) {
+                return new ArchiveSource(cached.get(), null);
+            }
+        }
+        if (format == master || storedPath != null) {
+            return fetch(storedPath != null ? storedPath : audio.getPath(), format);
+        }
+
+        ArchiveSource source = fetch(audio.getPath(), master);
+        File converted = Files.createTempFile("archive_", "." + format.getValue()).toFile();
+        try {
+            File input = source.resource.getFile();
+            // Waits for a transcoding slot like a single download would, rather than failing the entry at once
+            transcodingExecutor.execute(() -> audioMetrics.timeTask(AudioMetrics.TRANSCODE, format, () -> {
+                transcoder.transcode(input, converted, format);
+                return null;
+            }));
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            converted.delete();
+            throw e;
+        } finally {
+            source.release();
+        }
+        return new ArchiveSource(new FileSystemResource(converted), converted);
+    }
+
+    /**
+     * Object as a file: read in place from a local store, otherwise downloaded to a temp file.
+     */
+    private ArchiveSource fetch(String path, Format format) throws IOException, InterruptedException {
+        Optional<File> localFile = blobStore.localFile(path);
+        if (localFile.isPresent()) {
+            return new ArchiveSource(new FileSystemResource(localFile.get()), null);
+        }
+        File temp = Files.createTempFile("archive_", "." + format.getValue()).toFile();
+        try (InputStream input = blobStore.openInputStream(path); OutputStream output = new FileOutputStream(temp)) {
+            audioMetrics.timeTask(AudioMetrics.STORAGE_DOWNLOAD, format, () -> input.transferTo(output));
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            temp.delete();
+            throw e;
+        }
+        return new ArchiveSource(new FileSystemResource(temp), temp);
+    }
+
+    private static final class ArchiveSource {
+        private final Resource resource;
+        private final File temporary;
+
+        private ArchiveSource(Resource resource, File temporary) {
+            this.resource = resource;
+            this.temporary = temporary;
+        }
+
+        private void release() {
+            if (temporary != null) {
+                temporary.delete();
+            }
+        }
+    }
+
+    @Override
+    public Resource get(String userId, String phraseId, String format) {
+        return get(find(userId, phraseId, format), format);
+    }
+
+    @Override
+    public Resource get(Audio audio, String format, String profileName) {
+        Format targetFormat = Format.fromValue(format).orElse(Format.WAV);
+        Format master = masterFormat(audio);
+        EncodingProfile profile = profile(targetFormat, profileName);
+        String variant = profile == null ? null : profile.getName();
+        long generation = renditionCache.generation();
+
+        // Converted renditions are cached, so only a miss pays for the download and ffmpeg run.
+        if (targetFormat != master || profile != null) {
+            Optional<Resource> cached = renditionCache.get(audio.getId(), targetFormat, variant);
+            if (cached.isPresent()) {
+                return sent(targetFormat, cached.get());
+            }
+        }
+
+        // If path exist in db, retrieve from server and convert to requested format.
+        Resource file;
+        try {
+            Optional<AudioRendition> stored = profile == null ? findRendition(audio, targetFormat) : Optional.empty();
+            if (stored.isPresent()) {
+                return sent(targetFormat, blobStore.getFileBytes(stored.get().getPath()));
+            }
+
+            if (targetFormat == master && profile == null) {
+                file = blobStore.getFileBytes(audio.getPath());
+            } else {
+                OutputEncoding encoding = profile == null ? OutputEncoding.forFormat(targetFormat) : profile.apply(targetFormat);
+                // Concurrent misses for the same rendition share one download and ffmpeg run
+                AtomicBoolean converted = new AtomicBoolean();
+                byte[] content = conversions.execute(conversionKey(audio, targetFormat, variant), () -> {
+                    converted.set(true);
+                    Resource source = blobStore.getFileBytes(audio.getPath());
+                    byte[] bytes = convertMaster(source, master, encoding).getByteArray();
+                    renditionCache.put(audio.getId(), targetFormat, variant, bytes, generation);
+                    return bytes;
+                });
+                if (!converted.get()) {
+                    audioMetrics.coalesced(targetFormat);
+                }
+                file = new ByteArrayResource(content);
+            }
+        } catch (IOException e) {
+            log.error("Failed to retrieve or process file: path={}, error={}", audio.getPath(), e);
+            throw new BusinessLogicException(ResponseCode.RETRIEVE_FAILED.getCode(), ResponseCode.RETRIEVE_FAILED.getMessage());
+        } catch (InterruptedException e) {
+            log.error("File conversion interrupted: path={}, error={}", audio.getPath(), e);
+            throw new BusinessLogicException(ResponseCode.CONVERSION_FAILED.getCode(), ResponseCode.CONVERSION_FAILED.getMessage());
+        }
+
+        return sent(targetFormat, file);
+    }
+
+    private Resource sent(Format format, Resource resource) {
+        // Counted as the whole object; a Range response sends only part of it
+        try {
+            audioMetrics.bytesOut(format, resource.contentLength());
+        } catch (IOException e) {
+            log.debug("Content length unknown for {}", resource, e);
+        }
+        return resource;
+    }
+
+    private Optional<AudioRendition> findRendition(Audio audio, Format format) {
+        if (format == masterFormat(audio)) {
+            return Optional.empty();
+        }
+        return audioRenditionRepository.findByAudioIdAndFormat(audio.getId(), format.getValue());
+    }
+
+    @Override
+    public Boolean retrieveAudioFormat(File file) {
+        return detectSource(file)
+                .map(source -> transcoder.probe(file).map(source::accepts).orElse(false))
+                .orElse(false);
+    }
+
+    public ByteArrayResource convertWAVToM4A(Resource wavResource) throws IOException, InterruptedException {
+        return convertMaster(wavResource, Format.WAV, OutputEncoding.M4A);
+    }
+
+    public ByteArrayResource convertWavToMp3(Resource inputResource) throws IOException, InterruptedException {
+        return convertMaster(inputResource, Format.WAV, OutputEncoding.MP3);
+    }
+
+    private ByteArrayResource convertMaster(Resource masterResource, Format master, OutputEncoding encoding)
+            throws IOException, InterruptedException {
+        Format target = encoding.getFormat();
+        // Create temp input and output files; a resource already on local disk is read in place
+        boolean local = masterResource.isFile();
+        File tempInputFile = local ? masterResource.getFile() : File.createTempFile("input_", "." + master.getValue());
+        File tempOutputFile = File.createTempFile("output_", "." + target.getValue());
+        try {
+            // Copy Resource to temp file
+            if (!local) {
+                audioMetrics.timeTask(AudioMetrics.STORAGE_DOWNLOAD, master, () -> {
+                    try (InputStream inputStream = masterResource.getInputStream()) {
+                        return Files.copy(inputStream, tempInputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                });
+            }
+
+            transcodingExecutor.execute(() -> audioMetrics.timeTask(AudioMetrics.TRANSCODE, target, () -> {
+                if (target == Format.WAV && master == Format.WAV) {
+                    try (InputStream input = new FileInputStream(tempInputFile);
+                         OutputStream output = new FileOutputStream(tempOutputFile)) {
+                        PcmTranscoder.convert(input, output, encoding.getSampleRate(), encoding.getChannels());
+                    }
+                } else {
+                    transcoder.transcode(tempInputFile, tempOutputFile, encoding);
+                }
+                return null;
+            }));
+
+            // Read output file into ByteArrayResource
+            return new ByteArrayResource(Files.readAllBytes(tempOutputFile.toPath()));
+        } finally {
+            // Delete temp files after reading
+            if (!local) {
+                tempInputFile.delete();
+            }
+            tempOutputFile.delete();
+        }
+    }
+
+}
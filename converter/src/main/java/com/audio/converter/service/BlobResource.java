@@ -0,0 +1,103 @@
+package com.audio.converter.service;
+
+import com.google.cloud.ReadChannel;
+import com.google.cloud.storage.Blob;
+import org.springframework.core.io.AbstractResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * GCS object read through a {@link ReadChannel} on demand instead of being loaded onto the heap.
+ * Skipping on its stream seeks the channel, so Spring's Range handling only downloads the
+ * requested part of the object.
+ */
+class BlobResource extends AbstractResource {
+
+    private final Blob blob;
+    private final int chunkSize;
+
+    BlobResource(Blob blob, int chunkSize) {
+        this.blob = blob;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public String getDescription() {
+        return "GCS object [" + blob.getBucket() + "/" + blob.getName() + "]";
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public long contentLength() {
+        return blob.getSize() != null ? blob.getSize() : -1;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return open();
+    }
+
+    InputStream open() {
+        ReadChannel reader = blob.reader();
+        if (chunkSize > 0) {
+            reader.setChunkSize(chunkSize);
+        }
+        return new ChannelInputStream(reader, contentLength());
+    }
+
+    private static final class ChannelInputStream extends InputStream {
+
+        private final ReadChannel channel;
+        private final long size;
+        private long position;
+
+        private ChannelInputStream(ReadChannel channel, long size) {
+            this.channel = channel;
+            this.size = size;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            int read;
+            do {
+                read = channel.read(ByteBuffer.wrap(buffer, offset, length));
+            } while (read == 0);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            if (n <= 0) {
+                return 0;
+            }
+            long target = size >= 0 ? Math.min(position + n, size) : position + n;
+            channel.seek(target);
+            long skipped = target - position;
+            position = target;
+            return skipped;
+        }
+
+        @Override
+        public void close() {
+            channel.close();
+        }
+    }
+}
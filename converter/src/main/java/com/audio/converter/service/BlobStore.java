@@ -0,0 +1,76 @@
+package com.audio.converter.service;
+
+import org.springframework.core.io.Resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Object storage for uploaded and converted audio. The implementation is selected with
+ * {@code storage.backend}: {@code gcs} (default) stores in a Cloud Storage bucket, {@code local}
+ * in a directory on this node.
+ */
+public interface BlobStore {
+
+    /**
+     * Object name under which a file of the given name is stored.
+     */
+    String objectName(String fileName);
+
+    /**
+     * Stores the file under the name derived from its file name and returns that object name.
+     */
+    default String uploadFile(File file) throws IOException {
+        return uploadFile(file, objectName(file.getName()));
+    }
+
+    /**
+     * Stores the file under the given object name, replacing any object already there, and returns
+     * the name. The file may be moved rather than copied.
+     */
+    String uploadFile(File file, String objectName) throws IOException;
+
+    /**
+     * Returns the object as a resource that is read from storage on demand.
+     */
+    Resource getFileBytes(String objectName) throws IOException;
+
+    /**
+     * Opens a writer for a new object; the object becomes visible once the stream is closed.
+     */
+    OutputStream openOutputStream(String objectName);
+
+    InputStream openInputStream(String objectName);
+
+    void delete(String objectName);
+
+    /**
+     * Copies the whole object to the stream.
+     */
+    default long transferTo(String objectName, OutputStream output) throws IOException {
+        try (InputStream input = openInputStream(objectName)) {
+            return input.transferTo(output);
+        }
+    }
+
+    /**
+     * The object as a file on this node, when the store keeps it on a local filesystem, so
+     * ffmpeg can read it in place instead of from a downloaded copy.
+     */
+    default Optional<File> localFile(String objectName) {
+        return Optional.empty();
+    }
+
+    /**
+     * A URL from which clients can download the object directly for the given time, or empty when the
+     * store cannot hand one out and the object has to be served through this application.
+     */
+    default Optional<URI> signedUrl(String objectName, Duration ttl) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,59 @@
+package com.audio.converter.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+/**
+ * Passes bytes through to the wrapped stream while keeping a copy, as long as the
+ * total stays within the limit. Used to fill the rendition cache from a stream.
+ */
+class CapturingOutputStream extends FilterOutputStream {
+
+    private final long limit;
+    private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+    private long written;
+
+    CapturingOutputStream(OutputStream out, long limit) {
+        super(out);
+        this.limit = limit;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        written++;
+        capture(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        written += len;
+        capture(b, off, len);
+    }
+
+    long written() {
+        return written;
+    }
+
+    /**
+     * Returns everything written so far, or empty if the limit was exceeded.
+     */
+    Optional<byte[]> captured() {
+        return copy == null ? Optional.empty() : Optional.of(copy.toByteArray());
+    }
+
+    private void capture(byte[] b, int off, int len) {
+        if (copy == null) {
+            return;
+        }
+        if (copy.size() + (long) len > limit) {
+            copy = null;
+            return;
+        }
+        copy.write(b, off, len);
+    }
+}
@@ -0,0 +1,48 @@
+package com.audio.converter.service;
+
+/**
+ * Changes the channel count of interleaved float samples: any layout down to mono by averaging,
+ * mono up to any count by duplication, or an unchanged count as a copy.
+ */
+public final class ChannelMixer {
+
+    private final int inputChannels;
+    private final int outputChannels;
+    private final float scale;
+
+    public ChannelMixer(int inputChannels, int outputChannels) {
+        if (!supports(inputChannels, outputChannels)) {
+            throw new IllegalArgumentException("Cannot mix " + inputChannels + " channels into " + outputChannels);
+        }
+        this.inputChannels = inputChannels;
+        this.outputChannels = outputChannels;
+        this.scale = 1f / inputChannels;
+    }
+
+    /**
+     * Whether the layouts are ones this mixer handles; others, such as 5.1 to stereo, need a proper downmix matrix.
+     */
+    public static boolean supports(int inputChannels, int outputChannels) {
+        return inputChannels == outputChannels || inputChannels == 1 || outputChannels == 1;
+    }
+
+    public void process(float[] input, int frames, float[] output) {
+        if (inputChannels == outputChannels) {
+            System.arraycopy(input, 0, output, 0, frames * inputChannels);
+        } else if (outputChannels == 1) {
+            for (int frame = 0, in = 0; frame < frames; frame++) {
+                float sum = 0;
+                for (int channel = 0; channel < inputChannels; channel++) {
+                    sum += input[in++];
+                }
+                output[frame] = sum * scale;
+            }
+        } else {
+            for (int frame = 0, out = 0; frame < frames; frame++) {
+                for (int channel = 0; channel < outputChannels; channel++) {
+                    output[out++] = input[frame];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.Format;
+import com.audio.converter.model.entity.StoredContent;
+import com.audio.converter.repository.StoredContentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Stores audio once per distinct content. Objects are tracked by their SHA-256 in the stored_content table
+ * with a count of the audios and renditions that refer to them.
+ */
+@Slf4j
+@Component
+public class ContentStore {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private StoredContentRepository storedContentRepository;
+
+    @Autowired
+    private AudioMetrics audioMetrics;
+
+    /**
+     * Stores the file unless the same content already is, and returns the object name holding it. The local file
+     * is hashed before anything is sent, so content that is stored already is never transferred again.
+     */
+    public String store(File file, Format format) throws IOException, InterruptedException {
+        String hash = sha256(file);
+        Optional<String> existing = retain(hash);
+        if (existing.isPresent()) {
+            audioMetrics.deduplicated(format, file.length());
+            return existing.get();
+        }
+        String objectName = blobStore.objectName(UUID.randomUUID() + "." + format.getValue());
+        long size = audioMetrics.timeTask(AudioMetrics.STORAGE_UPLOAD, format, () -> {
+            try (OutputStream output = blobStore.openOutputStream(objectName)) {
+                return Files.copy(file.toPath(), output);
+            } catch (IOException | RuntimeException e) {
+                // Closing the writer has already committed whatever was written
+                blobStore.delete(objectName);
+                throw e;
+            }
+        });
+        // Checked again, as an upload of the same content may have been recorded in the meantime
+        return adopt(objectName, hash, size, format);
+    }
+
+    /**
+     * Registers an object that was written under a name of its own, e.g. streamed while its hash was computed.
+     * If the same content is already stored, the new object is deleted and the existing name returned.
+     */
+    public String adopt(String objectName, String hash, long size, Format format) {
+        Optional<String> existing = retain(hash);
+        if (existing.isEmpty()) {
+            existing = Optional.of(record(hash, objectName, size));
+        }
+        if (!existing.get().equals(objectName)) {
+            audioMetrics.deduplicated(format, size);
+            blobStore.delete(objectName);
+        }
+        return existing.get();
+    }
+
+    /**
+     * Counts one more reference to each of the stored objects, for an audio reusing them as they are, and returns
+     * how many were found. Fewer than asked for means some were deleted since they were looked up.
+     */
+    public int retain(Collection<String> paths) {
+        return storedContentRepository.incrementRefCountByPathIn(paths);
+    }
+
+    /**
+     * Drops one reference to each of the stored objects, e.g. for an audio that was not saved after all, and
+     * deletes the objects nothing refers to any more.
+     */
+    public void release(Collection<String> paths) {
+        if (paths.isEmpty()) {
+            return;
+        }
+        storedContentRepository.decrementRefCountByPathIn(paths);
+        for (String path : paths) {
+            // Only removed if no upload has taken a new reference since the decrement
+            if (storedContentRepository.deleteUnreferenced(path) > 0) {
+                blobStore.delete(path);
+            }
+        }
+    }
+
+    private Optional<String> retain(String hash) {
+        if (storedContentRepository.incrementRefCount(hash) == 0) {
+            return Optional.empty();
+        }
+        return storedContentRepository.findBySha256(hash).map(StoredContent::getPath);
+    }
+
+    private String record(String hash, String objectName, long size) {
+        try {
+            storedContentRepository.saveAndFlush(StoredContent.builder()
+                    .sha256(hash)
+                    .path(objectName)
+                    .sizeBytes(size)
+                    .refCount(1)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+            return objectName;
+        } catch (DataIntegrityViolationException e) {
+            // Another upload recorded the same content first; this one becomes a reference to it
+            log.debug("Content {} recorded concurrently", hash, e);
+            return retain(hash).orElseThrow(() -> e);
+        }
+    }
+
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static String sha256(File file) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream input = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return hex(digest);
+    }
+
+    /**
+     * Writes the stream to the file and returns the SHA-256 of what was written, so spooling an upload
+     * also hashes it.
+     */
+    public static String write(InputStream input, Path target) throws IOException {
+        MessageDigest digest = sha256();
+        Files.copy(new DigestInputStream(input, digest), target, StandardCopyOption.REPLACE_EXISTING);
+        return hex(digest);
+    }
+
+    public static String hex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,35 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.Format;
+import lombok.Getter;
+
+/**
+ * Named encoder settings a download can ask for with {@code ?profile=}, applied on top of the defaults
+ * of whichever format is requested. A value of 0 keeps the format's default.
+ */
+@Getter
+public final class EncodingProfile {
+
+    private final String name;
+    private final int bitrate;
+    private final int sampleRate;
+    private final int channels;
+
+    public EncodingProfile(String name, int bitrate, int sampleRate, int channels) {
+        this.name = name;
+        this.bitrate = bitrate;
+        this.sampleRate = sampleRate;
+        this.channels = channels;
+    }
+
+    public OutputEncoding apply(Format format) {
+        return OutputEncoding.forFormat(format).with(bitrate, sampleRate, channels);
+    }
+
+    /**
+     * Whether the profile changes nothing for the format, so the stored object or rendition can be served.
+     */
+    public boolean isDefaultFor(Format format) {
+        return apply(format).equals(OutputEncoding.forFormat(format));
+    }
+}
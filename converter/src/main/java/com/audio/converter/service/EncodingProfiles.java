@@ -0,0 +1,66 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.ResponseCode;
+import com.audio.converter.util.RequestValidationException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Encoding profiles of this deployment, configured as
+ * {@code audio.profiles=name:bitrate:sampleRate:channels,...}.
+ */
+@Slf4j
+@Component
+public class EncodingProfiles {
+
+    @Value("${audio.profiles:voice-64k:64000:22050:1,hifi-192k:192000:0:0}")
+    private String profiles;
+
+    private final Map<String, EncodingProfile> byName = new LinkedHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        byName.clear();
+        if (profiles == null) {
+            return;
+        }
+        for (String entry : profiles.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] fields = entry.trim().split(":");
+            if (fields.length != 4 || fields[0].isEmpty()) {
+                throw new IllegalStateException("Expected name:bitrate:sampleRate:channels in audio.profiles: " + entry);
+            }
+            try {
+                byName.put(fields[0], new EncodingProfile(fields[0],
+                        Integer.parseInt(fields[1]), Integer.parseInt(fields[2]), Integer.parseInt(fields[3])));
+            } catch (NumberFormatException e) {
+                throw new IllegalStateException("Invalid number in audio.profiles: " + entry, e);
+            }
+        }
+        log.info("Encoding profiles: {}", byName.keySet());
+    }
+
+    /**
+     * The named profile, or empty when no profile was asked for.
+     *
+     * @throws RequestValidationException with {@code PROFILE_INVALID} for an unknown name
+     */
+    public Optional<EncodingProfile> resolve(String name) {
+        if (name == null || name.isBlank()) {
+            return Optional.empty();
+        }
+        EncodingProfile profile = byName.get(name);
+        if (profile == null) {
+            throw new RequestValidationException(ResponseCode.PROFILE_INVALID.getCode(), ResponseCode.PROFILE_INVALID.getMessage());
+        }
+        return Optional.of(profile);
+    }
+}
@@ -0,0 +1,90 @@
+package com.audio.converter.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short-lived memory of which user and phrase ids exist, so request validation can skip the database.
+ * Misses are remembered too, for a shorter time, so repeated requests for unknown ids stay cheap
+ * while newly inserted master data is picked up quickly.
+ */
+@Component
+public class ExistenceCache {
+
+    @Value("${audio.lookup-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${audio.lookup-cache.negative-ttl-seconds:10}")
+    private long negativeTtlSeconds;
+
+    @Value("${audio.lookup-cache.max-entries:10000}")
+    private long maxEntries;
+
+    private Cache<String, Boolean> users;
+    private Cache<String, Boolean> phrases;
+
+    @PostConstruct
+    public void init() {
+        users = build();
+        phrases = build();
+    }
+
+    /**
+     * Whether the user exists, or null when that is not known.
+     */
+    public Boolean user(String userId) {
+        return users.getIfPresent(userId);
+    }
+
+    public void putUser(String userId, boolean exists) {
+        users.put(userId, exists);
+    }
+
+    /**
+     * Whether the phrase exists, or null when that is not known.
+     */
+    public Boolean phrase(String phraseId) {
+        return phrases.getIfPresent(phraseId);
+    }
+
+    public void putPhrase(String phraseId, boolean exists) {
+        phrases.put(phraseId, exists);
+    }
+
+    public Cache<String, Boolean> getUsers() {
+        return users;
+    }
+
+    public Cache<String, Boolean> getPhrases() {
+        return phrases;
+    }
+
+    private Cache<String, Boolean> build() {
+        return Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<String, Boolean>() {
+                    @Override
+                    public long expireAfterCreate(String key, Boolean exists, long currentTime) {
+                        return TimeUnit.SECONDS.toNanos(exists ? ttlSeconds : negativeTtlSeconds);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Boolean exists, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, exists, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Boolean exists, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.AudioMetadata;
+
+import java.util.Map;
+
+/**
+ * Parses the "Input #0" section ffmpeg prints to stderr before it starts decoding,
+ * so metadata is available without a separate probing run.
+ */
+class FfmpegHeaderParser {
+
+    private static final String INPUT_PREFIX = "input #0, ";
+    private static final String AUDIO_PREFIX = "audio: ";
+    private static final Map<String, Integer> CHANNEL_LAYOUTS = Map.of(
+            "mono", 1, "stereo", 2, "2.1", 3, "quad", 4, "4.0", 4,
+            "5.0", 5, "5.1", 6, "6.1", 7, "7.1", 8);
+
+    private boolean inInput;
+    private String container;
+    private String codec;
+    private Long durationMillis;
+    private Integer sampleRate;
+    private Integer channels;
+    private Integer containerBitrate;
+    private Integer streamBitrate;
+
+    /**
+     * Consumes one stderr line. Returns false once the input section has ended,
+     * which happens before ffmpeg decodes any audio.
+     */
+    boolean accept(String line) {
+        String lower = line.toLowerCase().trim();
+        if (!inInput) {
+            if (lower.startsWith(INPUT_PREFIX)) {
+                inInput = true;
+                int end = lower.lastIndexOf(", from");
+                container = lower.substring(INPUT_PREFIX.length(), end < 0 ? lower.length() : end);
+            }
+            return true;
+        }
+        if (lower.startsWith("output #") || lower.startsWith("stream mapping") || lower.startsWith("input #")) {
+            return false;
+        }
+        if (lower.startsWith("duration:")) {
+            parseDuration(lower);
+        } else if (codec == null && lower.startsWith("stream #") && lower.contains(AUDIO_PREFIX)) {
+            parseAudioStream(lower.substring(lower.indexOf(AUDIO_PREFIX) + AUDIO_PREFIX.length()));
+        }
+        return true;
+    }
+
+    /**
+     * Returns the parsed metadata, or null if no audio stream was found.
+     */
+    AudioMetadata metadata() {
+        if (container == null || codec == null) {
+            return null;
+        }
+        return AudioMetadata.builder()
+                .container(container)
+                .codec(codec)
+                .durationMillis(durationMillis)
+                .sampleRate(sampleRate)
+                .channels(channels)
+                .bitrate(streamBitrate != null ? streamBitrate : containerBitrate)
+                .build();
+    }
+
+    // duration: 00:00:05.02, start: 0.000000, bitrate: 130 kb/s
+    private void parseDuration(String line) {
+        for (String part : line.split(", ")) {
+            String[] entry = part.split(": ", 2);
+            if (entry.length != 2) {
+                continue;
+            }
+            if (entry[0].equals("duration")) {
+                durationMillis = parseTimestamp(entry[1]);
+            } else if (entry[0].equals("bitrate")) {
+                containerBitrate = parseKilobits(entry[1]);
+            }
+        }
+    }
+
+    // aac (lc) (mp4a / 0x6134706d), 44100 hz, stereo, fltp, 128 kb/s (default)
+    private void parseAudioStream(String description) {
+        String[] parts = description.split(", ");
+        codec = parts[0].split(" ", 2)[0];
+        for (int i = 1; i < parts.length; i++) {
+            String part = parts[i];
+            if (part.endsWith(" hz")) {
+                sampleRate = parseInteger(part.substring(0, part.length() - 3));
+            } else if (part.contains("kb/s")) {
+                streamBitrate = parseKilobits(part);
+            } else if (channels == null && i == 2) {
+                channels = parseChannels(part);
+            }
+        }
+    }
+
+    private static Integer parseChannels(String layout) {
+        String name = layout.split("\\(", 2)[0].trim();
+        if (CHANNEL_LAYOUTS.containsKey(name)) {
+            return CHANNEL_LAYOUTS.get(name);
+        }
+        if (name.endsWith(" channels")) {
+            return parseInteger(name.substring(0, name.indexOf(' ')));
+        }
+        return null;
+    }
+
+    private static Long parseTimestamp(String value) {
+        String[] fields = value.split(":");
+        if (fields.length != 3) {
+            return null;
+        }
+        try {
+            double seconds = Integer.parseInt(fields[0]) * 3600 + Integer.parseInt(fields[1]) * 60
+                    + Double.parseDouble(fields[2]);
+            return Math.round(seconds * 1000);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Integer parseKilobits(String value) {
+        Integer kilobits = parseInteger(value.split(" ", 2)[0]);
+        return kilobits == null ? null : kilobits * 1000;
+    }
+
+    private static Integer parseInteger(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
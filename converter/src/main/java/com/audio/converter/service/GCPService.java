@@ -0,0 +1,134 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.ResponseCode;
+import com.audio.converter.util.BusinessLogicException;
+import com.google.auth.ServiceAccountSigner.SigningException;
+import com.google.cloud.WriteChannel;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "gcs", matchIfMissing = true)
+public class GCPService implements BlobStore {
+
+    @Value("${gcp.storage.bucket-name}")
+    private String bucketName;
+
+    @Value("${gcp.storage.folder-name}")
+    private String folderName;
+
+    @Value("${gcp.storage.upload-chunk-size:16777216}")
+    private int uploadChunkSize;
+
+    @Value("${gcp.storage.download-chunk-size:2097152}")
+    private int downloadChunkSize;
+
+    @Value("${gcp.storage.resumable-threshold:8388608}")
+    private long resumableThreshold;
+
+    private final Storage storage;
+
+    public GCPService(Storage storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public String objectName(String fileName) {
+        return folderName.concat("/").concat(fileName);
+    }
+
+    @Override
+    public String uploadFile(File file, String objectName) throws IOException {
+        BlobInfo blobInfo = BlobInfo.newBuilder(bucketName, objectName).build();
+        if (file.length() <= resumableThreshold) {
+            // Small objects go up in a single request
+            storage.create(blobInfo, Files.readAllBytes(file.toPath()));
+            return objectName;
+        }
+
+        // Larger ones use a resumable session, streamed from disk in chunks that are retried individually
+        try (WriteChannel writer = writer(blobInfo);
+             FileChannel source = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = source.size();
+            long position = 0;
+            while (position < size) {
+                position += source.transferTo(position, size - position, writer);
+            }
+        }
+        return objectName;
+    }
+
+    @Override
+    public Resource getFileBytes(String objectName) throws IOException {
+        return new BlobResource(blob(objectName), downloadChunkSize);
+    }
+
+    @Override
+    public OutputStream openOutputStream(String objectName) {
+        BlobInfo blobInfo = BlobInfo.newBuilder(bucketName, objectName).build();
+        return Channels.newOutputStream(writer(blobInfo));
+    }
+
+    @Override
+    public InputStream openInputStream(String objectName) {
+        return new BlobResource(blob(objectName), downloadChunkSize).open();
+    }
+
+    private WriteChannel writer(BlobInfo blobInfo) {
+        WriteChannel writer = storage.writer(blobInfo);
+        if (uploadChunkSize > 0) {
+            writer.setChunkSize(uploadChunkSize);
+        }
+        return writer;
+    }
+
+    private Blob blob(String objectName) {
+        Blob blob = storage.get(BlobId.of(bucketName, objectName));
+        if (blob == null) {
+            log.error("Failed to retrieve File not found in GCS:  path={}", objectName);
+            throw new BusinessLogicException(ResponseCode.FILE_NOT_EXIST.getCode(), ResponseCode.FILE_NOT_EXIST.getMessage());
+        }
+        return blob;
+    }
+
+    @Override
+    public void delete(String objectName) {
+        storage.delete(BlobId.of(bucketName, objectName));
+    }
+
+    @Override
+    public Optional<URI> signedUrl(String objectName, Duration ttl) {
+        BlobInfo blobInfo = BlobInfo.newBuilder(bucketName, objectName).build();
+        try {
+            URL url = storage.signUrl(blobInfo, ttl.toSeconds(), TimeUnit.SECONDS, Storage.SignUrlOption.withV4Signature());
+            return Optional.of(url.toURI());
+        } catch (IllegalStateException | SigningException | URISyntaxException e) {
+            // Credentials without a private key (e.g. user credentials) cannot sign; serve through the app instead
+            log.warn("Cannot sign URL for {}, serving it through the application", objectName, e);
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.audio.converter.service;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Passes bytes through to the wrapped stream while keeping the first few and counting the rest.
+ * Used to read back the header of a file that was streamed to storage rather than written to disk.
+ */
+class HeadOutputStream extends FilterOutputStream {
+
+    private final byte[] head;
+    private long written;
+
+    HeadOutputStream(OutputStream out, int headBytes) {
+        super(out);
+        this.head = new byte[headBytes];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        if (written < head.length) {
+            head[(int) written] = (byte) b;
+        }
+        written++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        if (written < head.length) {
+            System.arraycopy(b, off, head, (int) written, (int) Math.min(len, head.length - written));
+        }
+        written += len;
+    }
+
+    long written() {
+        return written;
+    }
+
+    /**
+     * The first bytes written, up to the size given at construction.
+     */
+    byte[] head() {
+        return Arrays.copyOf(head, (int) Math.min(written, head.length));
+    }
+}
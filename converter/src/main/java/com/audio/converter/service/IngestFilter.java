@@ -0,0 +1,72 @@
+package com.audio.converter.service;
+
+import lombok.Getter;
+
+/**
+ * Preprocessing applied to an upload in the same decode pass that writes the WAV master and eager renditions:
+ * cutting silence and normalizing loudness. Both are single-pass FFmpeg filters, so nothing is buffered
+ * beyond what the filters themselves need.
+ */
+@Getter
+public final class IngestFilter {
+
+    public static final IngestFilter NONE = new IngestFilter(false, 0, 0, false, 0);
+
+    /** loudnorm upsamples to 192 kHz internally; outputs that keep the source rate need it brought back. */
+    private static final int NORMALIZED_SAMPLE_RATE = 44100;
+
+    private final boolean trimSilence;
+    private final double silenceThresholdDb;
+    private final long maxSilenceMillis;
+    private final boolean normalizeLoudness;
+    private final double targetLufs;
+
+    public IngestFilter(boolean trimSilence, double silenceThresholdDb, long maxSilenceMillis,
+                        boolean normalizeLoudness, double targetLufs) {
+        this.trimSilence = trimSilence;
+        this.silenceThresholdDb = silenceThresholdDb;
+        this.maxSilenceMillis = maxSilenceMillis;
+        this.normalizeLoudness = normalizeLoudness;
+        this.targetLufs = targetLufs;
+    }
+
+    public boolean isEnabled() {
+        return trimSilence || normalizeLoudness;
+    }
+
+    /**
+     * Sample rate of the filtered audio, or 0 when the filter keeps the source rate.
+     */
+    public int getSampleRate() {
+        return normalizeLoudness ? NORMALIZED_SAMPLE_RATE : 0;
+    }
+
+    /**
+     * The FFmpeg audio filter graph, or null when nothing is enabled.
+     */
+    public String toFfmpeg() {
+        if (!isEnabled()) {
+            return null;
+        }
+        StringBuilder graph = new StringBuilder();
+        if (trimSilence) {
+            // Leading silence goes entirely. After that, a run longer than maxSilenceMillis is shortened to
+            // maxSilenceMillis rather than removed (stop_silence), so pauses between words survive and trailing
+            // silence is cut down without reading the upload backwards, which areverse would buffer whole
+            String threshold = silenceThresholdDb + "dB";
+            double maxSilence = maxSilenceMillis / 1000.0;
+            graph.append("silenceremove=start_periods=1:start_threshold=").append(threshold)
+                    .append(":stop_periods=-1:stop_threshold=").append(threshold)
+                    .append(":stop_duration=").append(maxSilence)
+                    .append(":stop_silence=").append(maxSilence);
+        }
+        if (normalizeLoudness) {
+            if (!graph.isEmpty()) {
+                graph.append(',');
+            }
+            graph.append("loudnorm=I=").append(targetLufs).append(":TP=-1.5:LRA=11")
+                    .append(",aresample=").append(NORMALIZED_SAMPLE_RATE);
+        }
+        return graph.toString();
+    }
+}
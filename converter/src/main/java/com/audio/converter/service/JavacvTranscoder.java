@@ -0,0 +1,272 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.AudioMetadata;
+import com.audio.converter.model.Format;
+import com.audio.converter.model.ResponseCode;
+import com.audio.converter.util.BusinessLogicException;
+import com.audio.converter.util.RequestValidationException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.bytedeco.ffmpeg.global.avutil;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.FFmpegFrameFilter;
+import org.bytedeco.javacv.FFmpegFrameRecorder;
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.FrameFilter;
+import org.bytedeco.javacv.FrameGrabber;
+import org.bytedeco.javacv.FrameRecorder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * Transcoder that drives the FFmpeg libraries bundled with javacv inside the JVM,
+ * avoiding a fork/exec per conversion. Falls back to {@link ProcessTranscoder}
+ * when the native libraries are unavailable on this platform.
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(name = "ffmpeg.engine", havingValue = "javacv")
+public class JavacvTranscoder implements Transcoder {
+
+    @Autowired
+    private ProcessTranscoder processTranscoder;
+
+    private boolean nativeAvailable;
+
+    @PostConstruct
+    public void init() {
+        // Load the natives once at startup so the first request does not pay for it.
+        try {
+            FFmpegFrameGrabber.tryLoad();
+            FFmpegFrameRecorder.tryLoad();
+            avutil.av_log_set_level(avutil.AV_LOG_ERROR);
+            nativeAvailable = true;
+        } catch (FrameGrabber.Exception | FrameRecorder.Exception | UnsatisfiedLinkError e) {
+            log.warn("javacv FFmpeg libraries unavailable, falling back to the ffmpeg process", e);
+        }
+    }
+
+    boolean isNativeAvailable() {
+        return nativeAvailable;
+    }
+
+    @Override
+    public void transcode(File input, File output, OutputEncoding encoding) throws IOException, InterruptedException {
+        if (!nativeAvailable) {
+            processTranscoder.transcode(input, output, encoding);
+            return;
+        }
+        convert(new FFmpegFrameGrabber(input), channels -> new FFmpegFrameRecorder(output, channels), encoding, IngestFilter.NONE, false, null);
+    }
+
+    @Override
+    public void transcode(File input, OutputStream output, OutputEncoding encoding) throws IOException, InterruptedException {
+        if (!nativeAvailable) {
+            processTranscoder.transcode(input, output, encoding);
+            return;
+        }
+        convert(new FFmpegFrameGrabber(input), channels -> new FFmpegFrameRecorder(output, channels), encoding, IngestFilter.NONE, true, null);
+    }
+
+    @Override
+    public void transcode(InputStream input, OutputStream output, OutputEncoding encoding) throws IOException, InterruptedException {
+        if (!nativeAvailable) {
+            processTranscoder.transcode(input, output, encoding);
+            return;
+        }
+        // The stream is read front to back; maximumSize 0 stops the grabber from buffering it for seeking.
+        convert(new FFmpegFrameGrabber(input, 0), channels -> new FFmpegFrameRecorder(output, channels), encoding, IngestFilter.NONE, true, null);
+    }
+
+    @Override
+    public AudioMetadata ingest(File input, File output, Format target, IngestFilter filter,
+                                Predicate<AudioMetadata> accept)
+            throws IOException, InterruptedException {
+        if (!nativeAvailable) {
+            return processTranscoder.ingest(input, output, target, filter, accept);
+        }
+        OutputEncoding encoding = OutputEncoding.forFormat(target);
+        return convert(new FFmpegFrameGrabber(input), channels -> new FFmpegFrameRecorder(output, channels), encoding, filter, false, accept);
+    }
+
+    @Override
+    public AudioMetadata ingest(File input, OutputStream output, Format target, IngestFilter filter,
+                                Predicate<AudioMetadata> accept)
+            throws IOException, InterruptedException {
+        if (!nativeAvailable) {
+            return processTranscoder.ingest(input, output, target, filter, accept);
+        }
+        OutputEncoding encoding = OutputEncoding.forFormat(target);
+        return convert(new FFmpegFrameGrabber(input), channels -> new FFmpegFrameRecorder(output, channels), encoding, filter, true, accept);
+    }
+
+    @Override
+    public AudioMetadata ingest(File input, Map<Format, File> outputs, IngestFilter filter, Predicate<AudioMetadata> accept)
+            throws IOException, InterruptedException {
+        if (!nativeAvailable) {
+            return processTranscoder.ingest(input, outputs, filter, accept);
+        }
+        Map<OutputEncoding, IntFunction<FFmpegFrameRecorder>> recorders = new LinkedHashMap<>();
+        outputs.forEach((target, output) ->
+                recorders.put(OutputEncoding.forFormat(target), channels -> new FFmpegFrameRecorder(output, channels)));
+        return convert(new FFmpegFrameGrabber(input), recorders, filter, false, accept);
+    }
+
+    private AudioMetadata convert(FFmpegFrameGrabber source, IntFunction<FFmpegFrameRecorder> recorderFactory,
+                                  OutputEncoding encoding, IngestFilter filter, boolean streaming,
+                                  Predicate<AudioMetadata> accept) {
+        return convert(source, Map.of(encoding, recorderFactory), filter, streaming, accept);
+    }
+
+    /**
+     * Decodes the source once into one recorder per encoding. The grabber reads only the header on
+     * start, so the metadata check happens before any audio is decoded. An enabled {@code filter} sits
+     * between the grabber and the recorders.
+     */
+    private AudioMetadata convert(FFmpegFrameGrabber source, Map<OutputEncoding, IntFunction<FFmpegFrameRecorder>> outputs,
+                                  IngestFilter filter, boolean streaming, Predicate<AudioMetadata> accept) {
+        try (FFmpegFrameGrabber grabber = source) {
+            try {
+                grabber.start();
+            } catch (FrameGrabber.Exception e) {
+                if (accept != null) {
+                    throw new RequestValidationException(ResponseCode.FORMAT_INVALID.getCode(), ResponseCode.FORMAT_INVALID.getMessage());
+                }
+                throw e;
+            }
+            AudioMetadata metadata = metadata(grabber);
+            if (accept != null && (metadata == null || !accept.test(metadata))) {
+                throw new RequestValidationException(ResponseCode.FORMAT_INVALID.getCode(), ResponseCode.FORMAT_INVALID.getMessage());
+            }
+            List<FFmpegFrameRecorder> recorders = new ArrayList<>();
+            FFmpegFrameFilter frameFilter = null;
+            try {
+                if (filter.isEnabled()) {
+                    frameFilter = new FFmpegFrameFilter(filter.toFfmpeg(), grabber.getAudioChannels());
+                    frameFilter.setSampleRate(grabber.getSampleRate());
+                    frameFilter.setSampleFormat(grabber.getSampleFormat());
+                    frameFilter.start();
+                }
+                int sourceRate = filter.getSampleRate() > 0 ? filter.getSampleRate() : grabber.getSampleRate();
+                for (Map.Entry<OutputEncoding, IntFunction<FFmpegFrameRecorder>> output : outputs.entrySet()) {
+                    recorders.add(startRecorder(grabber, sourceRate, output.getKey(), output.getValue(), streaming));
+                }
+
+                Frame frame;
+                while ((frame = grabber.grabSamples()) != null) {
+                    if (frameFilter == null) {
+                        record(recorders, frame);
+                    } else {
+                        frameFilter.push(frame);
+                        drain(frameFilter, recorders);
+                    }
+                }
+                if (frameFilter != null) {
+                    // A null frame flushes the graph, e.g. what loudnorm still holds in its lookahead
+                    frameFilter.push(null);
+                    drain(frameFilter, recorders);
+                }
+                for (FFmpegFrameRecorder recorder : recorders) {
+                    recorder.stop();
+                }
+            } finally {
+                if (frameFilter != null) {
+                    frameFilter.release();
+                }
+                for (FFmpegFrameRecorder recorder : recorders) {
+                    recorder.release();
+                }
+            }
+            grabber.stop();
+            return metadata;
+        } catch (FrameGrabber.Exception | FrameRecorder.Exception | FrameFilter.Exception e) {
+            log.error("javacv conversion failed", e);
+            throw new BusinessLogicException(ResponseCode.CONVERSION_FAILED.getCode(), "FFmpeg conversion failed.");
+        }
+    }
+
+    private static void record(List<FFmpegFrameRecorder> recorders, Frame frame) throws FrameRecorder.Exception {
+        for (FFmpegFrameRecorder recorder : recorders) {
+            recorder.record(frame);
+        }
+    }
+
+    private static void drain(FFmpegFrameFilter frameFilter, List<FFmpegFrameRecorder> recorders)
+            throws FrameFilter.Exception, FrameRecorder.Exception {
+        Frame filtered;
+        while ((filtered = frameFilter.pullSamples()) != null) {
+            record(recorders, filtered);
+        }
+    }
+
+    private static FFmpegFrameRecorder startRecorder(FFmpegFrameGrabber grabber, int sourceRate, OutputEncoding encoding,
+                                                     IntFunction<FFmpegFrameRecorder> recorderFactory,
+                                                     boolean streaming) throws FrameRecorder.Exception {
+        int channels = encoding.getChannels() > 0 ? encoding.getChannels() : grabber.getAudioChannels();
+        int sampleRate = encoding.getSampleRate() > 0 ? encoding.getSampleRate() : sourceRate;
+
+        FFmpegFrameRecorder recorder = recorderFactory.apply(channels);
+        recorder.setFormat(encoding.getContainer());
+        recorder.setAudioCodecName(encoding.getCodec());
+        recorder.setSampleRate(sampleRate);
+        if (encoding.getBitrate() > 0) {
+            recorder.setAudioBitrate(encoding.getBitrate());
+        }
+        if (streaming && encoding.isFragmentedWhenStreaming()) {
+            recorder.setOption("movflags", "frag_keyframe+empty_moov");
+        }
+        try {
+            recorder.start();
+        } catch (FrameRecorder.Exception e) {
+            recorder.release();
+            throw e;
+        }
+        return recorder;
+    }
+
+    @Override
+    public Optional<AudioMetadata> probe(File input) {
+        if (!nativeAvailable) {
+            return processTranscoder.probe(input);
+        }
+
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(input)) {
+            grabber.start();
+            return Optional.ofNullable(metadata(grabber));
+        } catch (FrameGrabber.Exception e) {
+            log.error("javacv probe failed: input={}", input.getName(), e);
+            return Optional.empty();
+        }
+    }
+
+    private static AudioMetadata metadata(FFmpegFrameGrabber grabber) {
+        String codec = grabber.getAudioCodecName();
+        if (grabber.getAudioChannels() == 0 || codec == null) {
+            return null;
+        }
+        long lengthMicros = grabber.getLengthInTime();
+        return AudioMetadata.builder()
+                .container(grabber.getFormat())
+                .codec(codec)
+                .durationMillis(lengthMicros > 0 ? lengthMicros / 1000 : null)
+                .sampleRate(grabber.getSampleRate())
+                .channels(grabber.getAudioChannels())
+                .bitrate(grabber.getAudioBitrate() > 0 ? grabber.getAudioBitrate() : null)
+                .build();
+    }
+}
@@ -0,0 +1,174 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.ResponseCode;
+import com.audio.converter.util.BusinessLogicException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Stores objects as files under {@code storage.local.root}, for nodes with local disks and for
+ * load tests that should not depend on cloud credentials.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalBlobStore implements BlobStore {
+
+    @Value("${storage.local.root}")
+    private String root;
+
+    @Value("${gcp.storage.folder-name:converted-audio}")
+    private String folderName;
+
+    @Value("${storage.local.public-base-url:}")
+    private String publicBaseUrl;
+
+    @Value("${storage.local.signing-key:}")
+    private String signingKey;
+
+    private Path rootDirectory;
+
+    @PostConstruct
+    public void init() throws IOException {
+        rootDirectory = Paths.get(root).toAbsolutePath().normalize();
+        Files.createDirectories(rootDirectory.resolve(folderName));
+        log.info("Local blob store at {}", rootDirectory);
+    }
+
+    @Override
+    public String objectName(String fileName) {
+        return folderName.concat("/").concat(fileName);
+    }
+
+    @Override
+    public String uploadFile(File file, String objectName) throws IOException {
+        // A rename when the spool and the store share a filesystem, a copy otherwise
+        Files.move(file.toPath(), path(objectName), StandardCopyOption.REPLACE_EXISTING);
+        return objectName;
+    }
+
+    @Override
+    public Resource getFileBytes(String objectName) {
+        return new FileSystemResource(existing(objectName));
+    }
+
+    @Override
+    public OutputStream openOutputStream(String objectName) {
+        Path target = path(objectName);
+        // Written under a temporary name and renamed on close, matching GCS where the object appears once complete
+        Path temp = target.resolveSibling(UUID.randomUUID() + ".tmp");
+        try {
+            return new FilterOutputStream(Files.newOutputStream(temp)) {
+                @Override
+                public void write(byte[] buffer, int offset, int length) throws IOException {
+                    out.write(buffer, offset, length);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    super.close();
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                }
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public InputStream openInputStream(String objectName) {
+        try {
+            return Files.newInputStream(existing(objectName));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void delete(String objectName) {
+        try {
+            Files.deleteIfExists(path(objectName));
+        } catch (IOException e) {
+            log.warn("Failed to delete local object: path={}", objectName, e);
+        }
+    }
+
+    @Override
+    public Optional<File> localFile(String objectName) {
+        return Optional.of(existing(objectName).toFile());
+    }
+
+    /**
+     * Stand-in for a signed URL: the object under {@code storage.local.public-base-url}, where a static
+     * file server exposes the store's root. With a signing key the URL carries an expiry and an
+     * HMAC-SHA256 of {@code <expires>:/<objectName>} for that server to check.
+     */
+    @Override
+    public Optional<URI> signedUrl(String objectName, Duration ttl) {
+        if (publicBaseUrl == null || publicBaseUrl.isBlank()) {
+            return Optional.empty();
+        }
+        existing(objectName);
+        long expires = Instant.now().plus(ttl).getEpochSecond();
+        String base = publicBaseUrl.endsWith("/") ? publicBaseUrl.substring(0, publicBaseUrl.length() - 1) : publicBaseUrl;
+        StringBuilder url = new StringBuilder(base).append('/').append(objectName).append("?expires=").append(expires);
+        if (signingKey != null && !signingKey.isBlank()) {
+            url.append("&signature=").append(sign(expires + ":/" + objectName));
+        }
+        return Optional.of(URI.create(url.toString()));
+    }
+
+    private String sign(String value) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(signingKey.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Path existing(String objectName) {
+        Path path = path(objectName);
+        if (!Files.isRegularFile(path)) {
+            log.error("Failed to retrieve File not found in local store:  path={}", objectName);
+            throw new BusinessLogicException(ResponseCode.FILE_NOT_EXIST.getCode(), ResponseCode.FILE_NOT_EXIST.getMessage());
+        }
+        return path;
+    }
+
+    private Path path(String objectName) {
+        Path path = rootDirectory.resolve(objectName).normalize();
+        if (!path.startsWith(rootDirectory)) {
+            throw new BusinessLogicException(ResponseCode.FILE_NOT_EXIST.getCode(), ResponseCode.FILE_NOT_EXIST.getMessage());
+        }
+        return path;
+    }
+}
@@ -0,0 +1,68 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.Format;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Encoder settings used when producing each output format. The constants are the defaults of each
+ * format; {@link EncodingProfile encoding profiles} derive variants of them with {@link #with}.
+ */
+@Getter
+@EqualsAndHashCode
+public final class OutputEncoding {
+
+    public static final OutputEncoding WAV = new OutputEncoding(Format.WAV, "wav", "pcm_s16le", 0, 44100, 2, false);
+    public static final OutputEncoding M4A = new OutputEncoding(Format.M4A, "ipod", "aac", 192_000, 0, 0, true);
+    public static final OutputEncoding MP3 = new OutputEncoding(Format.MP3, "mp3", "libmp3lame", 192_000, 0, 0, false);
+    /** Lossless master at the same rate and layout as {@link #WAV}, so either decodes to the same PCM. */
+    public static final OutputEncoding FLAC = new OutputEncoding(Format.FLAC, "flac", "flac", 0, 44100, 2, false);
+
+    private static final List<OutputEncoding> DEFAULTS = List.of(WAV, M4A, MP3, FLAC);
+
+    private final Format format;
+    private final String container;
+    private final String codec;
+    /** Target bitrate in bits per second, or 0 for the codec default. */
+    private final int bitrate;
+    /** Target sample rate in Hz, or 0 to keep the source rate. */
+    private final int sampleRate;
+    /** Target channel count, or 0 to keep the source layout. */
+    private final int channels;
+    /** Whether the container has to be fragmented to be written to a non-seekable stream. */
+    private final boolean fragmentedWhenStreaming;
+
+    private OutputEncoding(Format format, String container, String codec, int bitrate, int sampleRate, int channels,
+                           boolean fragmentedWhenStreaming) {
+        this.format = format;
+        this.container = container;
+        this.codec = codec;
+        this.bitrate = bitrate;
+        this.sampleRate = sampleRate;
+        this.channels = channels;
+        this.fragmentedWhenStreaming = fragmentedWhenStreaming;
+    }
+
+    public static OutputEncoding forFormat(Format format) {
+        for (OutputEncoding encoding : DEFAULTS) {
+            if (encoding.format == format) {
+                return encoding;
+            }
+        }
+        throw new IllegalArgumentException("No encoding for format " + format);
+    }
+
+    /**
+     * Same container and codec with the given settings; 0 keeps the current value. The bitrate only
+     * applies to codecs that have one, so uncompressed formats ignore it.
+     */
+    public OutputEncoding with(int bitrate, int sampleRate, int channels) {
+        return new OutputEncoding(format, container, codec,
+                bitrate > 0 && this.bitrate > 0 ? bitrate : this.bitrate,
+                sampleRate > 0 ? sampleRate : this.sampleRate,
+                channels > 0 ? channels : this.channels,
+                fragmentedWhenStreaming);
+    }
+}
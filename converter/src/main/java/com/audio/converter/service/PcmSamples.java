@@ -0,0 +1,60 @@
+package com.audio.converter.service;
+
+/**
+ * Conversions between little-endian PCM bytes and interleaved float samples in [-1, 1). Integer samples
+ * are scaled by a power of two, so decoding 16-bit samples and encoding them again gives back the same bytes.
+ */
+final class PcmSamples {
+
+    private PcmSamples() {
+    }
+
+    static void decode(byte[] source, int samples, int bitsPerSample, boolean floatingPoint, float[] target) {
+        int offset = 0;
+        if (floatingPoint && bitsPerSample == 32) {
+            for (int i = 0; i < samples; i++, offset += 4) {
+                target[i] = Float.intBitsToFloat(int32(source, offset));
+            }
+        } else if (floatingPoint) {
+            for (int i = 0; i < samples; i++, offset += 8) {
+                long bits = Integer.toUnsignedLong(int32(source, offset)) | (long) int32(source, offset + 4) << 32;
+                target[i] = (float) Double.longBitsToDouble(bits);
+            }
+        } else if (bitsPerSample == 8) {
+            // 8-bit WAV is unsigned
+            for (int i = 0; i < samples; i++) {
+                target[i] = ((source[i] & 0xff) - 128) / 128f;
+            }
+        } else if (bitsPerSample == 16) {
+            for (int i = 0; i < samples; i++, offset += 2) {
+                target[i] = (short) ((source[offset] & 0xff) | source[offset + 1] << 8) / 32768f;
+            }
+        } else if (bitsPerSample == 24) {
+            for (int i = 0; i < samples; i++, offset += 3) {
+                int value = (source[offset] & 0xff) | (source[offset + 1] & 0xff) << 8 | source[offset + 2] << 16;
+                target[i] = value / 8388608f;
+            }
+        } else {
+            for (int i = 0; i < samples; i++, offset += 4) {
+                target[i] = int32(source, offset) / 2147483648f;
+            }
+        }
+    }
+
+    /**
+     * Writes the samples as 16-bit PCM, rounding and clipping to the representable range.
+     */
+    static void encode16(float[] source, int samples, byte[] target) {
+        for (int i = 0, offset = 0; i < samples; i++, offset += 2) {
+            int value = Math.round(source[i] * 32768f);
+            value = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value));
+            target[offset] = (byte) value;
+            target[offset + 1] = (byte) (value >> 8);
+        }
+    }
+
+    private static int int32(byte[] source, int offset) {
+        return (source[offset] & 0xff) | (source[offset + 1] & 0xff) << 8
+                | (source[offset + 2] & 0xff) << 16 | source[offset + 3] << 24;
+    }
+}
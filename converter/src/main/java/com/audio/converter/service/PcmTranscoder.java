@@ -0,0 +1,103 @@
+package com.audio.converter.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * In-process WAV to 16-bit WAV conversion with optional downmix/upmix and resampling, for operations that
+ * would otherwise cost an ffmpeg process just to shuffle PCM. Samples move through buffers allocated once
+ * per call, a block of {@value #BLOCK_FRAMES} frames at a time.
+ */
+public final class PcmTranscoder {
+
+    static final int BLOCK_FRAMES = 4096;
+
+    private PcmTranscoder() {
+    }
+
+    /**
+     * Reads a WAV stream and writes it as 16-bit PCM WAV at the given rate and channel count. A
+     * non-positive target keeps the source value. Neither stream is closed.
+     *
+     * @return the number of frames written
+     */
+    public static long convert(InputStream input, OutputStream output, int targetRate, int targetChannels) throws IOException {
+        WavHeader source = WavHeader.read(input);
+        int rate = targetRate > 0 ? targetRate : source.getSampleRate();
+        int channels = targetChannels > 0 ? targetChannels : source.getChannels();
+        if (!source.isFloatingPoint() && source.getBitsPerSample() == 16
+                && rate == source.getSampleRate() && channels == source.getChannels()) {
+            return copy(input, output, source);
+        }
+        ChannelMixer mixer = new ChannelMixer(source.getChannels(), channels);
+        Resampler resampler = rate == source.getSampleRate() ? null
+                : new Resampler(source.getSampleRate(), rate, channels, BLOCK_FRAMES);
+
+        long sourceFrames = source.getFrames();
+        long targetFrames = sourceFrames == WavHeader.UNKNOWN_LENGTH ? WavHeader.UNKNOWN_LENGTH
+                : (sourceFrames * rate + source.getSampleRate() - 1) / source.getSampleRate();
+        WavHeader target = WavHeader.pcm16(rate, channels,
+                targetFrames == WavHeader.UNKNOWN_LENGTH ? WavHeader.UNKNOWN_LENGTH : targetFrames * channels * 2);
+        target.write(output);
+
+        int blockAlign = source.getBlockAlign();
+        byte[] raw = new byte[BLOCK_FRAMES * blockAlign];
+        float[] decoded = new float[BLOCK_FRAMES * source.getChannels()];
+        float[] mixed = new float[BLOCK_FRAMES * channels];
+        float[] resampled = resampler == null ? mixed : new float[resampler.maxOutputFrames(BLOCK_FRAMES) * channels];
+        byte[] encoded = new byte[resampled.length * 2];
+
+        long remaining = source.getDataLength() == WavHeader.UNKNOWN_LENGTH ? Long.MAX_VALUE : source.getDataLength();
+        long written = 0;
+        while (remaining >= blockAlign) {
+            int requested = (int) Math.min(raw.length, remaining - remaining % blockAlign);
+            int read = input.readNBytes(raw, 0, requested);
+            // A trailing partial frame carries no complete sample set and is dropped
+            int frames = read / blockAlign;
+            if (frames > 0) {
+                PcmSamples.decode(raw, frames * source.getChannels(), source.getBitsPerSample(), source.isFloatingPoint(), decoded);
+                mixer.process(decoded, frames, mixed);
+                int produced = resampler == null ? frames : resampler.process(mixed, frames, resampled);
+                written += write(resampled, produced * channels, encoded, output);
+            }
+            if (read < requested) {
+                break;
+            }
+            remaining -= read;
+        }
+        if (resampler != null) {
+            written += write(resampled, resampler.flush(resampled) * channels, encoded, output);
+        }
+        return written / channels;
+    }
+
+    /**
+     * Writes a canonical header and copies the samples unchanged, for a source already in the target format.
+     */
+    private static long copy(InputStream input, OutputStream output, WavHeader source) throws IOException {
+        source.write(output);
+        int blockAlign = source.getBlockAlign();
+        byte[] buffer = new byte[BLOCK_FRAMES * blockAlign];
+        long remaining = source.getDataLength() == WavHeader.UNKNOWN_LENGTH ? Long.MAX_VALUE : source.getDataLength();
+        long copied = 0;
+        while (remaining > 0) {
+            int read = input.readNBytes(buffer, 0, (int) Math.min(buffer.length, remaining));
+            // As when converting, a trailing partial frame is dropped
+            int whole = read - read % blockAlign;
+            output.write(buffer, 0, whole);
+            copied += whole;
+            if (read < buffer.length && read < remaining) {
+                break;
+            }
+            remaining -= read;
+        }
+        return copied / blockAlign;
+    }
+
+    private static int write(float[] samples, int count, byte[] encoded, OutputStream output) throws IOException {
+        PcmSamples.encode16(samples, count, encoded);
+        output.write(encoded, 0, count * 2);
+        return count;
+    }
+}
@@ -0,0 +1,277 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.AudioMetadata;
+import com.audio.converter.model.Format;
+import com.audio.converter.model.ResponseCode;
+import com.audio.converter.util.BusinessLogicException;
+import com.audio.converter.util.RequestValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Transcoder that forks the ffmpeg binary for every operation. It is the default
+ * engine and the fallback when the in-process libraries cannot be loaded.
+ */
+@Slf4j
+@Component
+public class ProcessTranscoder implements Transcoder {
+
+    private static final String PIPE_IN = "pipe:0";
+    private static final String PIPE_OUT = "pipe:1";
+
+    @Value("${ffmpeg.path}")
+    private String ffmpegPath;
+
+    private final ExecutorService pipeWorkers;
+
+    private final AtomicInteger runningProcesses = new AtomicInteger();
+
+    public ProcessTranscoder() {
+        this(false);
+    }
+
+    @Autowired
+    public ProcessTranscoder(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            // Pipe copies block on the process streams for as long as ffmpeg runs
+            this.pipeWorkers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ffmpeg-pipe-", 1).factory());
+        } else {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("ffmpeg-pipe-");
+            threadFactory.setDaemon(true);
+            this.pipeWorkers = Executors.newCachedThreadPool(threadFactory);
+        }
+    }
+
+    /**
+     * Number of ffmpeg processes currently forked by this transcoder.
+     */
+    public int getRunningProcesses() {
+        return runningProcesses.get();
+    }
+
+    @Override
+    public void transcode(File input, File output, OutputEncoding encoding) throws IOException, InterruptedException {
+        run(command(input.getAbsolutePath(), output.getAbsolutePath(), encoding, IngestFilter.NONE, false), null, null, null);
+    }
+
+    @Override
+    public void transcode(File input, OutputStream output, OutputEncoding encoding) throws IOException, InterruptedException {
+        run(command(input.getAbsolutePath(), PIPE_OUT, encoding, IngestFilter.NONE, true), null, output, null);
+    }
+
+    @Override
+    public void transcode(InputStream input, OutputStream output, OutputEncoding encoding) throws IOException, InterruptedException {
+        run(command(PIPE_IN, PIPE_OUT, encoding, IngestFilter.NONE, true), input, output, null);
+    }
+
+    @Override
+    public AudioMetadata ingest(File input, File output, Format target, IngestFilter filter, Predicate<AudioMetadata> accept)
+            throws IOException, InterruptedException {
+        return run(command(input.getAbsolutePath(), output.getAbsolutePath(), OutputEncoding.forFormat(target), filter, false),
+                null, null, accept);
+    }
+
+    @Override
+    public AudioMetadata ingest(File input, OutputStream output, Format target, IngestFilter filter, Predicate<AudioMetadata> accept)
+            throws IOException, InterruptedException {
+        return run(command(input.getAbsolutePath(), PIPE_OUT, OutputEncoding.forFormat(target), filter, true), null, output, accept);
+    }
+
+    @Override
+    public AudioMetadata ingest(File input, Map<Format, File> outputs, IngestFilter filter, Predicate<AudioMetadata> accept)
+            throws IOException, InterruptedException {
+        List<String> command = inputArguments(input.getAbsolutePath());
+        // ffmpeg decodes the input once and feeds every output that follows it
+        outputs.forEach((target, output) ->
+                command.addAll(outputArguments(output.getAbsolutePath(), OutputEncoding.forFormat(target), filter, false)));
+        return run(command, null, null, accept);
+    }
+
+    private List<String> command(String input, String output, OutputEncoding encoding, IngestFilter filter, boolean streaming) {
+        List<String> command = inputArguments(input);
+        command.addAll(outputArguments(output, encoding, filter, streaming));
+        return command;
+    }
+
+    private List<String> inputArguments(String input) {
+        List<String> command = new ArrayList<>(List.of(ffmpegPath, "-y"));
+        if (!PIPE_IN.equals(input)) {
+            command.add("-nostdin");
+        }
+        command.addAll(List.of("-i", input));
+        return command;
+    }
+
+    private static List<String> outputArguments(String output, OutputEncoding encoding, IngestFilter filter, boolean streaming) {
+        List<String> arguments = new ArrayList<>();
+        if (filter.isEnabled()) {
+            // Filters are per output; the input is still decoded once for all of them
+            arguments.addAll(List.of("-af", filter.toFfmpeg()));
+        }
+        arguments.addAll(List.of("-c:a", encoding.getCodec()));
+        if (encoding.getBitrate() > 0) {
+            arguments.addAll(List.of("-b:a", String.valueOf(encoding.getBitrate())));
+        }
+        if (encoding.getSampleRate() > 0) {
+            arguments.addAll(List.of("-ar", String.valueOf(encoding.getSampleRate())));
+        }
+        if (encoding.getChannels() > 0) {
+            arguments.addAll(List.of("-ac", String.valueOf(encoding.getChannels())));
+        }
+        if (streaming && encoding.isFragmentedWhenStreaming()) {
+            // MP4 normally seeks back to write the moov atom, which a pipe cannot do.
+            arguments.addAll(List.of("-movflags", "frag_keyframe+empty_moov"));
+        }
+        arguments.addAll(List.of("-f", encoding.getContainer(), output));
+        return arguments;
+    }
+
+    /**
+     * Runs ffmpeg with optional stdin/stdout pipes. When {@code accept} is given, stderr is parsed
+     * for the input header and the process is killed as soon as the header is rejected.
+     */
+    private AudioMetadata run(List<String> command, InputStream input, OutputStream output,
+                              Predicate<AudioMetadata> accept) throws IOException, InterruptedException {
+        ProcessBuilder builder = new ProcessBuilder(command);
+        if (accept == null) {
+            // Nobody reads ffmpeg's log here, so discard it instead of letting the pipe fill up and block.
+            builder.redirectError(ProcessBuilder.Redirect.DISCARD);
+        }
+        if (output == null) {
+            builder.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        }
+        Process process = builder.start();
+        runningProcesses.incrementAndGet();
+
+        try {
+            if (input != null) {
+                // stdin is fed from another thread, otherwise ffmpeg and this thread block on each other's pipes.
+                pipeWorkers.execute(() -> {
+                    try (OutputStream stdin = process.getOutputStream()) {
+                        input.transferTo(stdin);
+                    } catch (IOException e) {
+                        // ffmpeg exited or closed stdin early; its exit code reports the failure.
+                        log.debug("FFmpeg stdin closed early", e);
+                    }
+                });
+            } else {
+                process.getOutputStream().close();
+            }
+
+            Future<AudioMetadata> header = accept == null ? null
+                    : pipeWorkers.submit(() -> readHeader(process, accept));
+
+            IOException copyFailure = null;
+            if (output != null) {
+                try (InputStream stdout = process.getInputStream()) {
+                    stdout.transferTo(output);
+                } catch (IOException e) {
+                    // Either the consumer went away or the process was killed after a rejected header;
+                    // kill it so it does not block on a full stdout pipe.
+                    process.destroyForcibly();
+                    copyFailure = e;
+                }
+            }
+
+            int exitCode = process.waitFor();
+            AudioMetadata metadata = null;
+            if (header != null) {
+                metadata = awaitHeader(header);
+                if (metadata == null || !accept.test(metadata)) {
+                    throw new RequestValidationException(ResponseCode.FORMAT_INVALID.getCode(), ResponseCode.FORMAT_INVALID.getMessage());
+                }
+            }
+            if (copyFailure != null) {
+                throw copyFailure;
+            }
+            if (exitCode != 0) {
+                log.error("FFmpeg conversion failed with exit code {}", exitCode);
+                throw new BusinessLogicException(ResponseCode.CONVERSION_FAILED.getCode(), "FFmpeg conversion failed.");
+            }
+            return metadata;
+        } finally {
+            if (process.isAlive()) {
+                process.destroyForcibly();
+            }
+            runningProcesses.decrementAndGet();
+        }
+    }
+
+    private AudioMetadata readHeader(Process process, Predicate<AudioMetadata> accept) {
+        FfmpegHeaderParser parser = new FfmpegHeaderParser();
+        boolean checked = false;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getErrorStream()))) {
+            String line;
+            // Keep draining after the header so ffmpeg never blocks on a full stderr pipe.
+            while ((line = reader.readLine()) != null) {
+                if (!checked && !parser.accept(line)) {
+                    checked = true;
+                    AudioMetadata metadata = parser.metadata();
+                    if (metadata == null || !accept.test(metadata)) {
+                        process.destroyForcibly();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // The stream is closed under us once the process is killed; what was parsed still stands.
+            log.debug("FFmpeg stderr closed", e);
+        }
+        return parser.metadata();
+    }
+
+    private static AudioMetadata awaitHeader(Future<AudioMetadata> header) throws IOException, InterruptedException {
+        try {
+            return header.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to read ffmpeg output", e.getCause());
+        }
+    }
+
+    @Override
+    public Optional<AudioMetadata> probe(File input) {
+        try {
+            // Without an output ffmpeg prints the input header and exits, so nothing is decoded
+            ProcessBuilder processBuilder = new ProcessBuilder(
+                    ffmpegPath, "-hide_banner", "-nostdin", "-i", input.getAbsolutePath());
+            processBuilder.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+            Process process = processBuilder.start();
+
+            FfmpegHeaderParser parser = new FfmpegHeaderParser();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getErrorStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    parser.accept(line);
+                }
+            }
+            process.waitFor();
+            return Optional.ofNullable(parser.metadata());
+        } catch (IOException e) {
+            log.error("FFmpeg read failed", e);
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("FFmpeg read interrupted", e);
+            return Optional.empty();
+        }
+    }
+}
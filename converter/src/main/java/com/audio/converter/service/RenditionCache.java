@@ -0,0 +1,333 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.CacheStats;
+import com.audio.converter.model.Format;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Two-tier cache for converted renditions keyed by (audio id, target format, encoding profile).
+ * The memory tier is an LRU bounded by total bytes; entries evicted from it spill
+ * into the optional disk tier, which is bounded the same way.
+ * <p>
+ * A rendition is only stored under the generation read before its source was: {@link #invalidate}
+ * moves the audio past it, so a conversion that straddles an update cannot bring the old content back.
+ */
+@Slf4j
+@Service
+public class RenditionCache {
+
+    @Value("${audio.cache.memory.max-bytes:67108864}")
+    private long memoryMaxBytes;
+
+    @Value("${audio.cache.memory.max-entry-bytes:8388608}")
+    private long memoryMaxEntryBytes;
+
+    @Value("${audio.cache.disk.path:}")
+    private String diskPath;
+
+    @Value("${audio.cache.disk.max-bytes:1073741824}")
+    private long diskMaxBytes;
+
+    @Value("${audio.cache.invalidations.max-entries:100000}")
+    private int invalidationsMaxEntries;
+
+    // A lock rather than synchronized: contended monitors pin virtual threads to their carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, Long> disk = new LinkedHashMap<>(16, 0.75f, true);
+    // Invalidation sequence per audio, oldest first; entries beyond the bound fold into invalidatedFloor
+    private final LinkedHashMap<String, Long> invalidated = new LinkedHashMap<>();
+    private long generation;
+    private long invalidatedFloor;
+    private long memoryBytes;
+    private long diskBytes;
+    private Path diskDirectory;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong memoryEvictions = new AtomicLong();
+    private final AtomicLong diskEvictions = new AtomicLong();
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (diskPath == null || diskPath.isBlank()) {
+            return;
+        }
+        diskDirectory = Paths.get(diskPath);
+        Files.createDirectories(diskDirectory);
+        // Entries are not indexed across restarts, so anything left over may be stale.
+        try (Stream<Path> files = Files.list(diskDirectory)) {
+            files.forEach(file -> file.toFile().delete());
+        }
+        log.info("Rendition disk cache enabled at {} with budget {} bytes", diskDirectory, diskMaxBytes);
+    }
+
+    public Optional<Resource> get(String audioId, Format format) {
+        return get(audioId, format, null);
+    }
+
+    /**
+     * Rendition encoded with the named profile; a null profile is the format's default encoding.
+     */
+    public Optional<Resource> get(String audioId, Format format, String profile) {
+        String key = key(audioId, format, profile);
+        byte[] content;
+        long current;
+        lock.lock();
+        try {
+            content = memory.get(key);
+            current = generation;
+        } finally {
+            lock.unlock();
+        }
+        if (content != null) {
+            memoryHits.incrementAndGet();
+            return Optional.of(new ByteArrayResource(content));
+        }
+
+        content = readFromDisk(key);
+        if (content != null) {
+            diskHits.incrementAndGet();
+            putInMemory(audioId, key, content, current);
+            return Optional.of(new ByteArrayResource(content));
+        }
+
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    /**
+     * Largest rendition the memory tier accepts; callers use it to decide whether to buffer a copy.
+     */
+    public long getMemoryMaxEntryBytes() {
+        return memoryMaxEntryBytes;
+    }
+
+    /**
+     * Generation to pass to {@code put}; read it before the audio's source so a later invalidation wins.
+     */
+    public long generation() {
+        lock.lock();
+        try {
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(String audioId, Format format, byte[] content, long generation) {
+        put(audioId, format, null, content, generation);
+    }
+
+    /**
+     * Stores a rendition unless its audio was invalidated after the given generation was read.
+     */
+    public void put(String audioId, Format format, String profile, byte[] content, long generation) {
+        String key = key(audioId, format, profile);
+        if (content.length <= memoryMaxEntryBytes && content.length <= memoryMaxBytes) {
+            putInMemory(audioId, key, content, generation);
+        } else {
+            writeToDisk(audioId, key, content, generation);
+        }
+    }
+
+    /**
+     * Drops every rendition of the given audio from both tiers.
+     */
+    public void invalidate(String audioId) {
+        String prefix = audioId + ":";
+        List<String> diskKeys = new ArrayList<>();
+        lock.lock();
+        try {
+            invalidated.remove(audioId);
+            invalidated.put(audioId, ++generation);
+            if (invalidated.size() > invalidationsMaxEntries) {
+                Iterator<Map.Entry<String, Long>> eldest = invalidated.entrySet().iterator();
+                invalidatedFloor = eldest.next().getValue();
+                eldest.remove();
+            }
+            Iterator<Map.Entry<String, byte[]>> memoryEntries = memory.entrySet().iterator();
+            while (memoryEntries.hasNext()) {
+                Map.Entry<String, byte[]> entry = memoryEntries.next();
+                if (entry.getKey().startsWith(prefix)) {
+                    memoryBytes -= entry.getValue().length;
+                    memoryEntries.remove();
+                }
+            }
+            Iterator<Map.Entry<String, Long>> diskEntries = disk.entrySet().iterator();
+            while (diskEntries.hasNext()) {
+                Map.Entry<String, Long> entry = diskEntries.next();
+                if (entry.getKey().startsWith(prefix)) {
+                    diskBytes -= entry.getValue();
+                    diskKeys.add(entry.getKey());
+                    diskEntries.remove();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        diskKeys.forEach(this::deleteFromDisk);
+    }
+
+    public CacheStats stats() {
+        lock.lock();
+        try {
+            return CacheStats.builder()
+                    .memoryHits(memoryHits.get())
+                    .diskHits(diskHits.get())
+                    .misses(misses.get())
+                    .memoryEvictions(memoryEvictions.get())
+                    .diskEvictions(diskEvictions.get())
+                    .memoryEntries(memory.size())
+                    .memoryBytes(memoryBytes)
+                    .diskEntries(disk.size())
+                    .diskBytes(diskBytes)
+                    .build();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void putInMemory(String audioId, String key, byte[] content, long generation) {
+        Map<String, byte[]> evicted = new LinkedHashMap<>();
+        long current;
+        lock.lock();
+        try {
+            if (isStale(audioId, generation)) {
+                return;
+            }
+            current = this.generation;
+            byte[] previous = memory.put(key, content);
+            if (previous != null) {
+                memoryBytes -= previous.length;
+            }
+            memoryBytes += content.length;
+
+            Iterator<Map.Entry<String, byte[]>> eldest = memory.entrySet().iterator();
+            while (memoryBytes > memoryMaxBytes && eldest.hasNext()) {
+                Map.Entry<String, byte[]> entry = eldest.next();
+                memoryBytes -= entry.getValue().length;
+                evicted.put(entry.getKey(), entry.getValue());
+                eldest.remove();
+                memoryEvictions.incrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+        // Evicted entries were current when they left memory; an invalidation during the spill still wins
+        evicted.forEach((evictedKey, evictedContent) -> writeToDisk(audioId(evictedKey), evictedKey, evictedContent, current));
+    }
+
+    private void writeToDisk(String audioId, String key, byte[] content, long generation) {
+        if (diskDirectory == null || content.length > diskMaxBytes) {
+            return;
+        }
+        // Write under a temporary name first so readers never see a partial file.
+        Path temp = diskDirectory.resolve(UUID.randomUUID() + ".tmp");
+        try {
+            Files.write(temp, content);
+        } catch (IOException e) {
+            log.warn("Failed to spill rendition to disk cache: key={}", key, e);
+            temp.toFile().delete();
+            return;
+        }
+
+        List<String> evicted = new ArrayList<>();
+        lock.lock();
+        try {
+            // Renamed under the lock so the generation check and the file becoming visible cannot be split
+            if (isStale(audioId, generation)) {
+                temp.toFile().delete();
+                return;
+            }
+            try {
+                Files.move(temp, diskFile(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                log.warn("Failed to spill rendition to disk cache: key={}", key, e);
+                temp.toFile().delete();
+                return;
+            }
+            Long previous = disk.put(key, (long) content.length);
+            if (previous != null) {
+                diskBytes -= previous;
+            }
+            diskBytes += content.length;
+
+            Iterator<Map.Entry<String, Long>> eldest = disk.entrySet().iterator();
+            while (diskBytes > diskMaxBytes && eldest.hasNext()) {
+                Map.Entry<String, Long> entry = eldest.next();
+                diskBytes -= entry.getValue();
+                evicted.add(entry.getKey());
+                eldest.remove();
+                diskEvictions.incrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+        evicted.forEach(this::deleteFromDisk);
+    }
+
+    private byte[] readFromDisk(String key) {
+        if (diskDirectory == null) {
+            return null;
+        }
+        lock.lock();
+        try {
+            if (disk.get(key) == null) {
+                return null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        try {
+            return Files.readAllBytes(diskFile(key));
+        } catch (IOException e) {
+            // Evicted or invalidated between the index lookup and the read.
+            return null;
+        }
+    }
+
+    // Caller holds the lock
+    private boolean isStale(String audioId, long generation) {
+        return generation < invalidatedFloor || invalidated.getOrDefault(audioId, 0L) > generation;
+    }
+
+    private void deleteFromDisk(String key) {
+        diskFile(key).toFile().delete();
+    }
+
+    private Path diskFile(String key) {
+        return diskDirectory.resolve(key.replaceAll("[^A-Za-z0-9._-]", "_") + ".bin");
+    }
+
+    private static String audioId(String key) {
+        return key.substring(0, key.indexOf(':'));
+    }
+
+    private static String key(String audioId, Format format, String profile) {
+        String key = audioId + ":" + format.getValue();
+        return profile == null ? key : key + ":" + profile;
+    }
+}
@@ -0,0 +1,153 @@
+package com.audio.converter.service;
+
+import java.util.Arrays;
+
+/**
+ * Band-limited sample rate converter for interleaved float samples. Each output sample is a 32-tap
+ * Blackman-windowed sinc, taken from a table precomputed for 512 fractional positions, so processing
+ * allocates nothing. The input position advances by an exact fraction of the two rates, which keeps long
+ * streams from drifting, and the output length is independent of how the input is split into blocks.
+ */
+public final class Resampler {
+
+    private static final int HALF_TAPS = 16;
+    private static final int TAPS = 2 * HALF_TAPS;
+    private static final int PHASES = 512;
+
+    private final int channels;
+    private final int inputRate;
+    private final int outputRate;
+    private final int maxBlockFrames;
+    /** One row of {@link #TAPS} coefficients per phase, plus the row for a whole-sample offset. */
+    private final float[] kernel;
+    /** Input frames still needed by upcoming outputs, followed by the block being processed. */
+    private final float[] window;
+
+    private long windowStart;
+    private int windowFrames;
+    private long position;
+    private long fraction;
+    private long inputFrames;
+    private long outputFrames;
+
+    public Resampler(int inputRate, int outputRate, int channels, int maxBlockFrames) {
+        if (inputRate <= 0 || outputRate <= 0 || channels <= 0 || maxBlockFrames <= 0) {
+            throw new IllegalArgumentException("Invalid resampler configuration");
+        }
+        int divisor = gcd(inputRate, outputRate);
+        this.inputRate = inputRate / divisor;
+        this.outputRate = outputRate / divisor;
+        this.channels = channels;
+        this.maxBlockFrames = maxBlockFrames;
+        this.kernel = kernel(Math.min(1.0, (double) outputRate / inputRate));
+        this.window = new float[(TAPS + Math.max(maxBlockFrames, HALF_TAPS)) * channels];
+        // Silence before the first sample, so the first output sees a full kernel
+        this.windowStart = -(HALF_TAPS - 1);
+        this.windowFrames = HALF_TAPS - 1;
+    }
+
+    /**
+     * Upper bound on the frames returned by one {@link #process} or {@link #flush} call for the given input.
+     */
+    public int maxOutputFrames(int inputFrames) {
+        return (int) ((long) (inputFrames + TAPS) * outputRate / inputRate) + 2;
+    }
+
+    /**
+     * Consumes {@code frames} frames of input and writes every output frame that can be computed so far.
+     *
+     * @return the number of frames written to {@code output}
+     */
+    public int process(float[] input, int frames, float[] output) {
+        if (frames > maxBlockFrames) {
+            throw new IllegalArgumentException("Block of " + frames + " frames exceeds " + maxBlockFrames);
+        }
+        System.arraycopy(input, 0, window, windowFrames * channels, frames * channels);
+        windowFrames += frames;
+        inputFrames += frames;
+        return drain(output, Long.MAX_VALUE);
+    }
+
+    /**
+     * Pads the input with silence and writes the remaining output, for a total of
+     * {@code ceil(inputFrames * outputRate / inputRate)} frames.
+     */
+    public int flush(float[] output) {
+        Arrays.fill(window, windowFrames * channels, (windowFrames + HALF_TAPS) * channels, 0f);
+        windowFrames += HALF_TAPS;
+        long total = (inputFrames * outputRate + inputRate - 1) / inputRate;
+        return drain(output, total - outputFrames);
+    }
+
+    private int drain(float[] output, long limit) {
+        int produced = 0;
+        long end = windowStart + windowFrames;
+        while (produced < limit && position + HALF_TAPS < end) {
+            int row = (int) ((fraction * PHASES + outputRate / 2) / outputRate) * TAPS;
+            int base = (int) (position - HALF_TAPS + 1 - windowStart) * channels;
+            int out = produced * channels;
+            for (int channel = 0; channel < channels; channel++) {
+                float sum = 0;
+                for (int tap = 0, index = base + channel; tap < TAPS; tap++, index += channels) {
+                    sum += window[index] * kernel[row + tap];
+                }
+                output[out + channel] = sum;
+            }
+            produced++;
+            fraction += inputRate;
+            position += fraction / outputRate;
+            fraction %= outputRate;
+        }
+        outputFrames += produced;
+        compact();
+        return produced;
+    }
+
+    /**
+     * Drops the frames no upcoming output reaches back to.
+     */
+    private void compact() {
+        long drop = Math.min(Math.max(position - HALF_TAPS + 1 - windowStart, 0), windowFrames);
+        if (drop > 0) {
+            int dropped = (int) drop;
+            System.arraycopy(window, dropped * channels, window, 0, (windowFrames - dropped) * channels);
+            windowFrames -= dropped;
+            windowStart += dropped;
+        }
+    }
+
+    private static float[] kernel(double cutoff) {
+        float[] kernel = new float[(PHASES + 1) * TAPS];
+        for (int phase = 0; phase <= PHASES; phase++) {
+            double sum = 0;
+            for (int tap = 0; tap < TAPS; tap++) {
+                // Distance from the output instant to this input sample, in input samples
+                double x = tap - HALF_TAPS + 1 - (double) phase / PHASES;
+                double value = cutoff * sinc(cutoff * x) * blackman(x);
+                kernel[phase * TAPS + tap] = (float) value;
+                sum += value;
+            }
+            // Unity gain at DC for every phase
+            for (int tap = 0; tap < TAPS; tap++) {
+                kernel[phase * TAPS + tap] /= (float) sum;
+            }
+        }
+        return kernel;
+    }
+
+    private static double sinc(double x) {
+        return x == 0 ? 1 : Math.sin(Math.PI * x) / (Math.PI * x);
+    }
+
+    private static double blackman(double x) {
+        if (Math.abs(x) >= HALF_TAPS) {
+            return 0;
+        }
+        double t = Math.PI * x / HALF_TAPS;
+        return 0.42 + 0.5 * Math.cos(t) + 0.08 * Math.cos(2 * t);
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
@@ -0,0 +1,57 @@
+package com.audio.converter.service;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Runs at most one call per key at a time. Callers that arrive while a call is in flight wait for it
+ * and get its result or its exception instead of starting their own; the key is free again once it ends,
+ * so results are not cached here.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    public V execute(K key, TranscodingExecutor.TranscodingTask<V> call) throws IOException, InterruptedException {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = calls.putIfAbsent(key, own);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+        try {
+            V value = call.call();
+            own.complete(value);
+            return value;
+        } catch (Throwable e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, own);
+        }
+    }
+
+    public int inFlight() {
+        return calls.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> call) throws IOException, InterruptedException {
+        try {
+            return call.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            // The caller that ran it was interrupted; that says nothing about this one
+            throw new IOException("Shared call was interrupted", cause);
+        }
+    }
+}
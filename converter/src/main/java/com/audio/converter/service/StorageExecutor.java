@@ -0,0 +1,60 @@
+package com.audio.converter.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs blob store transfers off the request thread so several uploads can be in flight at once.
+ * Kept apart from {@link TranscodingExecutor}, whose threads are sized for CPU-bound ffmpeg work.
+ */
+@Slf4j
+@Component
+public class StorageExecutor {
+
+    @Value("${audio.storage.upload-threads:8}")
+    private int threads;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private ExecutorService executor;
+
+    @FunctionalInterface
+    public interface StorageTask<T> {
+        T call() throws IOException, InterruptedException;
+    }
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newFixedThreadPool(threads, ThreadFactories.named("storage-", virtualThreads));
+        log.info("Storage transfer pool started with {} {} threads", threads, virtualThreads ? "virtual" : "platform");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public <T> CompletableFuture<T> submit(StorageTask<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                result.complete(task.call());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.completeExceptionally(e);
+            } catch (Exception | Error e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+}
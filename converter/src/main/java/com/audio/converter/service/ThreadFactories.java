@@ -0,0 +1,22 @@
+package com.audio.converter.service;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread factories for the service's own pools. With {@code spring.threads.virtual.enabled} the pools
+ * that mostly wait on I/O or on a child process run on virtual threads; pool sizes still bound concurrency.
+ */
+final class ThreadFactories {
+
+    private ThreadFactories() {
+    }
+
+    static ThreadFactory named(String prefix, boolean virtual) {
+        if (virtual) {
+            return Thread.ofVirtual().name(prefix, 1).factory();
+        }
+        return new CustomizableThreadFactory(prefix);
+    }
+}
@@ -0,0 +1,96 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.AudioMetadata;
+import com.audio.converter.model.Format;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Converts audio files between formats. Implementations are selected with
+ * {@code ffmpeg.engine}: {@code process} forks the ffmpeg binary, {@code javacv}
+ * runs the bundled FFmpeg libraries in-process.
+ */
+public interface Transcoder {
+
+    default void transcode(File input, File output, Format target) throws IOException, InterruptedException {
+        transcode(input, output, OutputEncoding.forFormat(target));
+    }
+
+    /**
+     * Converts a seekable input file and writes the encoded result to the stream as it is produced.
+     */
+    default void transcode(File input, OutputStream output, Format target) throws IOException, InterruptedException {
+        transcode(input, output, OutputEncoding.forFormat(target));
+    }
+
+    /**
+     * Converts a non-seekable input stream, for inputs such as WAV whose demuxer can read
+     * front to back, and writes the encoded result to the stream as it is produced.
+     */
+    default void transcode(InputStream input, OutputStream output, Format target) throws IOException, InterruptedException {
+        transcode(input, output, OutputEncoding.forFormat(target));
+    }
+
+    /**
+     * Same as {@link #transcode(File, File, Format)} with explicit encoder settings, e.g. from an {@link EncodingProfile}.
+     */
+    void transcode(File input, File output, OutputEncoding encoding) throws IOException, InterruptedException;
+
+    void transcode(File input, OutputStream output, OutputEncoding encoding) throws IOException, InterruptedException;
+
+    void transcode(InputStream input, OutputStream output, OutputEncoding encoding) throws IOException, InterruptedException;
+
+    /**
+     * Converts an uploaded file in a single ffmpeg pass. The container and codec are read from the
+     * header before any audio is decoded; when {@code accept} rejects them the conversion is aborted
+     * with {@code FORMAT_INVALID}.
+     *
+     * @return metadata of the input as read from its header
+     */
+    default AudioMetadata ingest(File input, File output, Format target, Predicate<AudioMetadata> accept)
+            throws IOException, InterruptedException {
+        return ingest(input, output, target, IngestFilter.NONE, accept);
+    }
+
+    /**
+     * Same as {@link #ingest(File, File, Format, Predicate)}, writing the encoded result to a stream.
+     */
+    default AudioMetadata ingest(File input, OutputStream output, Format target, Predicate<AudioMetadata> accept)
+            throws IOException, InterruptedException {
+        return ingest(input, output, target, IngestFilter.NONE, accept);
+    }
+
+    /**
+     * Same as {@link #ingest(File, File, Format, Predicate)}, decoding the input once and encoding
+     * it into every target format of {@code outputs}.
+     */
+    default AudioMetadata ingest(File input, Map<Format, File> outputs, Predicate<AudioMetadata> accept)
+            throws IOException, InterruptedException {
+        return ingest(input, outputs, IngestFilter.NONE, accept);
+    }
+
+    /**
+     * Same as {@link #ingest(File, File, Format, Predicate)}, running the decoded audio through
+     * {@code filter} before it is encoded. The returned metadata still describes the input.
+     */
+    AudioMetadata ingest(File input, File output, Format target, IngestFilter filter, Predicate<AudioMetadata> accept)
+            throws IOException, InterruptedException;
+
+    AudioMetadata ingest(File input, OutputStream output, Format target, IngestFilter filter, Predicate<AudioMetadata> accept)
+            throws IOException, InterruptedException;
+
+    AudioMetadata ingest(File input, Map<Format, File> outputs, IngestFilter filter, Predicate<AudioMetadata> accept)
+            throws IOException, InterruptedException;
+
+    /**
+     * Reads container, codec and stream information from the input header without
+     * decoding it, or returns empty when it cannot be parsed as audio.
+     */
+    Optional<AudioMetadata> probe(File input);
+}
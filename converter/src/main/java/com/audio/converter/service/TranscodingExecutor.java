@@ -0,0 +1,158 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.ResponseCode;
+import com.audio.converter.util.ServiceOverloadedException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs conversions on a fixed pool sized to the machine, so a burst of requests queues up
+ * instead of starting an unbounded number of ffmpeg processes. Callers are rejected with
+ * 429 when the queue is full and with 503 when their task was not started within the deadline.
+ */
+@Slf4j
+@Component
+public class TranscodingExecutor {
+
+    @Value("${audio.transcoding.threads:0}")
+    private int threads;
+
+    @Value("${audio.transcoding.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${audio.transcoding.queue-timeout-ms:10000}")
+    private long queueTimeoutMillis;
+
+    @Value("${audio.transcoding.retry-after-seconds:5}")
+    private long retryAfterSeconds;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${ffmpeg.engine:process}")
+    private String engine;
+
+    private ThreadPoolExecutor executor;
+
+    @FunctionalInterface
+    public interface TranscodingTask<T> {
+        T call() throws IOException, InterruptedException;
+    }
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        // Process workers only wait on ffmpeg, so they can be virtual; javacv encodes in native code on
+        // the worker itself, which would pin a carrier thread for the whole conversion
+        boolean virtual = virtualThreads && !"javacv".equals(engine);
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), ThreadFactories.named("transcoder-", virtual),
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("Transcoding pool started with {} {} threads and queue capacity {}",
+                poolSize, virtual ? "virtual" : "platform", queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public int getActiveTasks() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueuedTasks() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Runs the task on the pool and waits for its result. Exceptions thrown by the task are rethrown as is.
+     */
+    public <T> T execute(TranscodingTask<T> task) throws IOException, InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                started.countDown();
+                return task.call();
+            });
+        } catch (RejectedExecutionException e) {
+            throw busy();
+        }
+
+        if (!started.await(queueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            // Drop the queued task; cancel returns false if it started in the meantime.
+            if (future.cancel(false)) {
+                executor.remove((Runnable) future);
+                log.warn("Transcoding task not started within {} ms", queueTimeoutMillis);
+                throw new ServiceOverloadedException(ResponseCode.TRANSCODER_TIMEOUT.getCode(),
+                        ResponseCode.TRANSCODER_TIMEOUT.getMessage(), HttpStatus.SERVICE_UNAVAILABLE, retryAfterSeconds);
+            }
+        }
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof InterruptedException interruptedException) {
+                throw interruptedException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        }
+    }
+
+    /**
+     * Queues the task without waiting for it, for callers that run several conversions at once.
+     * A full queue fails the returned future with {@code TRANSCODER_BUSY}; there is no start deadline.
+     */
+    public <T> CompletableFuture<T> submit(TranscodingTask<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    result.complete(task.call());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    result.completeExceptionally(e);
+                } catch (Exception | Error e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(busy());
+        }
+        return result;
+    }
+
+    private ServiceOverloadedException busy() {
+        log.warn("Transcoding queue full: active={}, queued={}", getActiveTasks(), getQueuedTasks());
+        return new ServiceOverloadedException(ResponseCode.TRANSCODER_BUSY.getCode(),
+                ResponseCode.TRANSCODER_BUSY.getMessage(), HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds);
+    }
+}
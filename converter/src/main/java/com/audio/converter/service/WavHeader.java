@@ -0,0 +1,160 @@
+package com.audio.converter.service;
+
+import lombok.Getter;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Format and data size of a RIFF/WAVE stream. Reading consumes the stream up to the first sample;
+ * writing emits the canonical 44-byte header for integer PCM.
+ */
+@Getter
+public final class WavHeader {
+
+    /** Data size of a stream written without knowing its length, e.g. by ffmpeg to a pipe. */
+    public static final long UNKNOWN_LENGTH = -1;
+
+    private static final int FORMAT_PCM = 1;
+    private static final int FORMAT_FLOAT = 3;
+    private static final int FORMAT_EXTENSIBLE = 0xFFFE;
+    private static final long UNSIZED = 0xFFFFFFFFL;
+    // The 18-byte WAVEFORMATEX plus the most extra bytes its 16-bit cbSize can announce
+    private static final long MAX_FORMAT_BYTES = 18 + 0xFFFF;
+
+    private final int sampleRate;
+    private final int channels;
+    private final int bitsPerSample;
+    private final boolean floatingPoint;
+    /** Bytes of sample data, or {@link #UNKNOWN_LENGTH} to read until the end of the stream. */
+    private final long dataLength;
+
+    public WavHeader(int sampleRate, int channels, int bitsPerSample, boolean floatingPoint, long dataLength) {
+        this.sampleRate = sampleRate;
+        this.channels = channels;
+        this.bitsPerSample = bitsPerSample;
+        this.floatingPoint = floatingPoint;
+        this.dataLength = dataLength;
+    }
+
+    public static WavHeader pcm16(int sampleRate, int channels, long dataLength) {
+        return new WavHeader(sampleRate, channels, 16, false, dataLength);
+    }
+
+    public int getBlockAlign() {
+        return channels * (bitsPerSample / 8);
+    }
+
+    /**
+     * Number of sample frames, or {@link #UNKNOWN_LENGTH}.
+     */
+    public long getFrames() {
+        return dataLength == UNKNOWN_LENGTH ? UNKNOWN_LENGTH : dataLength / getBlockAlign();
+    }
+
+    /**
+     * Length of the sample data in milliseconds, or {@link #UNKNOWN_LENGTH}.
+     */
+    public long getDurationMillis() {
+        long frames = getFrames();
+        return frames == UNKNOWN_LENGTH ? UNKNOWN_LENGTH : frames * 1000 / sampleRate;
+    }
+
+    /**
+     * Parses the header from the first bytes of a WAVE file of the given size. The data size is taken to be
+     * everything after the header, however many chunks precede it, so it is known even when the header was
+     * written to a pipe without it.
+     */
+    public static WavHeader read(byte[] head, long fileLength) throws IOException {
+        ByteArrayInputStream input = new ByteArrayInputStream(head);
+        WavHeader header = read(input);
+        long dataOffset = head.length - input.available();
+        return new WavHeader(header.sampleRate, header.channels, header.bitsPerSample, header.floatingPoint,
+                Math.max(0, fileLength - dataOffset));
+    }
+
+    /**
+     * Parses the header and skips every chunk before {@code data}, leaving the stream at the first sample.
+     */
+    public static WavHeader read(InputStream input) throws IOException {
+        ByteBuffer riff = readBytes(input, 12);
+        if (riff.getInt(0) != fourCc("RIFF") || riff.getInt(8) != fourCc("WAVE")) {
+            throw new IOException("Not a RIFF/WAVE stream");
+        }
+
+        ByteBuffer format = null;
+        while (true) {
+            ByteBuffer chunk = readBytes(input, 8);
+            int id = chunk.getInt(0);
+            long size = Integer.toUnsignedLong(chunk.getInt(4));
+            if (id == fourCc("fmt ")) {
+                if (size < 16 || size > MAX_FORMAT_BYTES) {
+                    throw new IOException("Invalid WAVE fmt chunk size: " + size);
+                }
+                format = readBytes(input, (int) size);
+                skip(input, size & 1);
+            } else if (id == fourCc("data")) {
+                if (format == null) {
+                    throw new IOException("WAVE data chunk before fmt chunk");
+                }
+                return fromFormatChunk(format, size == UNSIZED || size == 0 ? UNKNOWN_LENGTH : size);
+            } else {
+                // LIST, fact and the like; chunks are padded to an even size
+                skip(input, size + (size & 1));
+            }
+        }
+    }
+
+    public void write(OutputStream output) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(44).order(ByteOrder.LITTLE_ENDIAN);
+        long riffSize = dataLength == UNKNOWN_LENGTH ? UNSIZED : Math.min(36 + dataLength, UNSIZED);
+        header.putInt(fourCc("RIFF")).putInt((int) riffSize).putInt(fourCc("WAVE"));
+        header.putInt(fourCc("fmt ")).putInt(16)
+                .putShort((short) (floatingPoint ? FORMAT_FLOAT : FORMAT_PCM))
+                .putShort((short) channels)
+                .putInt(sampleRate)
+                .putInt(sampleRate * getBlockAlign())
+                .putShort((short) getBlockAlign())
+                .putShort((short) bitsPerSample);
+        header.putInt(fourCc("data")).putInt((int) (dataLength == UNKNOWN_LENGTH ? UNSIZED : dataLength));
+        output.write(header.array());
+    }
+
+    private static WavHeader fromFormatChunk(ByteBuffer format, long dataLength) throws IOException {
+        int tag = Short.toUnsignedInt(format.getShort(0));
+        if (tag == FORMAT_EXTENSIBLE && format.capacity() >= 26) {
+            // The actual format is the first two bytes of the sub-format GUID
+            tag = Short.toUnsignedInt(format.getShort(24));
+        }
+        int channels = Short.toUnsignedInt(format.getShort(2));
+        int sampleRate = format.getInt(4);
+        int bits = Short.toUnsignedInt(format.getShort(14));
+        boolean floating = tag == FORMAT_FLOAT;
+        if ((tag != FORMAT_PCM && !floating) || channels == 0 || sampleRate <= 0
+                || (floating ? bits != 32 && bits != 64 : bits != 8 && bits != 16 && bits != 24 && bits != 32)) {
+            throw new IOException("Unsupported WAVE format: tag=" + tag + ", bits=" + bits + ", channels=" + channels);
+        }
+        return new WavHeader(sampleRate, channels, bits, floating, dataLength);
+    }
+
+    private static ByteBuffer readBytes(InputStream input, int length) throws IOException {
+        byte[] bytes = input.readNBytes(length);
+        if (bytes.length < length) {
+            throw new EOFException("Truncated WAVE header");
+        }
+        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void skip(InputStream input, long length) throws IOException {
+        input.skipNBytes(length);
+    }
+
+    private static int fourCc(String id) {
+        return id.charAt(0) | id.charAt(1) << 8 | id.charAt(2) << 16 | id.charAt(3) << 24;
+    }
+}
@@ -0,0 +1,29 @@
+package com.audio.converter.util;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+
+  private String code;
+  private String message;
+  private HttpStatus status;
+  private long retryAfterSeconds;
+
+  public ServiceOverloadedException(String code, String message, HttpStatus status, long retryAfterSeconds) {
+    super();
+    this.code = code;
+    this.message = message;
+    this.status = status;
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  @Override
+  public String toString() {
+    return "ServiceOverloadedException{" +
+        "code='" + code + '\'' +
+        ", status=" + status +
+        "} " + super.toString();
+  }
+}
@@ -0,0 +1,316 @@
+package com.audio.converter.controller;
+
+import com.audio.converter.model.*;
+import com.audio.converter.model.entity.Audio;
+import com.audio.converter.model.entity.AudioJob;
+import com.audio.converter.service.AudioJobService;
+import com.audio.converter.service.AudioService;
+import com.audio.converter.util.RequestValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AudioControllerTest {
+
+    @InjectMocks
+    private AudioController audioController;
+
+    @Mock
+    private AudioService audioService;
+
+    @Mock
+    private AudioJobService audioJobService;
+
+    private final Audio audio = Audio.builder()
+            .id("audio-1")
+            .updatedAt(LocalDateTime.of(2025, 1, 1, 12, 0))
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(audioService.find(anyString(), anyString(), anyString())).thenReturn(audio);
+    }
+
+    private static ServletWebRequest webRequest(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/audio");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
+    public AudioRequest request = AudioRequest.builder()
+            .userId("4d9d6b40-e8f4-47ab-a10c-a9d3791ff2b8")
+            .phraseId("4d9d6b40-e8f4-47ab-a10c-a9d3791ff2b9")
+            .file(new File("test.m4a"))
+            .build();
+
+    @Test
+    void testUploadAudio_Success() throws IOException {
+        MultipartFile file = new MockMultipartFile("file", "test.m4a", "audio/mpeg", "test audio content".getBytes());
+
+        ResponseEntity<BaseResponse> response = audioController.uploadAudio(request.getUserId(), request.getPhraseId(), file);
+
+        assertNotNull(response);
+        assertEquals(ResponseCode.SUCCESS.getCode(), response.getBody().getCode());
+        assertEquals(ResponseCode.SUCCESS.getMessage(), response.getBody().getMessage());
+
+        // Format validation happens inside save's conversion pass, not in a separate ffmpeg run
+        verify(audioService, never()).retrieveAudioFormat(any(File.class));
+        verify(audioService, times(1)).save(any(AudioRequest.class));
+    }
+
+    @Test
+    void testUploadAudio_InvalidFormat() throws IOException {
+         MultipartFile file = new MockMultipartFile("file", "test.mp3", "audio/mpeg", "test audio content".getBytes());
+
+        when(audioService.save(any(AudioRequest.class))).thenThrow(
+                new RequestValidationException(ResponseCode.FORMAT_INVALID.getCode(), ResponseCode.FORMAT_INVALID.getMessage()));
+
+        RequestValidationException exception = assertThrows(RequestValidationException.class, () -> {
+            audioController.uploadAudio(request.getUserId(), request.getPhraseId(), file);
+        });
+
+        assertEquals(ResponseCode.FORMAT_INVALID.getCode(), exception.getCode());
+        assertEquals(ResponseCode.FORMAT_INVALID.getMessage(), exception.getMessage());
+
+        verify(audioService, never()).retrieveAudioFormat(any(File.class));
+    }
+
+    @Test
+    void testUploadAudioAsync_ShouldSpoolAndReturnAccepted() throws IOException {
+        MultipartFile file = new MockMultipartFile("file", "test.m4a", "audio/mpeg", "test audio content".getBytes());
+        Path spoolFile = Files.createTempFile("spool_", "_test.m4a");
+        AudioJob job = AudioJob.builder().id("job-1").status(JobStatus.PENDING).build();
+        when(audioJobService.createSpoolFile("test.m4a")).thenReturn(spoolFile);
+        when(audioJobService.submit(request.getUserId(), request.getPhraseId(), spoolFile)).thenReturn(job);
+
+        try {
+            ResponseEntity<BaseResponse> response = audioController.uploadAudioAsync(request.getUserId(), request.getPhraseId(), file);
+
+            assertEquals(202, response.getStatusCode().value());
+            assertEquals(ResponseCode.ACCEPTED.getCode(), response.getBody().getCode());
+            assertSame(job, response.getBody().getData());
+            assertEquals("test audio content", Files.readString(spoolFile));
+            verify(audioService, never()).save(any(AudioRequest.class));
+        } finally {
+            Files.deleteIfExists(spoolFile);
+        }
+    }
+
+    @Test
+    void testUploadAudioBatch_ShouldReturnPerItemResults() throws IOException {
+        ReflectionTestUtils.setField(audioController, "batchMaxItems", 50);
+        List<MultipartFile> files = List.of(
+                new MockMultipartFile("files", "a.m4a", "audio/mpeg", "a".getBytes()),
+                new MockMultipartFile("files", "b.m4a", "audio/mpeg", "b".getBytes()));
+        List<BatchItemResult> results = List.of(
+                BatchItemResult.builder().phraseId("p1").code(ResponseCode.SUCCESS.getCode()).audioId("a1").build(),
+                BatchItemResult.builder().phraseId("p2").code(ResponseCode.PHRASE_NOT_EXIST.getCode()).build());
+        when(audioService.saveBatch(eq(request.getUserId()), anyList())).thenReturn(results);
+
+        ResponseEntity<BaseResponse> response = audioController.uploadAudioBatch(request.getUserId(), List.of("p1", "p2"), files);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertSame(results, response.getBody().getData());
+        verify(audioService).saveBatch(eq(request.getUserId()), argThat(requests -> requests.size() == 2
+                && requests.get(1).getPhraseId().equals("p2") && !requests.get(1).getFile().exists()));
+    }
+
+    @Test
+    void testUploadAudioBatch_TooManyItems_ShouldThrow() {
+        ReflectionTestUtils.setField(audioController, "batchMaxItems", 1);
+        List<MultipartFile> files = List.of(
+                new MockMultipartFile("files", "a.m4a", "audio/mpeg", "a".getBytes()),
+                new MockMultipartFile("files", "b.m4a", "audio/mpeg", "b".getBytes()));
+
+        RequestValidationException exception = assertThrows(RequestValidationException.class,
+                () -> audioController.uploadAudioBatch(request.getUserId(), List.of("p1", "p2"), files));
+
+        assertEquals(ResponseCode.BIND_ERROR.getCode(), exception.getCode());
+        verify(audioService, never()).saveBatch(anyString(), anyList());
+    }
+
+    @Test
+    void testGetAudio_Success() throws IOException {
+         String audioFormat = "wav";
+        Resource mockResource = mock(Resource.class);
+
+        when(audioService.get(audio, audioFormat, null)).thenReturn(mockResource);
+
+        ResponseEntity<?> response = audioController.getAudio(request.getUserId(), request.getPhraseId(), audioFormat, null, null, webRequest(null));
+
+        assertNotNull(response);
+        assertEquals(MediaType.APPLICATION_OCTET_STREAM, response.getHeaders().getContentType());
+        assertTrue(response.getHeaders().containsKey(HttpHeaders.CONTENT_DISPOSITION));
+        assertEquals(mockResource, response.getBody());
+        assertEquals("\"audio-1-" + Long.toHexString(response.getHeaders().getLastModified()) + "-wav\"", response.getHeaders().getETag());
+        assertTrue(response.getHeaders().getCacheControl().contains("max-age="));
+
+        verify(audioService, times(1)).get(audio, audioFormat, null);
+    }
+
+    @Test
+    void testGetAudio_SendfileSupported_ShouldHandLocalFileToTomcat() throws IOException {
+        File stored = Files.writeString(Files.createTempFile("stored_", ".wav"), "stored audio").toFile();
+        when(audioService.localFile(audio, "wav", null)).thenReturn(Optional.of(stored));
+        ServletWebRequest webRequest = webRequest(null);
+        webRequest.getRequest().setAttribute(AudioController.SENDFILE_SUPPORT, Boolean.TRUE);
+
+        try {
+            ResponseEntity<?> response = audioController.getAudio(request.getUserId(), request.getPhraseId(), "wav", null, null, webRequest);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertNull(response.getBody());
+            assertEquals(12, response.getHeaders().getContentLength());
+            assertEquals(stored.getAbsolutePath(), webRequest.getRequest().getAttribute(AudioController.SENDFILE_FILENAME));
+            assertEquals(0L, webRequest.getRequest().getAttribute(AudioController.SENDFILE_START));
+            assertEquals(12L, webRequest.getRequest().getAttribute(AudioController.SENDFILE_END));
+        } finally {
+            stored.delete();
+        }
+        verify(audioService, never()).get(any(Audio.class), anyString(), any());
+        verify(audioService, never()).stream(any(Audio.class), anyString(), any());
+    }
+
+    @Test
+    void testGetAudio_SendfileUnsupported_ShouldNotLookForLocalFile() {
+        when(audioService.get(audio, "wav", null)).thenReturn(mock(Resource.class));
+
+        audioController.getAudio(request.getUserId(), request.getPhraseId(), "wav", null, null, webRequest(null));
+
+        verify(audioService, never()).localFile(any(Audio.class), anyString(), any());
+    }
+
+    @Test
+    void testGetAudio_IfNoneMatchCurrent_ShouldAnswerNotModifiedWithoutFetching() {
+        ResponseEntity<?> first = audioController.getAudio(request.getUserId(), request.getPhraseId(), "mp3", null, null, webRequest(null));
+
+        ResponseEntity<?> response = audioController.getAudio(request.getUserId(), request.getPhraseId(), "mp3", null, null,
+                webRequest(first.getHeaders().getETag()));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        verify(audioService, times(1)).get(audio, "mp3", null);
+    }
+
+    @Test
+    void testGetAudio_RedirectUrl_ShouldRedirectWithoutFetching() {
+        URI signed = URI.create("https://storage.googleapis.com/bucket/converted-audio/a.wav?X-Goog-Signature=abc");
+        when(audioService.redirectUrl(audio, "wav", null)).thenReturn(Optional.of(signed));
+
+        ResponseEntity<?> response = audioController.getAudio(request.getUserId(), request.getPhraseId(), "wav", null, null, webRequest(null));
+
+        assertEquals(HttpStatus.FOUND, response.getStatusCode());
+        assertEquals(signed, response.getHeaders().getLocation());
+        assertEquals("no-store", response.getHeaders().getCacheControl());
+        verify(audioService, never()).get(any(Audio.class), anyString(), any());
+        verify(audioService, never()).stream(any(Audio.class), anyString(), any());
+    }
+
+    @Test
+    void testGetAudio_IfNoneMatchOtherFormat_ShouldSendBody() {
+        Resource resource = mock(Resource.class);
+        when(audioService.get(audio, "mp3", null)).thenReturn(resource);
+        String wavTag = audioController.getAudio(request.getUserId(), request.getPhraseId(), "wav", null, null, webRequest(null))
+                .getHeaders().getETag();
+
+        ResponseEntity<?> response = audioController.getAudio(request.getUserId(), request.getPhraseId(), "mp3", null, null, webRequest(wavTag));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(resource, response.getBody());
+    }
+
+    @Test
+    void testGetAudio_Profile_ShouldPassProfileAndTagItsOwnVersion() {
+        Resource resource = mock(Resource.class);
+        when(audioService.get(audio, "m4a", "voice-64k")).thenReturn(resource);
+        String defaultTag = audioController.getAudio(request.getUserId(), request.getPhraseId(), "m4a", null, null, webRequest(null))
+                .getHeaders().getETag();
+
+        ResponseEntity<?> response = audioController.getAudio(request.getUserId(), request.getPhraseId(), "m4a", "voice-64k", null,
+                webRequest(defaultTag));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(resource, response.getBody());
+        assertTrue(response.getHeaders().getETag().endsWith("-m4a-voice-64k\""));
+    }
+
+    @Test
+    void testGetAudio_InvalidFormat() {
+        String audioFormat = "invalidFormat";
+
+        RequestValidationException exception = assertThrows(RequestValidationException.class, () -> {
+            audioController.getAudio(request.getUserId(), request.getPhraseId(), audioFormat, null, null, webRequest(null));
+        });
+
+        assertEquals(ResponseCode.FORMAT_INVALID.getCode(), exception.getCode());
+        assertEquals(ResponseCode.FORMAT_INVALID.getMessage(), exception.getMessage());
+
+        verify(audioService, never()).get(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void testGetUserArchive_ShouldReturnZipAttachment() {
+        StreamingResponseBody body = output -> output.write(new byte[10]);
+        when(audioService.archiveByUser(request.getUserId(), "mp3")).thenReturn(body);
+
+        ResponseEntity<StreamingResponseBody> response = audioController.getUserArchive(request.getUserId(), "mp3");
+
+        assertEquals(body, response.getBody());
+        assertEquals(MediaType.parseMediaType("application/zip"), response.getHeaders().getContentType());
+        assertTrue(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION).contains(request.getUserId() + "_mp3.zip"));
+    }
+
+    @Test
+    void testGetAudio_StreamingEnabled_ShouldReturnStreamingBody() {
+        StreamingResponseBody body = output -> output.write(new byte[10]);
+        ReflectionTestUtils.setField(audioController, "streamingEnabled", true);
+        when(audioService.stream(audio, "mp3", null)).thenReturn(body);
+
+        ResponseEntity<?> response = audioController.getAudio(request.getUserId(), request.getPhraseId(), "mp3", null, null, webRequest(null));
+
+        assertEquals(body, response.getBody());
+        verify(audioService, never()).get(any(Audio.class), anyString());
+    }
+
+    @Test
+    void testGetAudio_StreamingEnabledWithRange_ShouldReturnSeekableResource() {
+        Resource resource = mock(Resource.class);
+        ReflectionTestUtils.setField(audioController, "streamingEnabled", true);
+        when(audioService.get(audio, "wav", null)).thenReturn(resource);
+
+        ResponseEntity<?> response = audioController.getAudio(request.getUserId(), request.getPhraseId(), "wav", null, "bytes=100-199", webRequest(null));
+
+        assertEquals(resource, response.getBody());
+        verify(audioService, never()).stream(any(Audio.class), anyString());
+    }
+}
@@ -4,12 +4,14 @@ import com.audio.converter.model.BaseResponse;
 import com.audio.converter.model.ResponseCode;
 import com.audio.converter.util.BusinessLogicException;
 import com.audio.converter.util.RequestValidationException;
+import com.audio.converter.util.ServiceOverloadedException;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MaxUploadSizeExceededException;
@@ -77,6 +79,19 @@ class ErrorControllerTest {
         assertEquals(errorMessage, response.getBody().getMessage());
     }
 
+    @Test
+    void testHandleServiceOverloadedException() {
+        ServiceOverloadedException ex = new ServiceOverloadedException(ResponseCode.TRANSCODER_BUSY.getCode(),
+                ResponseCode.TRANSCODER_BUSY.getMessage(), HttpStatus.TOO_MANY_REQUESTS, 5);
+
+        ResponseEntity<BaseResponse> response = errorController.handleServiceOverloadedException(ex);
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("5", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(ResponseCode.TRANSCODER_BUSY.getCode(), response.getBody().getCode());
+    }
+
     @Test
     void testHandleRequestValidationException() {
         String errorCode = "VALIDATION_ERROR";
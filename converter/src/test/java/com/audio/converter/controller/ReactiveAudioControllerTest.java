@@ -0,0 +1,221 @@
+package com.audio.converter.controller;
+
+import com.audio.converter.model.AudioRequest;
+import com.audio.converter.model.BatchItemResult;
+import com.audio.converter.model.ResponseCode;
+import com.audio.converter.model.entity.Audio;
+import com.audio.converter.service.AudioJobService;
+import com.audio.converter.service.AudioService;
+import com.audio.converter.service.RenditionCache;
+import com.audio.converter.util.RequestValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.config.EnableWebFlux;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ReactiveAudioControllerTest {
+
+    @InjectMocks
+    private ReactiveAudioController reactiveAudioController;
+
+    @Mock
+    private AudioService audioService;
+
+    @Mock
+    private AudioJobService audioJobService;
+
+    @Mock
+    private RenditionCache renditionCache;
+
+    private WebTestClient client;
+
+    private final Audio audio = Audio.builder()
+            .id("audio-1")
+            .updatedAt(LocalDateTime.of(2025, 1, 1, 12, 0))
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(audioService.find("user-1", "phrase-1", "mp3")).thenReturn(audio);
+        when(audioService.find("user-1", "phrase-1", "wav")).thenReturn(audio);
+        // Registered as ready-made singletons so the context does not autowire the mocks or the controller again
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.register(WebFluxConfig.class);
+        context.getBeanFactory().registerSingleton("reactiveAudioController", reactiveAudioController);
+        context.getBeanFactory().registerSingleton("errorController", new ErrorController());
+        context.refresh();
+        client = WebTestClient.bindToApplicationContext(context).build();
+    }
+
+    @Configuration
+    @EnableWebFlux
+    static class WebFluxConfig {
+    }
+
+    @Test
+    void testUploadAudio_ShouldSpoolPartsAndSave() {
+        AtomicReference<String> received = new AtomicReference<>();
+        AtomicReference<File> spooled = new AtomicReference<>();
+        when(audioService.save(any(AudioRequest.class))).thenAnswer(invocation -> {
+            AudioRequest request = invocation.getArgument(0);
+            spooled.set(request.getFile());
+            received.set(Files.readString(request.getFile().toPath()));
+            return true;
+        });
+        MultipartBodyBuilder body = new MultipartBodyBuilder();
+        body.part("file", new ByteArrayResource("test audio content".getBytes()) {
+            @Override
+            public String getFilename() {
+                return "test.m4a";
+            }
+        });
+
+        client.post().uri("/audio/user/user-1/phrase/phrase-1")
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(BodyInserters.fromMultipartData(body.build()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.code").isEqualTo(ResponseCode.SUCCESS.getCode());
+
+        assertEquals("test audio content", received.get());
+        assertFalse(spooled.get().exists());
+    }
+
+    @Test
+    void testUploadAudioBatch_ShouldSpoolEveryPartAndReturnPerItemResults() {
+        ReflectionTestUtils.setField(reactiveAudioController, "batchMaxItems", 50);
+        List<String> received = new ArrayList<>();
+        List<File> spooled = new ArrayList<>();
+        when(audioService.saveBatch(eq("user-1"), anyList())).thenAnswer(invocation -> {
+            for (AudioRequest request : invocation.<List<AudioRequest>>getArgument(1)) {
+                spooled.add(request.getFile());
+                received.add(request.getPhraseId() + "=" + Files.readString(request.getFile().toPath()));
+                assertNotNull(request.getSourceHash());
+            }
+            return List.of(
+                    BatchItemResult.builder().phraseId("p1").code(ResponseCode.SUCCESS.getCode()).audioId("a1").build(),
+                    BatchItemResult.builder().phraseId("p2").code(ResponseCode.PHRASE_NOT_EXIST.getCode()).build());
+        });
+        MultipartBodyBuilder body = new MultipartBodyBuilder();
+        body.part("phraseIds", "p1");
+        body.part("phraseIds", "p2");
+        body.part("files", new ByteArrayResource("first".getBytes())).filename("first.m4a");
+        body.part("files", new ByteArrayResource("second".getBytes())).filename("second.wav");
+
+        client.post().uri("/audio/user/user-1/phrases")
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(BodyInserters.fromMultipartData(body.build()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data[0].audioId").isEqualTo("a1")
+                .jsonPath("$.data[1].code").isEqualTo(ResponseCode.PHRASE_NOT_EXIST.getCode());
+
+        assertEquals(List.of("p1=first", "p2=second"), received);
+        assertTrue(spooled.stream().noneMatch(File::exists));
+    }
+
+    @Test
+    void testUploadAudioBatch_MissingPhraseId_ShouldRejectWithoutSaving() {
+        ReflectionTestUtils.setField(reactiveAudioController, "batchMaxItems", 50);
+        MultipartBodyBuilder body = new MultipartBodyBuilder();
+        body.part("phraseIds", "p1");
+        body.part("files", new ByteArrayResource("first".getBytes())).filename("first.m4a");
+        body.part("files", new ByteArrayResource("second".getBytes())).filename("second.wav");
+
+        client.post().uri("/audio/user/user-1/phrases")
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(BodyInserters.fromMultipartData(body.build()))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.code").isEqualTo(ResponseCode.BIND_ERROR.getCode());
+
+        verify(audioService, never()).saveBatch(anyString(), anyList());
+    }
+
+    @Test
+    void testGetAudio_ShouldStreamServiceOutput() {
+        StreamingResponseBody stream = output -> {
+            for (int i = 0; i < 64; i++) {
+                output.write(new byte[1024]);
+            }
+        };
+        when(audioService.stream(audio, "mp3", null)).thenReturn(stream);
+
+        byte[] content = client.get().uri("/audio/user/user-1/phrase/phrase-1/mp3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueMatches(HttpHeaders.CONTENT_DISPOSITION, ".*user-1_phrase-1\\.mp3.*")
+                .expectHeader().valueMatches(HttpHeaders.ETAG, "\"audio-1-.*-mp3\"")
+                .expectBody(byte[].class).returnResult().getResponseBody();
+
+        assertEquals(64 * 1024, content.length);
+        verify(audioService, never()).get(any(Audio.class), any());
+    }
+
+    @Test
+    void testGetAudio_IfNoneMatchCurrent_ShouldAnswerNotModifiedWithoutStreaming() {
+        when(audioService.stream(audio, "mp3", null)).thenReturn(output -> output.write(1));
+        String etag = client.get().uri("/audio/user/user-1/phrase/phrase-1/mp3")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(byte[].class).getResponseHeaders().getETag();
+
+        client.get().uri("/audio/user/user-1/phrase/phrase-1/mp3")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag);
+
+        verify(audioService, times(1)).stream(audio, "mp3", null);
+    }
+
+    @Test
+    void testGetAudio_ValidationFailure_ShouldMapToBadRequest() {
+        when(audioService.find("user-1", "phrase-1", "mp3")).thenThrow(
+                new RequestValidationException(ResponseCode.AUDIO_NOT_EXIST.getCode(), ResponseCode.AUDIO_NOT_EXIST.getMessage()));
+
+        client.get().uri("/audio/user/user-1/phrase/phrase-1/mp3")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.code").isEqualTo(ResponseCode.AUDIO_NOT_EXIST.getCode());
+    }
+
+    @Test
+    void testGetAudio_Range_ShouldServePartialResource() {
+        when(audioService.get(audio, "wav", null)).thenReturn(new ByteArrayResource("0123456789".getBytes()));
+
+        client.get().uri("/audio/user/user-1/phrase/phrase-1/wav")
+                .header(HttpHeaders.RANGE, "bytes=2-5")
+                .exchange()
+                .expectStatus().isEqualTo(206)
+                .expectBody(String.class).isEqualTo("2345");
+    }
+}
@@ -0,0 +1,90 @@
+package com.audio.converter.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SourceFormatTest {
+
+    private static Optional<SourceFormat> detect(byte[] head) {
+        return SourceFormat.detect(head, head.length);
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+
+    private File resource(String name) throws URISyntaxException {
+        return new File(getClass().getClassLoader().getResource(name).toURI());
+    }
+
+    @Test
+    void testDetect_SampleFiles_ShouldRecogniseEach() throws Exception {
+        assertEquals(Optional.of(SourceFormat.M4A), SourceFormat.detect(resource("test-audio.m4a")));
+        assertEquals(Optional.of(SourceFormat.WAV), SourceFormat.detect(resource("test-audio.wav")));
+        // Starts with an ID3v2 tag
+        assertEquals(Optional.of(SourceFormat.MP3), SourceFormat.detect(resource("test-audio.mp3")));
+    }
+
+    @Test
+    void testDetect_ContainerSignatures_ShouldRecogniseEach() {
+        assertEquals(Optional.of(SourceFormat.FLAC), detect("fLaC\0\0\0\"".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(Optional.of(SourceFormat.OGG), detect("OggS\0\2\0\0\0\0\0\0\0\0OpusHead".getBytes(StandardCharsets.US_ASCII)));
+        byte[] webm = bytes(0x1A, 0x45, 0xDF, 0xA3, 0x9F, 0x42, 0x86, 0x81, 0x01, 0x42, 0x82, 0x84, 'w', 'e', 'b', 'm');
+        assertEquals(Optional.of(SourceFormat.WEBM), detect(webm));
+        // Matroska with another doc type is not WebM
+        byte[] matroska = bytes(0x1A, 0x45, 0xDF, 0xA3, 0x9F, 0x42, 0x82, 0x88, 'm', 'a', 't', 'r', 'o', 's', 'k', 'a');
+        assertEquals(Optional.empty(), detect(matroska));
+    }
+
+    @Test
+    void testDetect_MpegFrames_ShouldTellMp3FromAdts() {
+        // MPEG-1 layer III, 128 kb/s, 44.1 kHz
+        assertEquals(Optional.of(SourceFormat.MP3), detect(bytes(0xFF, 0xFB, 0x90, 0x64)));
+        // ADTS AAC has the same sync with layer bits 00
+        assertEquals(Optional.empty(), detect(bytes(0xFF, 0xF1, 0x50, 0x80)));
+    }
+
+    @Test
+    void testDetect_Id3Tag_ShouldLookPastIt() {
+        byte[] tagged = new byte[10 + 4 + 8];
+        System.arraycopy("ID3".getBytes(StandardCharsets.US_ASCII), 0, tagged, 0, 3);
+        tagged[3] = 4;
+        tagged[9] = 4;
+        System.arraycopy("fLaC".getBytes(StandardCharsets.US_ASCII), 0, tagged, 14, 4);
+        assertEquals(Optional.of(SourceFormat.FLAC), detect(tagged));
+
+        // A tag larger than the sniffed head, e.g. with cover art
+        byte[] large = bytes('I', 'D', '3', 4, 0, 0, 0, 1, 0, 0);
+        assertEquals(Optional.of(SourceFormat.MP3), detect(large));
+    }
+
+    @Test
+    void testDetect_Unknown_ShouldBeEmpty() {
+        assertEquals(Optional.empty(), detect("This is a text file".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(Optional.empty(), detect(new byte[0]));
+    }
+
+    @Test
+    void testAccepts_ShouldMatchContainerAndCodec() {
+        AudioMetadata m4a = AudioMetadata.builder().container("mov,mp4,m4a,3gp,3g2,mj2").codec("aac").build();
+        AudioMetadata opus = AudioMetadata.builder().container("ogg").codec("opus").build();
+        AudioMetadata pcm = AudioMetadata.builder().container("wav").codec("pcm_s24le").build();
+
+        assertTrue(SourceFormat.M4A.accepts(m4a));
+        assertTrue(SourceFormat.OGG.accepts(opus));
+        assertTrue(SourceFormat.WAV.accepts(pcm));
+        // The demuxer has the last word: an M4A signature over something else is still rejected
+        assertFalse(SourceFormat.M4A.accepts(opus));
+        assertFalse(SourceFormat.M4A.accepts(AudioMetadata.builder().container("mov,mp4,m4a").codec("alac").build()));
+    }
+}
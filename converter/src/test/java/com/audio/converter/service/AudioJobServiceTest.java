@@ -0,0 +1,196 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.AudioRequest;
+import com.audio.converter.model.JobStatus;
+import com.audio.converter.model.ResponseCode;
+import com.audio.converter.model.entity.Audio;
+import com.audio.converter.model.entity.AudioJob;
+import com.audio.converter.repository.AudioJobRepository;
+import com.audio.converter.util.RequestValidationException;
+import com.audio.converter.util.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AudioJobServiceTest {
+
+    @InjectMocks
+    private AudioJobService audioJobService;
+
+    @Mock
+    private AudioJobRepository audioJobRepository;
+
+    @Mock
+    private AudioService audioService;
+
+    @TempDir
+    Path spoolDirectory;
+
+    private AudioJob job;
+    private Path spoolFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.initMocks(this);
+        ReflectionTestUtils.setField(audioJobService, "spoolDir", spoolDirectory.toString());
+        ReflectionTestUtils.setField(audioJobService, "workers", 1);
+        audioJobService.init();
+
+        spoolFile = audioJobService.createSpoolFile("test.m4a");
+        // An M4A signature, enough for the format check at submit
+        Files.write(spoolFile, new byte[]{0, 0, 0, 16, 'f', 't', 'y', 'p', 'M', '4', 'A', ' ', 0, 0, 0, 0});
+        job = AudioJob.builder()
+                .id("job-1")
+                .userId("user-1")
+                .phraseId("phrase-1")
+                .status(JobStatus.PENDING)
+                .sourcePath(spoolFile.toString())
+                .build();
+        when(audioJobRepository.findById("job-1")).thenReturn(Optional.of(job));
+        when(audioJobRepository.save(any(AudioJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        audioJobService.shutdown();
+    }
+
+    @Test
+    void testProcess_Success_ShouldMarkSucceededAndRemoveSpoolFile() {
+        audioJobService.process("job-1");
+
+        assertEquals(JobStatus.SUCCEEDED, job.getStatus());
+        assertNull(job.getErrorCode());
+        assertFalse(Files.exists(spoolFile));
+        verify(audioService, times(1)).save(any(AudioRequest.class), any());
+    }
+
+    @Test
+    void testProcess_ValidationFailure_ShouldRecordErrorCode() {
+        when(audioService.save(any(AudioRequest.class), any())).thenThrow(
+                new RequestValidationException(ResponseCode.FORMAT_INVALID.getCode(), ResponseCode.FORMAT_INVALID.getMessage()));
+
+        audioJobService.process("job-1");
+
+        assertEquals(JobStatus.FAILED, job.getStatus());
+        assertEquals(ResponseCode.FORMAT_INVALID.getCode(), job.getErrorCode());
+        assertFalse(Files.exists(spoolFile));
+    }
+
+    @Test
+    void testProcess_TranscoderBusy_ShouldStayPendingAndKeepSpoolFile() {
+        when(audioService.save(any(AudioRequest.class), any())).thenThrow(new ServiceOverloadedException(
+                ResponseCode.TRANSCODER_BUSY.getCode(), ResponseCode.TRANSCODER_BUSY.getMessage(), HttpStatus.TOO_MANY_REQUESTS, 60));
+
+        audioJobService.process("job-1");
+
+        assertEquals(JobStatus.PENDING, job.getStatus());
+        assertTrue(Files.exists(spoolFile));
+    }
+
+    @Test
+    void testResumeUnfinishedJobs_SpoolFileMissing_ShouldFail() throws Exception {
+        Files.delete(spoolFile);
+        job.setStatus(JobStatus.RUNNING);
+        when(audioJobRepository.findByStatusIn(any())).thenReturn(List.of(job));
+
+        audioJobService.resumeUnfinishedJobs();
+
+        verify(audioJobRepository, timeout(2000)).save(argThat(saved -> saved.getStatus() == JobStatus.FAILED));
+        assertEquals(ResponseCode.UPLOAD_FAILED.getCode(), job.getErrorCode());
+        verify(audioService, never()).save(any(AudioRequest.class), any());
+    }
+
+    @Test
+    void testSubmit_PhraseMissing_ShouldRefuseAndRemoveSpoolFile() {
+        doThrow(new RequestValidationException(ResponseCode.PHRASE_NOT_EXIST.getCode(), ResponseCode.PHRASE_NOT_EXIST.getMessage()))
+                .when(audioService).validateUpload("user-1", "phrase-1");
+
+        RequestValidationException exception = assertThrows(RequestValidationException.class,
+                () -> audioJobService.submit("user-1", "phrase-1", spoolFile));
+
+        assertEquals(ResponseCode.PHRASE_NOT_EXIST.getCode(), exception.getCode());
+        assertFalse(Files.exists(spoolFile));
+        verify(audioJobRepository, never()).save(any(AudioJob.class));
+    }
+
+    @Test
+    void testSubmit_NotAudio_ShouldRefuseAndRemoveSpoolFile() throws IOException {
+        Files.writeString(spoolFile, "not audio at all");
+
+        RequestValidationException exception = assertThrows(RequestValidationException.class,
+                () -> audioJobService.submit("user-1", "phrase-1", spoolFile));
+
+        assertEquals(ResponseCode.FORMAT_INVALID.getCode(), exception.getCode());
+        assertFalse(Files.exists(spoolFile));
+        verify(audioService, never()).validateUpload(any(), any());
+        verify(audioJobRepository, never()).save(any(AudioJob.class));
+    }
+
+    @Test
+    void testProcess_Success_ShouldRecordItsAudioWhenSaving() {
+        List<String> written = new ArrayList<>();
+        when(audioJobRepository.save(any(AudioJob.class))).thenAnswer(invocation -> {
+            AudioJob saved = invocation.getArgument(0);
+            written.add(saved.getStatus() + ":" + saved.getAudioId());
+            return saved;
+        });
+        when(audioService.save(any(AudioRequest.class), any())).thenAnswer(invocation -> {
+            invocation.<Consumer<Audio>>getArgument(1).accept(Audio.builder().id("audio-1").build());
+            return true;
+        });
+
+        audioJobService.process("job-1");
+
+        // The id is written from the callback, inside the transaction that saves the audio, before the job finishes
+        assertEquals(List.of("RUNNING:null", "RUNNING:audio-1", "SUCCEEDED:audio-1"), written);
+    }
+
+    @Test
+    void testProcess_ResumedAfterItsAudioWasSaved_ShouldSucceedWithoutSaving() {
+        job.setStatus(JobStatus.RUNNING);
+        job.setAudioId("audio-1");
+
+        audioJobService.process("job-1");
+
+        assertEquals(JobStatus.SUCCEEDED, job.getStatus());
+        assertNull(job.getErrorCode());
+        assertFalse(Files.exists(spoolFile));
+        verify(audioService, never()).save(any(AudioRequest.class), any());
+    }
+
+    @Test
+    void testProcess_ResumedWhileAnotherUploadSaved_ShouldFailAsDuplicate() {
+        // Running when the service stopped, but no audio of its own recorded: the one in place came from elsewhere
+        job.setStatus(JobStatus.RUNNING);
+        when(audioService.save(any(AudioRequest.class), any())).thenThrow(alreadyExists());
+
+        audioJobService.process("job-1");
+
+        assertEquals(JobStatus.FAILED, job.getStatus());
+        assertEquals(ResponseCode.AUDIO_ALREADY_EXIST.getCode(), job.getErrorCode());
+        assertNull(job.getAudioId());
+    }
+
+    private static RequestValidationException alreadyExists() {
+        return new RequestValidationException(ResponseCode.AUDIO_ALREADY_EXIST.getCode(), ResponseCode.AUDIO_ALREADY_EXIST.getMessage());
+    }
+}
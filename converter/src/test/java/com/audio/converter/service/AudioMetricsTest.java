@@ -0,0 +1,75 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.Format;
+import com.audio.converter.model.ResponseCode;
+import com.audio.converter.model.SourceFormat;
+import com.audio.converter.util.BusinessLogicException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AudioMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private AudioMetrics audioMetrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        audioMetrics = new AudioMetrics(registry);
+    }
+
+    @Test
+    void testTime_Success_ShouldRecordUnderStageFormatAndOutcome() {
+        String result = audioMetrics.time(AudioMetrics.VALIDATE, Format.MP3, () -> "ok");
+
+        assertEquals("ok", result);
+        Timer timer = registry.get("audio.stage.duration")
+                .tags("stage", AudioMetrics.VALIDATE, "format", "mp3", "outcome", "SUCCESS")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void testTimeTask_Failure_ShouldTagResponseCodeAndRethrow() {
+        assertThrows(BusinessLogicException.class, () -> audioMetrics.timeTask(AudioMetrics.TRANSCODE, Format.WAV, () -> {
+            throw new BusinessLogicException(ResponseCode.CONVERSION_FAILED.getCode(), "FFmpeg conversion failed.");
+        }));
+        assertThrows(IOException.class, () -> audioMetrics.timeTask(AudioMetrics.STORAGE_UPLOAD, Format.WAV, () -> {
+            throw new IOException("connection reset");
+        }));
+
+        assertEquals(1, registry.get("audio.stage.duration")
+                .tags("stage", AudioMetrics.TRANSCODE, "outcome", ResponseCode.CONVERSION_FAILED.getCode())
+                .timer().count());
+        assertEquals(1, registry.get("audio.stage.duration")
+                .tags("stage", AudioMetrics.STORAGE_UPLOAD, "outcome", "IOException")
+                .timer().count());
+    }
+
+    @Test
+    void testBytes_ShouldAccumulatePerDirectionAndFormat() {
+        audioMetrics.bytesIn(SourceFormat.OGG, 100);
+        audioMetrics.bytesOut(Format.MP3, 40);
+        audioMetrics.bytesOut(Format.MP3, 60);
+        audioMetrics.bytesOut(Format.MP3, -1);
+
+        assertEquals(100, registry.get("audio.bytes").tags("direction", "in", "format", "ogg").counter().count());
+        assertEquals(100, registry.get("audio.bytes").tags("direction", "out", "format", "mp3").counter().count());
+    }
+
+    @Test
+    void testTime_Batch_ShouldTagSharedSourceFormatOrMixed() {
+        audioMetrics.time(AudioMetrics.VALIDATE, List.of(SourceFormat.FLAC, SourceFormat.FLAC), () -> null);
+        audioMetrics.time(AudioMetrics.VALIDATE, List.of(SourceFormat.FLAC, SourceFormat.MP3), () -> null);
+
+        assertEquals(1, registry.get("audio.stage.duration").tags("stage", AudioMetrics.VALIDATE, "format", "flac").timer().count());
+        assertEquals(1, registry.get("audio.stage.duration").tags("stage", AudioMetrics.VALIDATE, "format", "mixed").timer().count());
+    }
+}
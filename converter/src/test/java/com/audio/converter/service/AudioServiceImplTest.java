@@ -0,0 +1,764 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.AudioLookup;
+import com.audio.converter.model.AudioMetadata;
+import com.audio.converter.model.AudioRequest;
+import com.audio.converter.model.BatchItemResult;
+import com.audio.converter.model.Format;
+import com.audio.converter.model.ResponseCode;
+import com.audio.converter.model.entity.Audio;
+import com.audio.converter.model.entity.AudioRendition;
+import com.audio.converter.model.entity.Phrase;
+import com.audio.converter.model.entity.User;
+import com.audio.converter.repository.AudioRenditionRepository;
+import com.audio.converter.repository.AudioRepository;
+import com.audio.converter.repository.PhraseRepository;
+import com.audio.converter.repository.UserRepository;
+import com.audio.converter.util.BusinessLogicException;
+import com.audio.converter.util.RequestValidationException;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AudioServiceImplTest {
+
+    private static final String FFMPEG = "/usr/local/bin/ffmpeg";
+
+    @InjectMocks
+    private AudioServiceImpl audioService;
+
+    @Mock
+    private AudioRepository audioRepository;
+
+    @Mock
+    private AudioRenditionRepository audioRenditionRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PhraseRepository phraseRepository;
+
+    @Mock
+    private ExistenceCache existenceCache;
+
+    @Mock
+    private BlobStore blobStore;
+
+    @Mock
+    private ContentStore contentStore;
+
+    @Mock
+    private RenditionCache renditionCache;
+
+    @Spy
+    private AudioMetrics audioMetrics = new AudioMetrics(new SimpleMeterRegistry());
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Before
+    public void setUp() throws NoSuchFieldException, IllegalAccessException {
+        MockitoAnnotations.initMocks(this);
+        // Nothing is cached unless a test says so; a bare mock would answer false, i.e. "known missing"
+        lenient().when(existenceCache.user(anyString())).thenReturn(null);
+        lenient().when(existenceCache.phrase(anyString())).thenReturn(null);
+        // Inject mocked storage object
+        ProcessTranscoder transcoder = new ProcessTranscoder();
+        java.lang.reflect.Field ffmpegPath = ProcessTranscoder.class.getDeclaredField("ffmpegPath");
+        ffmpegPath.setAccessible(true);
+        ffmpegPath.set(transcoder, FFMPEG);
+
+        java.lang.reflect.Field transcoderField = AudioServiceImpl.class.getDeclaredField("transcoder");
+        transcoderField.setAccessible(true);
+        transcoderField.set(audioService, transcoder);
+
+        TranscodingExecutor transcodingExecutor = new TranscodingExecutor();
+        java.lang.reflect.Field queueCapacity = TranscodingExecutor.class.getDeclaredField("queueCapacity");
+        queueCapacity.setAccessible(true);
+        queueCapacity.set(transcodingExecutor, 8);
+        java.lang.reflect.Field queueTimeout = TranscodingExecutor.class.getDeclaredField("queueTimeoutMillis");
+        queueTimeout.setAccessible(true);
+        queueTimeout.set(transcodingExecutor, 10_000L);
+        transcodingExecutor.init();
+
+        java.lang.reflect.Field executorField = AudioServiceImpl.class.getDeclaredField("transcodingExecutor");
+        executorField.setAccessible(true);
+        executorField.set(audioService, transcodingExecutor);
+
+        EncodingProfiles encodingProfiles = new EncodingProfiles();
+        ReflectionTestUtils.setField(encodingProfiles, "profiles", "voice-64k:64000:22050:1");
+        encodingProfiles.init();
+        ReflectionTestUtils.setField(audioService, "encodingProfiles", encodingProfiles);
+        ReflectionTestUtils.setField(audioService, "masterFormat", "wav");
+        ReflectionTestUtils.setField(audioService, "transactionTemplate", new TransactionTemplate(transactionManager));
+
+    }
+
+    /** Skips a test that really converts when ffmpeg is not installed at {@link #FFMPEG}. */
+    private static void assumeFfmpeg() {
+        Assume.assumeTrue("ffmpeg not installed at " + FFMPEG, new File(FFMPEG).canExecute());
+    }
+
+    private User user = User.builder()
+            .id("4d9d6b40-e8f4-47ab-a10c-a9d3791ff2b8")
+            .name("pumpkin")
+            .build();
+
+    public Phrase phrase = Phrase.builder()
+            .id("4d9d6b40-e8f4-47ab-a10c-a9d3791ff2b9")
+            .text("pumpkin")
+            .build();
+    public AudioRequest request = AudioRequest.builder()
+            .userId("4d9d6b40-e8f4-47ab-a10c-a9d3791ff2b8")
+            .phraseId("4d9d6b40-e8f4-47ab-a10c-a9d3791ff2b9")
+            // A real M4A, so the lookups are reached after the format sniff
+            .file(new File(AudioServiceImplTest.class.getClassLoader().getResource("test-audio.m4a").getFile()))
+            .build();
+
+    public Audio audio = Audio.builder()
+            .userId("pumpkin")
+            .phraseId("create")
+            .path("converted-audio/4d9d6b40-e8f4-47ab-a10c-a9d3791ff2b9.wav")
+            .build();
+
+    private final String filePath = "gs://bucket/audio.wav";
+    @Test(expected = RequestValidationException.class)
+    public void testSave_UserNotExist_ShouldThrowException() {
+        when(audioRepository.lookup(request.getUserId(), request.getPhraseId())).thenReturn(Optional.empty());
+        audioService.save(request);
+    }
+    @Test(expected = RequestValidationException.class)
+    public void testSave_PhraseNotExist_ShouldThrowException() {
+        when(audioRepository.lookup(request.getUserId(), request.getPhraseId())).thenReturn(Optional.of(new AudioLookup(user.getId(), null, null)));
+
+        audioService.save(request);
+    }
+    @Test(expected = RequestValidationException.class)
+    public void testSave_AlreadyExist_ShouldThrowException() {
+        when(audioRepository.lookup(request.getUserId(), request.getPhraseId())).thenReturn(Optional.of(new AudioLookup(user.getId(), phrase.getId(), audio)));
+
+        audioService.save(request);
+    }
+
+    @Test
+    public void testGet_IdsKnownToExist_ShouldOnlyQueryAudio() {
+        when(existenceCache.user(user.getId())).thenReturn(true);
+        when(existenceCache.phrase(phrase.getId())).thenReturn(true);
+        when(audioRepository.findByUserIdAndPhraseAndDeletedAtIsNull(user.getId(), phrase.getId())).thenReturn(null);
+
+        RequestValidationException exception = assertThrows(RequestValidationException.class,
+                () -> audioService.get(user.getId(), phrase.getId(), "wav"));
+
+        assertEquals(ResponseCode.AUDIO_NOT_EXIST.getCode(), exception.getCode());
+        verify(audioRepository, never()).lookup(anyString(), anyString());
+        verifyNoInteractions(userRepository, phraseRepository);
+    }
+
+    @Test
+    public void testGet_UserKnownMissing_ShouldFailWithoutQuerying() {
+        when(existenceCache.user(user.getId())).thenReturn(false);
+
+        RequestValidationException exception = assertThrows(RequestValidationException.class,
+                () -> audioService.get(user.getId(), phrase.getId(), "wav"));
+
+        assertEquals(ResponseCode.USER_NOT_EXIST.getCode(), exception.getCode());
+        verifyNoInteractions(audioRepository, userRepository, phraseRepository);
+    }
+
+    @Test
+    public void testGet_LookupQuery_ShouldRememberExistence() {
+        when(audioRepository.lookup(user.getId(), "unknown")).thenReturn(Optional.of(new AudioLookup(user.getId(), null, null)));
+
+        RequestValidationException exception = assertThrows(RequestValidationException.class,
+                () -> audioService.get(user.getId(), "unknown", "wav"));
+
+        assertEquals(ResponseCode.PHRASE_NOT_EXIST.getCode(), exception.getCode());
+        verify(existenceCache).putUser(user.getId(), true);
+        verify(existenceCache).putPhrase("unknown", false);
+    }
+
+    @Test
+    public void testSaveBatch_InvalidItems_ShouldReportPerItemWithoutConverting() {
+        AudioRequest unknownPhrase = request.toBuilder().phraseId("unknown").build();
+        Audio uploaded = Audio.builder().userId(user.getId()).phraseId(phrase.getId()).build();
+        when(userRepository.existsById(user.getId())).thenReturn(true);
+        when(phraseRepository.findAllById(anySet())).thenReturn(List.of(phrase));
+        when(audioRepository.findByUserIdAndPhraseIdInAndDeletedAtIsNull(eq(user.getId()), anySet())).thenReturn(List.of(uploaded));
+
+        List<BatchItemResult> results = audioService.saveBatch(user.getId(), List.of(request, unknownPhrase));
+
+        assertEquals(2, results.size());
+        assertEquals(ResponseCode.AUDIO_ALREADY_EXIST.getCode(), results.get(0).getCode());
+        assertEquals("unknown", results.get(1).getPhraseId());
+        assertEquals(ResponseCode.PHRASE_NOT_EXIST.getCode(), results.get(1).getCode());
+        // One IN query for the batch rather than a lookup per item
+        verify(phraseRepository, never()).findById(anyString());
+        verify(audioRepository, never()).saveAll(anyList());
+        verifyNoInteractions(blobStore);
+    }
+
+    @Test
+    public void testSave_SourceUploadedBefore_ShouldReuseStoredObjectsWithoutConverting() throws Exception {
+        when(audioRepository.lookup(anyString(), anyString())).thenReturn(Optional.of(new AudioLookup(user.getId(), phrase.getId(), null)));
+        ReflectionTestUtils.setField(audioService, "eagerRenditions", "mp3");
+        // Uploads are now stored as FLAC, but the earlier WAV master is reused as it is
+        ReflectionTestUtils.setField(audioService, "masterFormat", "flac");
+        // Only an M4A signature, no audio: reusing must not need ffmpeg
+        byte[] ftyp = {0, 0, 0, 16, 'f', 't', 'y', 'p', 'M', '4', 'A', ' ', 0, 0, 0, 0};
+        File source = Files.write(Files.createTempFile("upload_", ".m4a"), ftyp).toFile();
+        Audio previous = Audio.builder().id("a0").path("converted-audio/abc.wav").convertedFormat("wav").durationMillis(1200L).build();
+        when(audioRepository.findFirstBySourceHash(ContentStore.sha256(source))).thenReturn(Optional.of(previous));
+        when(audioRenditionRepository.findByAudioId("a0")).thenReturn(List.of(AudioRendition.builder()
+                .audioId("a0").format("mp3").path("converted-audio/abc.mp3").sizeBytes(3L).build()));
+        when(contentStore.retain(anyList())).thenReturn(2);
+        when(audioRepository.save(any(Audio.class))).thenAnswer(invocation -> invocation.<Audio>getArgument(0).toBuilder().id("a1").build());
+
+        try {
+            assertTrue(audioService.save(request.toBuilder().file(source).build()));
+        } finally {
+            source.delete();
+        }
+
+        verify(audioRepository).save(argThat(saved -> saved.getPath().equals("converted-audio/abc.wav")
+                && saved.getConvertedFormat().equals("wav") && saved.getOriginalFormat().equals("m4a")
+                && saved.getDurationMillis() == 1200L && saved.getSourceHash() != null));
+        verify(audioRenditionRepository).saveAll(argThat(renditions -> renditions.iterator().next().getAudioId().equals("a1")));
+        verify(contentStore).retain(List.of("converted-audio/abc.wav", "converted-audio/abc.mp3"));
+        verify(contentStore, never()).store(any(File.class), any(Format.class));
+    }
+
+    @Test
+    public void testSave_Preprocessing_ShouldNotReuseAPlainConversion() throws Exception {
+        when(audioRepository.lookup(anyString(), anyString())).thenReturn(Optional.of(new AudioLookup(user.getId(), phrase.getId(), null)));
+        ReflectionTestUtils.setField(audioService, "trimSilence", true);
+        byte[] ftyp = {0, 0, 0, 16, 'f', 't', 'y', 'p', 'M', '4', 'A', ' ', 0, 0, 0, 0};
+        File source = Files.write(Files.createTempFile("upload_", ".m4a"), ftyp).toFile();
+        String plainHash = ContentStore.sha256(source);
+
+        try {
+            // Nothing to reuse, so it goes on to ffmpeg, which is not installed here
+            assertThrows(BusinessLogicException.class, () -> audioService.save(request.toBuilder().file(source).sourceHash(plainHash).build()));
+        } finally {
+            source.delete();
+        }
+
+        verify(audioRepository).findFirstBySourceHash(argThat(key -> key.length() == 64 && !key.equals(plainHash)));
+    }
+
+    @Test
+    public void testSave_RepositoryFails_ShouldReleaseReusedObjects() throws Exception {
+        when(audioRepository.lookup(anyString(), anyString())).thenReturn(Optional.of(new AudioLookup(user.getId(), phrase.getId(), null)));
+        byte[] ftyp = {0, 0, 0, 16, 'f', 't', 'y', 'p', 'M', '4', 'A', ' ', 0, 0, 0, 0};
+        File source = Files.write(Files.createTempFile("upload_", ".m4a"), ftyp).toFile();
+        Audio previous = Audio.builder().id("a0").path("converted-audio/abc.wav").convertedFormat("wav").build();
+        when(audioRepository.findFirstBySourceHash(ContentStore.sha256(source))).thenReturn(Optional.of(previous));
+        when(contentStore.retain(anyList())).thenReturn(1);
+        when(audioRepository.save(any(Audio.class))).thenThrow(new RuntimeException("connection refused"));
+
+        try {
+            assertThrows(BusinessLogicException.class, () -> audioService.save(request.toBuilder().file(source).build()));
+        } finally {
+            source.delete();
+        }
+
+        verify(contentStore).retain(List.of("converted-audio/abc.wav"));
+        verify(contentStore).release(List.of("converted-audio/abc.wav"));
+    }
+
+    @Test
+    public void testSave_ReusedObjectDeletedMeanwhile_ShouldConvertAgain() throws Exception {
+        File source = reusableUpload();
+        when(contentStore.retain(anyList())).thenReturn(1);
+        Transcoder transcoder = mock(Transcoder.class);
+        ReflectionTestUtils.setField(audioService, "transcoder", transcoder);
+        when(transcoder.ingest(any(File.class), anyMap(), any(IngestFilter.class), any())).thenThrow(new IOException("ffmpeg failed"));
+
+        try {
+            assertThrows(BusinessLogicException.class, () -> audioService.save(request.toBuilder().file(source).build()));
+        } finally {
+            source.delete();
+        }
+
+        verify(contentStore).release(List.of("converted-audio/abc.wav", "converted-audio/abc.mp3"));
+        verify(transcoder).ingest(any(File.class), anyMap(), any(IngestFilter.class), any());
+        verify(audioRepository, never()).save(any(Audio.class));
+    }
+
+    @Test
+    public void testSave_RenditionSaveFails_ShouldRollBackAndRelease() throws Exception {
+        File source = reusableUpload();
+        when(audioRepository.save(any(Audio.class))).thenAnswer(invocation -> invocation.<Audio>getArgument(0).toBuilder().id("a1").build());
+        when(audioRenditionRepository.saveAll(anyList())).thenThrow(new RuntimeException("connection refused"));
+
+        try {
+            assertThrows(BusinessLogicException.class, () -> audioService.save(request.toBuilder().file(source).build()));
+        } finally {
+            source.delete();
+        }
+
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verify(contentStore).release(List.of("converted-audio/abc.wav", "converted-audio/abc.mp3"));
+    }
+
+    @Test
+    public void testSave_CommitFails_ShouldKeepStoredObjects() throws Exception {
+        File source = reusableUpload();
+        when(audioRepository.save(any(Audio.class))).thenAnswer(invocation -> invocation.<Audio>getArgument(0).toBuilder().id("a1").build());
+        doThrow(new TransactionSystemException("connection reset")).when(transactionManager).commit(any());
+
+        try {
+            assertThrows(BusinessLogicException.class, () -> audioService.save(request.toBuilder().file(source).build()));
+        } finally {
+            source.delete();
+        }
+
+        // The rows may have been committed, so the objects they point at must stay
+        verify(contentStore, never()).release(anyList());
+    }
+
+    @Test
+    public void testSave_OnSaved_ShouldRunInTheSavingTransaction() throws Exception {
+        File source = reusableUpload();
+        when(audioRepository.save(any(Audio.class))).thenAnswer(invocation -> invocation.<Audio>getArgument(0).toBuilder().id("a1").build());
+        List<String> saved = new ArrayList<>();
+
+        try {
+            assertTrue(audioService.save(request.toBuilder().file(source).build(), audio -> {
+                verify(transactionManager, never()).commit(any());
+                saved.add(audio.getId());
+            }));
+        } finally {
+            source.delete();
+        }
+
+        assertEquals(List.of("a1"), saved);
+        verify(transactionManager).commit(any());
+    }
+
+    /**
+     * An M4A signature matching an earlier upload whose WAV master and MP3 rendition are reused.
+     */
+    private File reusableUpload() throws IOException {
+        when(audioRepository.lookup(anyString(), anyString())).thenReturn(Optional.of(new AudioLookup(user.getId(), phrase.getId(), null)));
+        ReflectionTestUtils.setField(audioService, "eagerRenditions", "mp3");
+        byte[] ftyp = {0, 0, 0, 16, 'f', 't', 'y', 'p', 'M', '4', 'A', ' ', 0, 0, 0, 0};
+        File source = Files.write(Files.createTempFile("upload_", ".m4a"), ftyp).toFile();
+        Audio previous = Audio.builder().id("a0").path("converted-audio/abc.wav").convertedFormat("wav").build();
+        when(audioRepository.findFirstBySourceHash(ContentStore.sha256(source))).thenReturn(Optional.of(previous));
+        when(audioRenditionRepository.findByAudioId("a0")).thenReturn(List.of(AudioRendition.builder()
+                .audioId("a0").format("mp3").path("converted-audio/abc.mp3").sizeBytes(3L).build()));
+        when(contentStore.retain(anyList())).thenReturn(2);
+        return source;
+    }
+
+    @Test
+    public void testArchiveByUser_ShouldZipEachAudioAndListFailures() throws Exception {
+        StorageExecutor storageExecutor = new StorageExecutor();
+        java.lang.reflect.Field threads = StorageExecutor.class.getDeclaredField("threads");
+        threads.setAccessible(true);
+        threads.set(storageExecutor, 2);
+        storageExecutor.init();
+        java.lang.reflect.Field storageField = AudioServiceImpl.class.getDeclaredField("storageExecutor");
+        storageField.setAccessible(true);
+        storageField.set(audioService, storageExecutor);
+        java.lang.reflect.Field concurrency = AudioServiceImpl.class.getDeclaredField("archiveConcurrency");
+        concurrency.setAccessible(true);
+        concurrency.set(audioService, 2);
+
+        Audio first = Audio.builder().id("a1").userId(user.getId()).phraseId("p1").path("converted-audio/p1.wav").build();
+        Audio second = Audio.builder().id("a2").userId(user.getId()).phraseId("p2").path("converted-audio/p2.wav").build();
+        Audio broken = Audio.builder().id("a3").userId(user.getId()).phraseId("p3").path("converted-audio/p3.wav").build();
+        when(userRepository.existsById(user.getId())).thenReturn(true);
+        when(audioRepository.findByUserIdAndDeletedAtIsNull(user.getId())).thenReturn(List.of(first, second, broken));
+        when(blobStore.localFile(anyString())).thenReturn(Optional.empty());
+        when(blobStore.openInputStream(first.getPath())).thenReturn(new java.io.ByteArrayInputStream("first".getBytes()));
+        when(blobStore.openInputStream(second.getPath())).thenReturn(new java.io.ByteArrayInputStream("second".getBytes()));
+        when(blobStore.openInputStream(broken.getPath())).thenThrow(
+                new BusinessLogicException(ResponseCode.FILE_NOT_EXIST.getCode(), ResponseCode.FILE_NOT_EXIST.getMessage()));
+
+        java.io.ByteArrayOutputStream output = new java.io.ByteArrayOutputStream();
+        try {
+            audioService.archiveByUser(user.getId(), "wav").writeTo(output);
+        } finally {
+            storageExecutor.shutdown();
+        }
+
+        java.util.Map<String, String> entries = new java.util.LinkedHashMap<>();
+        try (java.util.zip.ZipInputStream zip = new java.util.zip.ZipInputStream(new java.io.ByteArrayInputStream(output.toByteArray()))) {
+            for (java.util.zip.ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                entries.put(entry.getName(), new String(zip.readAllBytes()));
+            }
+        }
+        assertEquals(List.of("p1.wav", "p2.wav", "MISSING.txt"), List.copyOf(entries.keySet()));
+        assertEquals("first", entries.get("p1.wav"));
+        assertEquals("second", entries.get("p2.wav"));
+        assertEquals("p3.wav", entries.get("MISSING.txt"));
+    }
+
+    @Test
+    public void testArchiveByUser_MixedMasters_ShouldOnlyLookUpRenditionsOfOtherMasters() {
+        // The configured master says nothing about audios stored before it changed
+        ReflectionTestUtils.setField(audioService, "masterFormat", "wav");
+        Audio flacMaster = Audio.builder().id("a1").userId(user.getId()).phraseId("p1").path("converted-audio/p1.flac").convertedFormat("flac").build();
+        Audio wavMaster = Audio.builder().id("a2").userId(user.getId()).phraseId("p2").path("converted-audio/p2.wav").convertedFormat("wav").build();
+        when(userRepository.existsById(user.getId())).thenReturn(true);
+        when(audioRepository.findByUserIdAndDeletedAtIsNull(user.getId())).thenReturn(List.of(flacMaster, wavMaster));
+
+        audioService.archiveByUser(user.getId(), "flac");
+
+        verify(audioRenditionRepository).findByAudioIdInAndFormat(List.of("a2"), "flac");
+    }
+
+    @Test(expected = RequestValidationException.class)
+    public void testArchiveByPhrase_NoAudio_ShouldThrowBeforeStreaming() {
+        when(phraseRepository.existsById(phrase.getId())).thenReturn(true);
+        when(audioRepository.findByPhraseIdAndDeletedAtIsNull(phrase.getId())).thenReturn(List.of());
+
+        audioService.archiveByPhrase(phrase.getId(), "mp3");
+    }
+
+    @Test
+    public void testSave_ValidRequest_ShouldSaveAudio() throws Exception {
+        assumeFfmpeg();
+        when(audioRepository.lookup(anyString(), anyString())).thenReturn(Optional.of(new AudioLookup(user.getId(), phrase.getId(), null)));
+
+        when(contentStore.store(any(File.class), eq(Format.WAV))).thenReturn("converted-audio/test.wav");
+
+        Path originalPath = Paths.get(getClass().getClassLoader().getResource("test-audio.m4a").toURI());
+        Path tempFile = Files.createTempFile("test-audio-copy", ".m4a");
+        Files.copy(originalPath, tempFile, StandardCopyOption.REPLACE_EXISTING);
+
+        File file = tempFile.toFile();
+
+        AudioRequest audio = request;
+        audio.setFile(file);
+
+       assertTrue(file.exists());
+        request.setFile(file);
+        when(audioRepository.save(any(Audio.class))).thenReturn(Audio.builder().build());
+        boolean result = audioService.save(request);
+        assertTrue(result);
+        verify(audioRepository, times(1)).save(any(Audio.class));
+    }
+
+    @Test
+    public void testSave_WavUpload_ShouldStoreWithoutFfmpeg() throws Exception {
+        // The transcoder points at an ffmpeg that does not exist, so only the in-process path can succeed
+        when(audioRepository.lookup(anyString(), anyString())).thenReturn(Optional.of(new AudioLookup(user.getId(), phrase.getId(), null)));
+        Path upload = Files.createTempFile("upload_", ".wav");
+        Files.copy(Paths.get(getClass().getClassLoader().getResource("test-audio.wav").toURI()), upload, StandardCopyOption.REPLACE_EXISTING);
+        List<WavHeader> stored = new ArrayList<>();
+        when(contentStore.store(any(File.class), eq(Format.WAV))).thenAnswer(invocation -> {
+            try (InputStream input = new FileInputStream(invocation.<File>getArgument(0))) {
+                stored.add(WavHeader.read(input));
+            }
+            return "converted-audio/abc.wav";
+        });
+        when(audioRepository.save(any(Audio.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        try {
+            assertTrue(audioService.save(request.toBuilder().file(upload.toFile()).build()));
+        } finally {
+            Files.delete(upload);
+        }
+
+        assertEquals(44100, stored.get(0).getSampleRate());
+        assertEquals(2, stored.get(0).getChannels());
+        verify(audioRepository).save(argThat(saved -> saved.getOriginalFormat().equals("wav")
+                && saved.getConvertedFormat().equals("wav") && saved.getDurationMillis() > 0));
+    }
+
+    @Test
+    public void testSave_SurroundWavUpload_ShouldDownmixWithFfmpeg() throws Exception {
+        when(audioRepository.lookup(anyString(), anyString())).thenReturn(Optional.of(new AudioLookup(user.getId(), phrase.getId(), null)));
+        Transcoder transcoder = mock(Transcoder.class);
+        ReflectionTestUtils.setField(audioService, "transcoder", transcoder);
+        when(transcoder.ingest(any(File.class), any(File.class), eq(Format.WAV), any(IngestFilter.class), any())).thenAnswer(invocation -> {
+            try (OutputStream master = new FileOutputStream(invocation.<File>getArgument(1))) {
+                WavHeader.pcm16(44100, 2, 0).write(master);
+            }
+            return AudioMetadata.builder().container("wav").codec("pcm_s16le").durationMillis(10L).channels(6).build();
+        });
+        when(contentStore.store(any(File.class), eq(Format.WAV))).thenReturn("converted-audio/abc.wav");
+        when(audioRepository.save(any(Audio.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        // 5.1: ChannelMixer cannot fold six channels into stereo, so this has to go to ffmpeg
+        Path upload = Files.createTempFile("upload_", ".wav");
+        try (OutputStream output = Files.newOutputStream(upload)) {
+            WavHeader.pcm16(44100, 6, 6 * 2 * 441).write(output);
+            output.write(new byte[6 * 2 * 441]);
+        }
+
+        try {
+            assertTrue(audioService.save(request.toBuilder().file(upload.toFile()).build()));
+        } finally {
+            Files.delete(upload);
+        }
+
+        verify(transcoder).ingest(any(File.class), any(File.class), eq(Format.WAV), any(IngestFilter.class), any());
+    }
+
+    @Test
+    public void testSave_UnrecognisedUpload_ShouldRejectBeforeHashing() throws Exception {
+        File upload = Files.write(Files.createTempFile("upload_", ".m4a"), "not audio at all".getBytes()).toFile();
+
+        try {
+            audioService.save(request.toBuilder().file(upload).build());
+            fail("Expected FORMAT_INVALID");
+        } catch (RequestValidationException e) {
+            assertEquals(ResponseCode.FORMAT_INVALID.getCode(), e.getCode());
+        } finally {
+            upload.delete();
+        }
+        verify(audioRepository, never()).lookup(anyString(), anyString());
+        verify(audioRepository, never()).findFirstBySourceHash(anyString());
+    }
+
+    @Test(expected = BusinessLogicException.class)
+    public void testSave_ValidRequest_FailedSaveAudio() throws Exception {
+        assumeFfmpeg();
+        when(audioRepository.lookup(anyString(), anyString())).thenReturn(Optional.of(new AudioLookup(user.getId(), phrase.getId(), null)));
+
+        when(contentStore.store(any(File.class), eq(Format.WAV))).thenReturn("converted-audio/test.wav");
+
+        Path originalPath = Paths.get(getClass().getClassLoader().getResource("test-audio.m4a").toURI());
+        Path tempFile = Files.createTempFile("test-audio-copy", ".m4a");
+        Files.copy(originalPath, tempFile, StandardCopyOption.REPLACE_EXISTING);
+
+        File file = tempFile.toFile();
+
+        AudioRequest audio = request;
+        audio.setFile(file);
+
+        assertTrue(file.exists());
+        request.setFile(file);
+        when(audioRepository.save(any(Audio.class))).thenThrow(new IllegalArgumentException("error"));
+        boolean result = audioService.save(request);
+        verify(audioRepository, times(1)).save(any(Audio.class));
+    }
+
+
+    @Test(expected = RequestValidationException.class)
+    public void testSave_ConversionFail_ShouldThrowException() throws Exception {
+
+        AudioRequest request = AudioRequest.builder()
+                .userId("pumpkin")
+                .phraseId("create")
+                .file(new File("invalid.m4a"))
+                .build();
+
+        audioService.save(request);
+    }
+
+    @Test
+    public void testGet_ValidRequest_ShouldReturnResource() throws Exception {
+        when(audioRepository.lookup(anyString(), anyString())).thenReturn(Optional.of(new AudioLookup(user.getId(), phrase.getId(), audio)));
+        when(blobStore.getFileBytes(anyString())).thenReturn(new ByteArrayResource(new byte[10]));
+
+        Resource resource = audioService.get(request.getUserId(), request.getPhraseId(), Format.WAV.getValue());
+        assertNotNull(resource);
+    }
+
+    @Test(expected = RequestValidationException.class)
+    public void testGet_AudioNotExist_ShouldThrowException() {
+        when(audioRepository.lookup(anyString(), anyString())).thenReturn(Optional.of(new AudioLookup(user.getId(), phrase.getId(), null)));
+
+        audioService.get(user.getId(), phrase.getId(), Format.WAV.getValue());
+    }
+
+    @Test
+    public void testGet_Success_WAVFormat() throws IOException {
+        Resource resource = new ClassPathResource("test-audio.wav");
+        when(audioRepository.lookup(anyString(), anyString())).thenReturn(Optional.of(new AudioLookup(user.getId(), phrase.getId(), audio)));
+        when(blobStore.getFileBytes(anyString())).thenReturn(resource);
+
+        Resource result = audioService.get(request.getUserId(), request.getPhraseId(), Format.WAV.getValue());
+
+        assertNotNull(result);
+        assertEquals(resource, result);
+    }
+    @Test
+    public void testGet_Success_M4aFormat() throws IOException {
+        assumeFfmpeg();
+        Resource resource = new ClassPathResource("test-audio.wav");
+        when(audioRepository.lookup(anyString(), anyString())).thenReturn(Optional.of(new AudioLookup(user.getId(), phrase.getId(), audio)));
+        when(blobStore.getFileBytes(anyString())).thenReturn(resource);
+
+        Resource result = audioService.get(request.getUserId(), request.getPhraseId(), Format.M4A.getValue());
+        // Validate the result
+        assertNotNull(result);
+    }
+    @Test
+    public void testGet_Success_Mp3Format() throws IOException {
+        assumeFfmpeg();
+        Resource resource = new ClassPathResource("test-audio.wav");
+        when(audioRepository.lookup(anyString(), anyString())).thenReturn(Optional.of(new AudioLookup(user.getId(), phrase.getId(), audio)));
+        when(blobStore.getFileBytes(anyString())).thenReturn(resource);
+
+        Resource result = audioService.get(request.getUserId(), request.getPhraseId(), Format.MP3.getValue());
+        // Validate the result
+        assertNotNull(result);
+    }
+
+    @Test
+    public void testGet_StoredRendition_ShouldFetchWithoutConverting() throws IOException {
+        Resource stored = new ByteArrayResource(new byte[10]);
+        when(audioRepository.lookup(anyString(), anyString())).thenReturn(Optional.of(new AudioLookup(user.getId(), phrase.getId(), audio)));
+        when(renditionCache.get(any(), eq(Format.MP3), isNull())).thenReturn(Optional.empty());
+        when(audioRenditionRepository.findByAudioIdAndFormat(any(), eq(Format.MP3.getValue())))
+                .thenReturn(Optional.of(AudioRendition.builder().path("converted-audio/rendition.mp3").build()));
+        when(blobStore.getFileBytes("converted-audio/rendition.mp3")).thenReturn(stored);
+
+        Resource result = audioService.get(request.getUserId(), request.getPhraseId(), Format.MP3.getValue());
+
+        assertSame(stored, result);
+        verify(blobStore, never()).getFileBytes(audio.getPath());
+        verify(renditionCache, never()).put(any(), any(), any(), any(), anyLong());
+    }
+
+    @Test
+    public void testGet_WavProfile_ShouldResampleInProcessAndCacheAsOwnRendition() throws IOException {
+        when(blobStore.getFileBytes(audio.getPath())).thenReturn(new ClassPathResource("test-audio.wav"));
+        when(renditionCache.get(any(), eq(Format.WAV), eq("voice-64k"))).thenReturn(Optional.empty());
+
+        Resource result = audioService.get(audio, Format.WAV.getValue(), "voice-64k");
+
+        WavHeader header = WavHeader.read(result.getInputStream());
+        assertEquals(22050, header.getSampleRate());
+        assertEquals(1, header.getChannels());
+        verify(renditionCache).put(any(), eq(Format.WAV), eq("voice-64k"), any(byte[].class), anyLong());
+        verify(audioRenditionRepository, never()).findByAudioIdAndFormat(any(), any());
+    }
+
+    @Test(expected = RequestValidationException.class)
+    public void testGet_UnknownProfile_ShouldThrowException() {
+        audioService.get(audio, Format.MP3.getValue(), "studio");
+    }
+
+    @Test
+    public void testRedirectUrl_RedirectMode_ShouldSignStoredObjectsOnly() {
+        ReflectionTestUtils.setField(audioService, "deliveryMode", "redirect");
+        ReflectionTestUtils.setField(audioService, "deliveryUrlTtlSeconds", 300L);
+        URI signed = URI.create("https://storage.example.com/" + audio.getPath());
+        when(blobStore.signedUrl(audio.getPath(), Duration.ofSeconds(300))).thenReturn(Optional.of(signed));
+        when(audioRenditionRepository.findByAudioIdAndFormat(any(), eq(Format.MP3.getValue()))).thenReturn(Optional.empty());
+
+        assertEquals(Optional.of(signed), audioService.redirectUrl(audio, "wav"));
+        // Not stored as mp3, so it has to be converted by the application
+        assertEquals(Optional.empty(), audioService.redirectUrl(audio, "mp3"));
+    }
+
+    @Test
+    public void testRedirectUrl_FlacMaster_ShouldSignFlacOnly() {
+        ReflectionTestUtils.setField(audioService, "deliveryMode", "redirect");
+        ReflectionTestUtils.setField(audioService, "deliveryUrlTtlSeconds", 300L);
+        Audio flac = audio.toBuilder().path("converted-audio/abc.flac").convertedFormat("flac").build();
+        URI signed = URI.create("https://storage.example.com/" + flac.getPath());
+        when(blobStore.signedUrl(flac.getPath(), Duration.ofSeconds(300))).thenReturn(Optional.of(signed));
+        when(audioRenditionRepository.findByAudioIdAndFormat(any(), eq(Format.WAV.getValue()))).thenReturn(Optional.empty());
+
+        assertEquals(Optional.of(signed), audioService.redirectUrl(flac, "flac"));
+        // WAV is decoded from the FLAC master by the application
+        assertEquals(Optional.empty(), audioService.redirectUrl(flac, "wav"));
+    }
+
+    @Test
+    public void testRedirectUrl_ProxyMode_ShouldNotSign() {
+        ReflectionTestUtils.setField(audioService, "deliveryMode", "proxy");
+
+        assertEquals(Optional.empty(), audioService.redirectUrl(audio, "wav"));
+        verify(blobStore, never()).signedUrl(anyString(), any());
+    }
+
+    @Test
+    public void testRetrieveAudioFormat_ValidM4AFile_ShouldReturnTrue() throws URISyntaxException, IOException {
+        assumeFfmpeg();
+        Path originalPath = Paths.get(getClass().getClassLoader().getResource("test-audio.m4a").toURI());
+        Path tempFile = Files.createTempFile("test-audio-copy", ".m4a");
+        Files.copy(originalPath, tempFile, StandardCopyOption.REPLACE_EXISTING);
+
+        File file = tempFile.toFile();
+
+        boolean result = audioService.retrieveAudioFormat(file);
+        file.delete();
+
+        assertTrue(result);
+    }
+
+    @Test
+    public void testRetrieveAudioFormat_InvalidFile_ShouldReturnFalse() throws IOException {
+        File tempFile = File.createTempFile("test-audio", ".txt");
+        try (FileWriter writer = new FileWriter(tempFile)) {
+            writer.write("This is a text file, not an audio file.");
+        }
+
+        boolean result = audioService.retrieveAudioFormat(tempFile);
+        tempFile.delete();
+
+        assertFalse(result);
+    }
+
+    @Test(expected = BusinessLogicException.class)
+    public void testGet_fail_M4aFormat() throws IOException {
+        Resource emptyResource = new ByteArrayResource(new byte[0]);
+        when(audioRepository.lookup(anyString(), anyString())).thenReturn(Optional.of(new AudioLookup(user.getId(), phrase.getId(), audio)));
+        when(blobStore.getFileBytes(anyString())).thenReturn(emptyResource);
+
+        audioService.get(request.getUserId(), request.getPhraseId(), Format.M4A.getValue());
+    }
+
+    @Test(expected = BusinessLogicException.class)
+    public void testGet_Fail_Mp3Format() throws IOException {
+        Resource emptyResource = new ByteArrayResource(new byte[0]);
+        when(audioRepository.lookup(anyString(), anyString())).thenReturn(Optional.of(new AudioLookup(user.getId(), phrase.getId(), audio)));
+        when(blobStore.getFileBytes(anyString())).thenReturn(emptyResource);
+
+        audioService.get(request.getUserId(), request.getPhraseId(), Format.MP3.getValue());
+    }
+
+    @Test(expected = BusinessLogicException.class)
+    public void testGet_FailIOException_Mp3Format() throws IOException {
+        when(audioRepository.lookup(anyString(), anyString())).thenReturn(Optional.of(new AudioLookup(user.getId(), phrase.getId(), audio)));
+        when(blobStore.getFileBytes(anyString())).thenThrow(new IOException("error"));
+
+        audioService.get(request.getUserId(), request.getPhraseId(), Format.MP3.getValue());
+    }
+}
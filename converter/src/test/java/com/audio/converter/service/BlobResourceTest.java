@@ -0,0 +1,80 @@
+package com.audio.converter.service;
+
+import com.google.cloud.ReadChannel;
+import com.google.cloud.storage.Blob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BlobResourceTest {
+
+    private final byte[] content = new byte[1000];
+    private Blob blob;
+    private ReadChannel channel;
+    private long channelPosition;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        blob = mock(Blob.class);
+        channel = mock(ReadChannel.class);
+        when(blob.getSize()).thenReturn((long) content.length);
+        when(blob.reader()).thenReturn(channel);
+        doAnswer(invocation -> {
+            channelPosition = invocation.getArgument(0);
+            return null;
+        }).when(channel).seek(anyLong());
+        when(channel.read(any(ByteBuffer.class))).thenAnswer(invocation -> {
+            ByteBuffer buffer = invocation.getArgument(0);
+            if (channelPosition >= content.length) {
+                return -1;
+            }
+            int length = (int) Math.min(buffer.remaining(), content.length - channelPosition);
+            buffer.put(content, (int) channelPosition, length);
+            channelPosition += length;
+            return length;
+        });
+    }
+
+    @Test
+    void testGetInputStream_ShouldStreamWholeObjectWithChunkSize() throws IOException {
+        BlobResource resource = new BlobResource(blob, 4096);
+
+        byte[] read;
+        try (InputStream input = resource.getInputStream()) {
+            read = input.readAllBytes();
+        }
+
+        assertArrayEquals(content, read);
+        assertEquals(content.length, resource.contentLength());
+        verify(channel).setChunkSize(4096);
+        verify(channel).close();
+        verify(blob, never()).getContent();
+    }
+
+    @Test
+    void testCopyRange_ShouldSeekInsteadOfReadingSkippedBytes() throws IOException {
+        BlobResource resource = new BlobResource(blob, 0);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try (InputStream input = resource.getInputStream()) {
+            StreamUtils.copyRange(input, output, 900, 949);
+        }
+
+        assertEquals(50, output.size());
+        assertEquals((byte) 900, output.toByteArray()[0]);
+        verify(channel).seek(900);
+        verify(channel, never()).setChunkSize(anyInt());
+    }
+}
@@ -0,0 +1,159 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.Format;
+import com.audio.converter.model.entity.StoredContent;
+import com.audio.converter.repository.StoredContentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ContentStoreTest {
+
+    // SHA-256 of "abc"
+    private static final String HASH = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+    @InjectMocks
+    private ContentStore contentStore;
+
+    @Mock
+    private BlobStore blobStore;
+
+    @Mock
+    private StoredContentRepository storedContentRepository;
+
+    @TempDir
+    Path directory;
+
+    private File file;
+
+    private ByteArrayOutputStream uploaded;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.initMocks(this);
+        ReflectionTestUtils.setField(contentStore, "audioMetrics", new AudioMetrics(new SimpleMeterRegistry()));
+        file = Files.write(directory.resolve("output.wav"), "abc".getBytes()).toFile();
+        when(blobStore.objectName(anyString())).thenAnswer(invocation -> "converted-audio/" + invocation.getArgument(0));
+        uploaded = new ByteArrayOutputStream();
+        when(blobStore.openOutputStream(anyString())).thenReturn(uploaded);
+    }
+
+    @Test
+    void testSha256_ShouldHexEncodeDigestOfFile() throws IOException {
+        assertEquals(HASH, ContentStore.sha256(file));
+    }
+
+    @Test
+    void testStore_NewContent_ShouldUploadAndRecordOneReference() throws Exception {
+        when(storedContentRepository.incrementRefCount(HASH)).thenReturn(0);
+
+        String path = contentStore.store(file, Format.WAV);
+
+        assertTrue(path.startsWith("converted-audio/") && path.endsWith(".wav"));
+        assertEquals("abc", uploaded.toString());
+        verify(storedContentRepository).saveAndFlush(argThat(content -> content.getSha256().equals(HASH)
+                && content.getPath().equals(path) && content.getRefCount() == 1 && content.getSizeBytes() == 3));
+        verify(blobStore, never()).delete(anyString());
+    }
+
+    @Test
+    void testStore_KnownContent_ShouldReuseWithoutUploading() throws Exception {
+        when(storedContentRepository.incrementRefCount(HASH)).thenReturn(1);
+        when(storedContentRepository.findBySha256(HASH)).thenReturn(Optional.of(content("converted-audio/stored.wav")));
+
+        assertEquals("converted-audio/stored.wav", contentStore.store(file, Format.WAV));
+        verify(blobStore, never()).openOutputStream(anyString());
+        verify(blobStore, never()).delete(anyString());
+        verify(storedContentRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void testStore_UploadedConcurrently_ShouldDropTheCopy() throws Exception {
+        when(storedContentRepository.incrementRefCount(HASH)).thenReturn(0, 1);
+        when(storedContentRepository.findBySha256(HASH)).thenReturn(Optional.of(content("converted-audio/stored.wav")));
+
+        assertEquals("converted-audio/stored.wav", contentStore.store(file, Format.WAV));
+        assertEquals("abc", uploaded.toString());
+        verify(blobStore).delete(argThat(path -> !path.equals("converted-audio/stored.wav")));
+        verify(storedContentRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void testStore_RecordedConcurrently_ShouldCountAsReference() throws Exception {
+        when(storedContentRepository.incrementRefCount(HASH)).thenReturn(0, 0, 1);
+        when(storedContentRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("uk_stored_content_hash"));
+        when(storedContentRepository.findBySha256(HASH)).thenReturn(Optional.of(content("converted-audio/stored.wav")));
+
+        assertEquals("converted-audio/stored.wav", contentStore.store(file, Format.WAV));
+        verify(storedContentRepository, times(3)).incrementRefCount(HASH);
+    }
+
+    @Test
+    void testWrite_ShouldHashWhatItSpools() throws IOException {
+        Path target = directory.resolve("spooled.m4a");
+
+        assertEquals(HASH, ContentStore.write(new ByteArrayInputStream("abc".getBytes()), target));
+        assertEquals("abc", Files.readString(target));
+    }
+
+    @Test
+    void testAdopt_KnownContent_ShouldDeleteNewObject() {
+        when(storedContentRepository.incrementRefCount(HASH)).thenReturn(1);
+        when(storedContentRepository.findBySha256(HASH)).thenReturn(Optional.of(content("converted-audio/stored.wav")));
+
+        assertEquals("converted-audio/stored.wav", contentStore.adopt("converted-audio/streamed.wav", HASH, 3, Format.WAV));
+        verify(blobStore).delete("converted-audio/streamed.wav");
+    }
+
+    @Test
+    void testAdopt_NewContent_ShouldKeepObject() {
+        when(storedContentRepository.incrementRefCount(HASH)).thenReturn(0);
+
+        assertEquals("converted-audio/streamed.wav", contentStore.adopt("converted-audio/streamed.wav", HASH, 3, Format.WAV));
+        verify(blobStore, never()).delete(anyString());
+        verify(storedContentRepository).saveAndFlush(argThat(content -> content.getPath().equals("converted-audio/streamed.wav")));
+    }
+
+    @Test
+    void testRetain_ShouldIncrementEveryPathAndCountTheFound() {
+        when(storedContentRepository.incrementRefCountByPathIn(List.of("a.wav", "a.mp3"))).thenReturn(1);
+
+        assertEquals(1, contentStore.retain(List.of("a.wav", "a.mp3")));
+        verify(storedContentRepository).incrementRefCountByPathIn(List.of("a.wav", "a.mp3"));
+    }
+
+    @Test
+    void testRelease_ShouldDeleteOnlyObjectsNothingRefersTo() {
+        when(storedContentRepository.deleteUnreferenced("a.wav")).thenReturn(1);
+        when(storedContentRepository.deleteUnreferenced("a.mp3")).thenReturn(0);
+
+        contentStore.release(List.of("a.wav", "a.mp3"));
+
+        verify(storedContentRepository).decrementRefCountByPathIn(List.of("a.wav", "a.mp3"));
+        verify(blobStore).delete("a.wav");
+        verify(blobStore, never()).delete("a.mp3");
+    }
+
+    private static StoredContent content(String path) {
+        return StoredContent.builder().sha256(HASH).path(path).refCount(2).build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.Format;
+import com.audio.converter.model.ResponseCode;
+import com.audio.converter.util.RequestValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EncodingProfilesTest {
+
+    private EncodingProfiles encodingProfiles;
+
+    @BeforeEach
+    void setUp() {
+        encodingProfiles = new EncodingProfiles();
+        ReflectionTestUtils.setField(encodingProfiles, "profiles", "voice-64k:64000:22050:1, hifi-192k:192000:0:0, hifi-mp3-320k:320000:0:0");
+        encodingProfiles.init();
+    }
+
+    @Test
+    void testResolve_ConfiguredProfile_ShouldOverrideFormatDefaults() {
+        EncodingProfile voice = encodingProfiles.resolve("voice-64k").orElseThrow();
+
+        OutputEncoding m4a = voice.apply(Format.M4A);
+        assertEquals("aac", m4a.getCodec());
+        assertEquals(64_000, m4a.getBitrate());
+        assertEquals(22_050, m4a.getSampleRate());
+        assertEquals(1, m4a.getChannels());
+        // PCM has no bitrate to lower
+        assertEquals(0, voice.apply(Format.WAV).getBitrate());
+    }
+
+    @Test
+    void testIsDefaultFor_ProfileMatchingFormatDefaults_ShouldBeTrue() {
+        EncodingProfile hifi = encodingProfiles.resolve("hifi-192k").orElseThrow();
+
+        assertTrue(hifi.isDefaultFor(Format.WAV));
+        assertTrue(hifi.isDefaultFor(Format.MP3));
+        // Bitrate alone makes a difference for lossy formats only
+        assertTrue(encodingProfiles.resolve("hifi-mp3-320k").orElseThrow().isDefaultFor(Format.WAV));
+        assertFalse(encodingProfiles.resolve("hifi-mp3-320k").orElseThrow().isDefaultFor(Format.MP3));
+        assertFalse(encodingProfiles.resolve("voice-64k").orElseThrow().isDefaultFor(Format.WAV));
+    }
+
+    @Test
+    void testResolve_NoProfile_ShouldBeEmpty() {
+        assertEquals(Optional.empty(), encodingProfiles.resolve(null));
+        assertEquals(Optional.empty(), encodingProfiles.resolve(""));
+    }
+
+    @Test
+    void testResolve_UnknownProfile_ShouldThrow() {
+        RequestValidationException exception = assertThrows(RequestValidationException.class,
+                () -> encodingProfiles.resolve("studio"));
+
+        assertEquals(ResponseCode.PROFILE_INVALID.getCode(), exception.getCode());
+    }
+
+    @Test
+    void testInit_MalformedEntry_ShouldFail() {
+        ReflectionTestUtils.setField(encodingProfiles, "profiles", "voice-64k:64k:22050:1");
+
+        assertThrows(IllegalStateException.class, () -> encodingProfiles.init());
+    }
+}
@@ -0,0 +1,38 @@
+package com.audio.converter.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExistenceCacheTest {
+
+    private ExistenceCache existenceCache;
+
+    @BeforeEach
+    void setUp() {
+        existenceCache = new ExistenceCache();
+        ReflectionTestUtils.setField(existenceCache, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(existenceCache, "negativeTtlSeconds", 0L);
+        ReflectionTestUtils.setField(existenceCache, "maxEntries", 100L);
+        existenceCache.init();
+    }
+
+    @Test
+    void testUnknownId_ShouldReturnNull() {
+        assertNull(existenceCache.user("user-1"));
+        assertNull(existenceCache.phrase("phrase-1"));
+    }
+
+    @Test
+    void testMisses_ShouldExpireOnTheirOwnTtl() {
+        existenceCache.putUser("user-1", true);
+        existenceCache.putUser("user-2", false);
+        existenceCache.putPhrase("phrase-1", true);
+
+        assertEquals(Boolean.TRUE, existenceCache.user("user-1"));
+        assertEquals(Boolean.TRUE, existenceCache.phrase("phrase-1"));
+        assertNull(existenceCache.user("user-2"));
+    }
+}
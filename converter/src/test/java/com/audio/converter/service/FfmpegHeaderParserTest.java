@@ -0,0 +1,63 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.AudioMetadata;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FfmpegHeaderParserTest {
+
+    private static final String M4A_HEADER = String.join("\n",
+            "Input #0, mov,mp4,m4a,3gp,3g2,mj2, from 'upload.m4a':",
+            "  Metadata:",
+            "    major_brand     : M4A ",
+            "  Duration: 00:01:05.52, start: 0.000000, bitrate: 130 kb/s",
+            "  Stream #0:0[0x1](und): Audio: aac (LC) (mp4a / 0x6134706D), 44100 Hz, stereo, fltp, 128 kb/s (default)",
+            "Stream mapping:",
+            "  Stream #0:0 -> #0:0 (aac (native) -> pcm_s16le (native))",
+            "Output #0, wav, to 'out.wav':",
+            "  Stream #0:0(und): Audio: pcm_s16le ([1][0][0][0] / 0x0001), 44100 Hz, stereo, s16, 1411 kb/s");
+
+    @Test
+    void testAccept_M4AHeader_ShouldParseMetadata() {
+        FfmpegHeaderParser parser = new FfmpegHeaderParser();
+        boolean headerEnded = false;
+        for (String line : M4A_HEADER.split("\n")) {
+            if (!parser.accept(line)) {
+                headerEnded = true;
+                break;
+            }
+        }
+
+        AudioMetadata metadata = parser.metadata();
+        assertTrue(headerEnded);
+        assertEquals("mov,mp4,m4a,3gp,3g2,mj2", metadata.getContainer());
+        assertEquals("aac", metadata.getCodec());
+        assertEquals(65_520L, metadata.getDurationMillis());
+        assertEquals(44100, metadata.getSampleRate());
+        assertEquals(2, metadata.getChannels());
+        assertEquals(128_000, metadata.getBitrate());
+    }
+
+    @Test
+    void testAccept_MonoWithoutStreamBitrate_ShouldUseContainerBitrate() {
+        FfmpegHeaderParser parser = new FfmpegHeaderParser();
+        parser.accept("Input #0, wav, from 'upload.wav':");
+        parser.accept("  Duration: 00:00:02.00, bitrate: 705 kb/s");
+        parser.accept("  Stream #0:0: Audio: pcm_s16le ([1][0][0][0] / 0x0001), 44100 Hz, mono, s16");
+
+        AudioMetadata metadata = parser.metadata();
+        assertEquals("wav", metadata.getContainer());
+        assertEquals(1, metadata.getChannels());
+        assertEquals(705_000, metadata.getBitrate());
+        assertEquals(2_000L, metadata.getDurationMillis());
+    }
+
+    @Test
+    void testAccept_InvalidInput_ShouldReturnNoMetadata() {
+        FfmpegHeaderParser parser = new FfmpegHeaderParser();
+        parser.accept("upload.txt: Invalid data found when processing input");
+
+        assertNull(parser.metadata());
+    }
+}
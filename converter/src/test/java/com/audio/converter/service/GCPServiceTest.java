@@ -1,6 +1,7 @@
 package com.audio.converter.service;
 
 import com.audio.converter.util.BusinessLogicException;
+import com.google.cloud.WriteChannel;
 import com.google.cloud.storage.*;
 import org.junit.Before;
 import org.junit.Test;
@@ -8,11 +9,15 @@ import org.junit.runner.RunWith;
 import org.mockito.*;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.ByteArrayResource;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -39,6 +44,10 @@ public class GCPServiceTest {
         folderNameField.setAccessible(true);
         folderNameField.set(gcpService, "converted-audio");
 
+        java.lang.reflect.Field resumableThresholdField = GCPService.class.getDeclaredField("resumableThreshold");
+        resumableThresholdField.setAccessible(true);
+        resumableThresholdField.set(gcpService, 1024L);
+
 
     }
 
@@ -58,20 +67,58 @@ public class GCPServiceTest {
         Mockito.verify(storage).create(Mockito.any(BlobInfo.class), Mockito.any(byte[].class));
     }
 
+    @Test
+    public void testUploadFile_AboveThreshold_ShouldUseResumableWriter() throws IOException {
+        WriteChannel writer = mock(WriteChannel.class);
+        when(storage.writer(any(BlobInfo.class))).thenReturn(writer);
+        when(writer.isOpen()).thenReturn(true);
+        when(writer.write(any(ByteBuffer.class))).thenAnswer(invocation -> {
+            ByteBuffer buffer = invocation.getArgument(0);
+            int remaining = buffer.remaining();
+            buffer.position(buffer.limit());
+            return remaining;
+        });
+
+        File tempFile = File.createTempFile("test-audio", ".wav");
+        Files.write(tempFile.toPath(), new byte[4096]);
+        gcpService.uploadFile(tempFile);
+
+        verify(storage, never()).create(any(BlobInfo.class), any(byte[].class));
+        verify(writer).close();
+        tempFile.delete();
+    }
+
+    @Test
+    public void testSignedUrl_ShouldSignWithV4() throws Exception {
+        URL url = new URL("https://storage.googleapis.com/audio_converter_thp/converted-audio/test.wav?X-Goog-Signature=abc");
+        when(storage.signUrl(any(BlobInfo.class), eq(300L), eq(TimeUnit.SECONDS), any(Storage.SignUrlOption.class))).thenReturn(url);
+
+        assertEquals(Optional.of(url.toURI()), gcpService.signedUrl("converted-audio/test.wav", Duration.ofMinutes(5)));
+    }
+
+    @Test
+    public void testSignedUrl_CredentialsCannotSign_ShouldFallBackToProxy() {
+        when(storage.signUrl(any(BlobInfo.class), anyLong(), any(TimeUnit.class), any(Storage.SignUrlOption.class)))
+                .thenThrow(new IllegalStateException("Signing key was not provided and could not be derived"));
+
+        assertFalse(gcpService.signedUrl("converted-audio/test.wav", Duration.ofMinutes(5)).isPresent());
+    }
+
     @Test
     public void testGetFileBytes_Success() throws IOException {
         String objectName = "converted-audio/test.wav";
         BlobId blobId = BlobId.of("audio_converter_thp", objectName);
         Blob blob = mock(Blob.class);
-        byte[] fileContent = "dummy data".getBytes();
 
         when(storage.get(blobId)).thenReturn(blob);
-        when(blob.getContent()).thenReturn(fileContent);
+        when(blob.getSize()).thenReturn(10L);
 
         Resource resource = gcpService.getFileBytes(objectName);
 
         assertNotNull(resource);
-        assertArrayEquals(fileContent, ((ByteArrayResource) resource).getByteArray());
+        assertEquals(10L, resource.contentLength());
+        // Content is streamed on read rather than downloaded up front
+        verify(blob, never()).getContent();
     }
 
     @Test(expected = BusinessLogicException.class)
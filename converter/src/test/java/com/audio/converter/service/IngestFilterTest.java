@@ -0,0 +1,36 @@
+package com.audio.converter.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngestFilterTest {
+
+    @Test
+    void testToFfmpeg_Disabled_ShouldBeNull() {
+        assertFalse(IngestFilter.NONE.isEnabled());
+        assertNull(IngestFilter.NONE.toFfmpeg());
+        assertEquals(0, IngestFilter.NONE.getSampleRate());
+    }
+
+    @Test
+    void testToFfmpeg_TrimSilence_ShouldCutLeadingAndShortenLongRuns() {
+        IngestFilter filter = new IngestFilter(true, -50, 1500, false, 0);
+
+        // stop_silence keeps the first 1.5 s of every long run, so interior pauses are shortened, not removed
+        assertEquals("silenceremove=start_periods=1:start_threshold=-50.0dB"
+                + ":stop_periods=-1:stop_threshold=-50.0dB:stop_duration=1.5:stop_silence=1.5", filter.toFfmpeg());
+        // Trimming keeps the source rate
+        assertEquals(0, filter.getSampleRate());
+    }
+
+    @Test
+    void testToFfmpeg_TrimAndNormalize_ShouldChainFilters() {
+        IngestFilter filter = new IngestFilter(true, -40, 500, true, -16);
+
+        String graph = filter.toFfmpeg();
+        assertTrue(graph.startsWith("silenceremove="));
+        assertTrue(graph.endsWith(",loudnorm=I=-16.0:TP=-1.5:LRA=11,aresample=44100"));
+        assertEquals(44_100, filter.getSampleRate());
+    }
+}
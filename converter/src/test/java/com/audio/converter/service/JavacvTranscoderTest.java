@@ -0,0 +1,96 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.AudioMetadata;
+import com.audio.converter.model.Format;
+import com.audio.converter.util.BusinessLogicException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.verify;
+
+class JavacvTranscoderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @InjectMocks
+    private JavacvTranscoder transcoder;
+
+    @Mock
+    private ProcessTranscoder processTranscoder;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+        transcoder.init();
+    }
+
+    @Test
+    void testTranscode_NativeUnavailable_ShouldFallBackToProcess() throws Exception {
+        ReflectionTestUtils.setField(transcoder, "nativeAvailable", false);
+        File input = new File("input.m4a");
+        File output = new File("output.wav");
+
+        transcoder.transcode(input, output, Format.WAV);
+        transcoder.probe(input);
+
+        verify(processTranscoder).transcode(input, output, OutputEncoding.WAV);
+        verify(processTranscoder).probe(input);
+    }
+
+    @Test
+    void testProbe_ValidM4AFile_ShouldReturnAacInMp4Container() throws IOException {
+        assumeTrue(transcoder.isNativeAvailable());
+
+        Optional<AudioMetadata> metadata = transcoder.probe(new ClassPathResource("test-audio.m4a").getFile());
+
+        assertTrue(metadata.isPresent());
+        assertTrue(metadata.get().getContainer().startsWith("mov,mp4,m4a"));
+        assertEquals("aac", metadata.get().getCodec());
+    }
+
+    @Test
+    void testProbe_TextFile_ShouldReturnEmpty() throws IOException {
+        assumeTrue(transcoder.isNativeAvailable());
+        File textFile = tempDir.resolve("not-audio.txt").toFile();
+        Files.writeString(textFile.toPath(), "This is a text file, not an audio file.");
+
+        assertTrue(transcoder.probe(textFile).isEmpty());
+    }
+
+    @Test
+    void testTranscode_WavToMp3_ShouldProduceMp3() throws Exception {
+        assumeTrue(transcoder.isNativeAvailable());
+        File output = tempDir.resolve("output.mp3").toFile();
+
+        transcoder.transcode(new ClassPathResource("test-audio.wav").getFile(), output, Format.MP3);
+
+        Optional<AudioMetadata> metadata = transcoder.probe(output);
+        assertTrue(metadata.isPresent());
+        assertEquals("mp3", metadata.get().getContainer());
+    }
+
+    @Test
+    void testTranscode_InvalidInput_ShouldThrowException() throws IOException {
+        assumeTrue(transcoder.isNativeAvailable());
+        File textFile = tempDir.resolve("not-audio.txt").toFile();
+        Files.writeString(textFile.toPath(), "This is a text file, not an audio file.");
+
+        assertThrows(BusinessLogicException.class,
+                () -> transcoder.transcode(textFile, tempDir.resolve("output.wav").toFile(), Format.WAV));
+    }
+}
@@ -0,0 +1,107 @@
+package com.audio.converter.service;
+
+import com.audio.converter.util.BusinessLogicException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalBlobStoreTest {
+
+    @TempDir
+    Path root;
+
+    @TempDir
+    Path spool;
+
+    private LocalBlobStore blobStore;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        blobStore = new LocalBlobStore();
+        ReflectionTestUtils.setField(blobStore, "root", root.toString());
+        ReflectionTestUtils.setField(blobStore, "folderName", "converted-audio");
+        blobStore.init();
+    }
+
+    @Test
+    void testUploadFile_ShouldMoveIntoStoreAndReadBack() throws IOException {
+        Path upload = Files.write(spool.resolve("audio.wav"), "wav data".getBytes());
+
+        String objectName = blobStore.uploadFile(upload.toFile());
+
+        assertEquals("converted-audio/audio.wav", objectName);
+        assertFalse(Files.exists(upload));
+        Resource resource = blobStore.getFileBytes(objectName);
+        assertTrue(resource.isFile());
+        assertEquals(8, resource.contentLength());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertEquals(8, blobStore.transferTo(objectName, output));
+        assertEquals("wav data", output.toString());
+        assertEquals(root.resolve(objectName).toFile(), blobStore.localFile(objectName).orElseThrow());
+    }
+
+    @Test
+    void testOpenOutputStream_ShouldOnlyPublishOnClose() throws IOException {
+        String objectName = blobStore.objectName("streamed.wav");
+
+        try (OutputStream output = blobStore.openOutputStream(objectName)) {
+            output.write("partial".getBytes());
+            assertFalse(Files.exists(root.resolve(objectName)));
+        }
+
+        assertEquals("partial", new String(blobStore.openInputStream(objectName).readAllBytes()));
+        blobStore.delete(objectName);
+        assertThrows(BusinessLogicException.class, () -> blobStore.getFileBytes(objectName));
+    }
+
+    @Test
+    void testSignedUrl_NoPublicBaseUrl_ShouldServeThroughApplication() throws IOException {
+        String objectName = blobStore.uploadFile(Files.write(spool.resolve("audio.wav"), "wav data".getBytes()).toFile());
+
+        assertTrue(blobStore.signedUrl(objectName, Duration.ofMinutes(5)).isEmpty());
+    }
+
+    @Test
+    void testSignedUrl_WithSigningKey_ShouldSignExpiryAndPath() throws Exception {
+        ReflectionTestUtils.setField(blobStore, "publicBaseUrl", "https://files.example.com/audio/");
+        ReflectionTestUtils.setField(blobStore, "signingKey", "secret");
+        String objectName = blobStore.uploadFile(Files.write(spool.resolve("audio.wav"), "wav data".getBytes()).toFile());
+
+        URI url = blobStore.signedUrl(objectName, Duration.ofMinutes(5)).orElseThrow();
+
+        assertEquals("/audio/converted-audio/audio.wav", url.getPath());
+        String expires = url.getQuery().replaceAll("^expires=(\\d+)&.*$", "$1");
+        assertTrue(Long.parseLong(expires) > Instant.now().getEpochSecond());
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec("secret".getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String signature = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(mac.doFinal((expires + ":/" + objectName).getBytes(StandardCharsets.UTF_8)));
+        assertTrue(url.getQuery().endsWith("&signature=" + signature));
+        assertThrows(BusinessLogicException.class, () -> blobStore.signedUrl("converted-audio/missing.wav", Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void testGetFileBytes_PathOutsideRoot_ShouldBeRejected() {
+        assertThrows(BusinessLogicException.class, () -> blobStore.getFileBytes("../" + new File("etc/passwd")));
+    }
+}
@@ -0,0 +1,140 @@
+package com.audio.converter.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PcmTranscoderTest {
+
+    @Test
+    void testWavHeader_WriteThenRead_ShouldRoundTrip() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        WavHeader.pcm16(44_100, 2, 17_640).write(output);
+
+        WavHeader header = WavHeader.read(new ByteArrayInputStream(output.toByteArray()));
+
+        assertEquals(44, output.size());
+        assertEquals(44_100, header.getSampleRate());
+        assertEquals(2, header.getChannels());
+        assertEquals(16, header.getBitsPerSample());
+        assertEquals(4_410, header.getFrames());
+    }
+
+    @Test
+    void testWavHeader_ShouldSkipUnknownChunksAndReadExtensibleFloat() throws IOException {
+        ByteBuffer wav = ByteBuffer.allocate(100).order(ByteOrder.LITTLE_ENDIAN);
+        wav.put("RIFF".getBytes()).putInt(0).put("WAVE".getBytes());
+        wav.put("LIST".getBytes()).putInt(3).put(new byte[4]);
+        wav.put("fmt ".getBytes()).putInt(40)
+                .putShort((short) 0xFFFE).putShort((short) 1).putInt(48_000).putInt(192_000)
+                .putShort((short) 4).putShort((short) 32).putShort((short) 22).putShort((short) 32).putInt(4)
+                .putShort((short) 3).put(new byte[14]);
+        wav.put("data".getBytes()).putInt(-1).putFloat(0.5f);
+        InputStream input = new ByteArrayInputStream(wav.array(), 0, wav.position());
+
+        WavHeader header = WavHeader.read(input);
+
+        assertTrue(header.isFloatingPoint());
+        assertEquals(48_000, header.getSampleRate());
+        assertEquals(WavHeader.UNKNOWN_LENGTH, header.getDataLength());
+        assertEquals(4, input.available());
+    }
+
+    @Test
+    void testWavHeader_PipedWithListChunk_ShouldMeasureDataFromFileSize() throws IOException {
+        // As ffmpeg writes to a pipe: a LIST chunk before the samples and no data size
+        ByteBuffer wav = ByteBuffer.allocate(80).order(ByteOrder.LITTLE_ENDIAN);
+        wav.put("RIFF".getBytes()).putInt(-1).put("WAVE".getBytes());
+        wav.put("fmt ".getBytes()).putInt(16)
+                .putShort((short) 1).putShort((short) 2).putInt(44_100).putInt(176_400).putShort((short) 4).putShort((short) 16);
+        wav.put("LIST".getBytes()).putInt(26).put("INFOISFT".getBytes()).putInt(14).put("Lavf60.16.100\0".getBytes());
+        wav.put("data".getBytes()).putInt(-1);
+        byte[] head = Arrays.copyOf(wav.array(), wav.position());
+
+        // One second of samples after the header
+        WavHeader header = WavHeader.read(head, head.length + 176_400L);
+
+        assertEquals(78, head.length);
+        assertEquals(176_400, header.getDataLength());
+        assertEquals(1_000, header.getDurationMillis());
+    }
+
+    @Test
+    void testWavHeader_TruncatedFormatChunk_ShouldThrowIOException() {
+        ByteBuffer wav = ByteBuffer.allocate(48).order(ByteOrder.LITTLE_ENDIAN);
+        wav.put("RIFF".getBytes()).putInt(0).put("WAVE".getBytes());
+        // Stops before the bits per sample
+        wav.put("fmt ".getBytes()).putInt(14)
+                .putShort((short) 1).putShort((short) 2).putInt(44_100).putInt(176_400).putShort((short) 4);
+        wav.put("data".getBytes()).putInt(0);
+
+        assertThrows(IOException.class, () -> WavHeader.read(new ByteArrayInputStream(wav.array(), 0, wav.position())));
+    }
+
+    @Test
+    void testWavHeader_NotWave_ShouldThrow() {
+        assertThrows(IOException.class, () -> WavHeader.read(new ByteArrayInputStream("ID3\u0004 mp3 frames".getBytes())));
+    }
+
+    @Test
+    void testConvert_SameFormat_ShouldCopySamplesExactly() throws IOException {
+        short[] samples = {0, 1, -1, Short.MAX_VALUE, Short.MIN_VALUE, 1234, -4321, 7};
+        byte[] wav = wav(44_100, 2, samples);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long frames = PcmTranscoder.convert(new ByteArrayInputStream(wav), output, 44_100, 2);
+
+        assertEquals(4, frames);
+        assertArrayEquals(wav, output.toByteArray());
+    }
+
+    @Test
+    void testConvert_ResampleAndDownmix_ShouldWriteConsistentHeader() throws IOException {
+        short[] samples = new short[2 * 48_000];
+        Arrays.fill(samples, (short) 8_192);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long frames = PcmTranscoder.convert(new ByteArrayInputStream(wav(48_000, 2, samples)), output, 16_000, 1);
+
+        byte[] bytes = output.toByteArray();
+        WavHeader header = WavHeader.read(new ByteArrayInputStream(bytes));
+        assertEquals(16_000, frames);
+        assertEquals(16_000, header.getSampleRate());
+        assertEquals(1, header.getChannels());
+        assertEquals(16_000, header.getFrames());
+        assertEquals(44 + 2 * 16_000, bytes.length);
+        ByteBuffer pcm = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(8_192, pcm.getShort(44 + 2 * 8_000), 1);
+    }
+
+    @Test
+    void testConvert_UnsizedSource_ShouldReadToEndOfStream() throws IOException {
+        byte[] wav = wav(8_000, 1, new short[]{100, 200, 300});
+        ByteBuffer.wrap(wav).order(ByteOrder.LITTLE_ENDIAN).putInt(40, -1);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long frames = PcmTranscoder.convert(new ByteArrayInputStream(wav), output, 0, 0);
+
+        assertEquals(3, frames);
+        assertEquals(WavHeader.UNKNOWN_LENGTH, WavHeader.read(new ByteArrayInputStream(output.toByteArray())).getDataLength());
+    }
+
+    private static byte[] wav(int rate, int channels, short[] samples) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        WavHeader.pcm16(rate, channels, samples.length * 2L).write(output);
+        ByteBuffer pcm = ByteBuffer.allocate(samples.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (short sample : samples) {
+            pcm.putShort(sample);
+        }
+        output.write(pcm.array());
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,167 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.AudioMetadata;
+import com.audio.converter.model.Format;
+import com.audio.converter.model.ResponseCode;
+import com.audio.converter.util.BusinessLogicException;
+import com.audio.converter.util.RequestValidationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProcessTranscoderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ProcessTranscoder transcoderRunning(String script) throws IOException {
+        // Stand-in for the ffmpeg binary so the piping can be checked without ffmpeg installed
+        Path executable = tempDir.resolve("ffmpeg");
+        Files.writeString(executable, "#!/bin/sh\n" + script + "\n");
+        executable.toFile().setExecutable(true);
+
+        ProcessTranscoder transcoder = new ProcessTranscoder();
+        ReflectionTestUtils.setField(transcoder, "ffmpegPath", executable.toString());
+        return transcoder;
+    }
+
+    @Test
+    void testTranscode_Streams_ShouldPipeStdinToStdout() throws Exception {
+        ProcessTranscoder transcoder = transcoderRunning("cat");
+        byte[] input = new byte[1024 * 1024];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = (byte) i;
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        transcoder.transcode(new ByteArrayInputStream(input), output, Format.MP3);
+
+        assertArrayEquals(input, output.toByteArray());
+    }
+
+    @Test
+    void testTranscode_NonZeroExit_ShouldThrowException() throws IOException {
+        ProcessTranscoder transcoder = transcoderRunning("cat > /dev/null; exit 1");
+
+        assertThrows(BusinessLogicException.class, () ->
+                transcoder.transcode(new ByteArrayInputStream(new byte[10]), new ByteArrayOutputStream(), Format.M4A));
+    }
+
+    @Test
+    void testTranscode_StreamingM4A_ShouldRequestFragmentedOutput() throws Exception {
+        ProcessTranscoder transcoder = transcoderRunning("echo \"$@\"");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        transcoder.transcode(new ByteArrayInputStream(new byte[0]), output, Format.M4A);
+
+        String arguments = output.toString();
+        assertTrue(arguments.contains("-i pipe:0"));
+        assertTrue(arguments.contains("-movflags frag_keyframe+empty_moov"));
+        assertTrue(arguments.endsWith("-f ipod pipe:1\n"));
+    }
+
+    @Test
+    void testIngest_MultipleOutputs_ShouldEncodeAllInOneRun() throws Exception {
+        Path arguments = tempDir.resolve("arguments.txt");
+        ProcessTranscoder transcoder = transcoderRunning(
+                "echo \"$@\" > " + arguments + "\n"
+                        + "echo \"Input #0, mov,mp4,m4a,3gp,3g2,mj2, from 'in.m4a':\" >&2\n"
+                        + "echo \"  Stream #0:0: Audio: aac (LC), 48000 Hz, mono, fltp, 64 kb/s\" >&2\n"
+                        + "echo 'Stream mapping:' >&2");
+        Map<Format, File> outputs = new EnumMap<>(Format.class);
+        outputs.put(Format.WAV, new File("master.wav"));
+        outputs.put(Format.MP3, new File("rendition.mp3"));
+
+        AudioMetadata metadata = transcoder.ingest(new File("in.m4a"), outputs, m -> true);
+
+        assertEquals("aac", metadata.getCodec());
+        String command = Files.readString(arguments);
+        assertEquals(1, command.split(" -i ", -1).length - 1);
+        assertTrue(command.contains("-c:a pcm_s16le"));
+        assertTrue(command.contains("-f wav " + new File("master.wav").getAbsolutePath()));
+        assertTrue(command.contains("-c:a libmp3lame"));
+        assertTrue(command.trim().endsWith("-f mp3 " + new File("rendition.mp3").getAbsolutePath()));
+    }
+
+    @Test
+    void testIngest_WithFilter_ShouldFilterEveryOutput() throws Exception {
+        Path arguments = tempDir.resolve("arguments.txt");
+        ProcessTranscoder transcoder = transcoderRunning(
+                "echo \"$@\" > " + arguments + "\n"
+                        + "echo \"Input #0, mov,mp4,m4a,3gp,3g2,mj2, from 'in.m4a':\" >&2\n"
+                        + "echo \"  Stream #0:0: Audio: aac (LC), 48000 Hz, mono, fltp, 64 kb/s\" >&2\n"
+                        + "echo 'Stream mapping:' >&2");
+        Map<Format, File> outputs = new EnumMap<>(Format.class);
+        outputs.put(Format.WAV, new File("master.wav"));
+        outputs.put(Format.MP3, new File("rendition.mp3"));
+        IngestFilter filter = new IngestFilter(true, -50, 1000, false, 0);
+
+        transcoder.ingest(new File("in.m4a"), outputs, filter, m -> true);
+
+        String command = Files.readString(arguments);
+        assertEquals(1, command.split(" -i ", -1).length - 1);
+        assertEquals(2, command.split("-af " + filter.toFfmpeg() + " -c:a ", -1).length - 1);
+    }
+
+    @Test
+    void testIngest_FlacMaster_ShouldEncodeLosslessAtMasterRate() throws Exception {
+        Path arguments = tempDir.resolve("arguments.txt");
+        ProcessTranscoder transcoder = transcoderRunning(
+                "echo \"$@\" > " + arguments + "\n"
+                        + "echo \"Input #0, mov,mp4,m4a,3gp,3g2,mj2, from 'in.m4a':\" >&2\n"
+                        + "echo \"  Stream #0:0: Audio: aac (LC), 48000 Hz, mono, fltp, 64 kb/s\" >&2\n"
+                        + "echo 'Stream mapping:' >&2");
+
+        transcoder.ingest(new File("in.m4a"), new File("master.flac"), Format.FLAC, m -> true);
+
+        String command = Files.readString(arguments);
+        assertTrue(command.contains("-c:a flac"));
+        assertTrue(command.contains("-ar 44100"));
+        assertTrue(command.contains("-ac 2"));
+        assertTrue(command.trim().endsWith("-f flac " + new File("master.flac").getAbsolutePath()));
+    }
+
+    @Test
+    void testIngest_AcceptedHeader_ShouldReturnMetadataAndOutput() throws Exception {
+        ProcessTranscoder transcoder = transcoderRunning(
+                "echo \"Input #0, mov,mp4,m4a,3gp,3g2,mj2, from 'in.m4a':\" >&2\n"
+                        + "echo \"  Stream #0:0: Audio: aac (LC), 48000 Hz, mono, fltp, 64 kb/s\" >&2\n"
+                        + "echo 'Stream mapping:' >&2\n"
+                        + "printf wav");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        AudioMetadata metadata = transcoder.ingest(new File("in.m4a"), output, Format.WAV, m -> m.getCodec().equals("aac"));
+
+        assertEquals(48000, metadata.getSampleRate());
+        assertEquals(1, metadata.getChannels());
+        assertEquals("wav", output.toString());
+    }
+
+    @Test
+    void testIngest_RejectedHeader_ShouldThrowFormatInvalid() throws Exception {
+        ProcessTranscoder transcoder = transcoderRunning(
+                "echo \"Input #0, mp3, from 'in.mp3':\" >&2\n"
+                        + "echo \"  Stream #0:0: Audio: mp3, 44100 Hz, stereo, fltp, 128 kb/s\" >&2\n"
+                        + "echo 'Stream mapping:' >&2\n"
+                        + "exec sleep 5");
+
+        long start = System.nanoTime();
+        RequestValidationException exception = assertThrows(RequestValidationException.class, () ->
+                transcoder.ingest(new File("in.mp3"), new ByteArrayOutputStream(), Format.WAV, m -> m.getCodec().equals("aac")));
+
+        assertEquals(ResponseCode.FORMAT_INVALID.getCode(), exception.getCode());
+        // The process is killed as soon as the header is rejected rather than running to completion
+        assertTrue(System.nanoTime() - start < 4_000_000_000L);
+    }
+}
@@ -0,0 +1,149 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.CacheStats;
+import com.audio.converter.model.Format;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenditionCacheTest {
+
+    @TempDir
+    Path diskDirectory;
+
+    private RenditionCache renditionCache;
+
+    @BeforeEach
+    void setUp() {
+        renditionCache = new RenditionCache();
+        ReflectionTestUtils.setField(renditionCache, "memoryMaxBytes", 100L);
+        ReflectionTestUtils.setField(renditionCache, "memoryMaxEntryBytes", 60L);
+        ReflectionTestUtils.setField(renditionCache, "diskPath", "");
+        ReflectionTestUtils.setField(renditionCache, "diskMaxBytes", 1000L);
+        ReflectionTestUtils.setField(renditionCache, "invalidationsMaxEntries", 2);
+    }
+
+    @Test
+    void testGet_AfterPut_ShouldHitMemory() throws IOException {
+        renditionCache.init();
+        renditionCache.put("audio-1", Format.MP3, new byte[10], renditionCache.generation());
+
+        Optional<Resource> result = renditionCache.get("audio-1", Format.MP3);
+
+        assertTrue(result.isPresent());
+        assertEquals(10, ((ByteArrayResource) result.get()).getByteArray().length);
+        assertTrue(renditionCache.get("audio-1", Format.M4A).isEmpty());
+
+        CacheStats stats = renditionCache.stats();
+        assertEquals(1, stats.getMemoryHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(10, stats.getMemoryBytes());
+    }
+
+    @Test
+    void testPut_OverBudget_ShouldEvictLeastRecentlyUsed() throws IOException {
+        renditionCache.init();
+        renditionCache.put("audio-1", Format.MP3, new byte[50], renditionCache.generation());
+        renditionCache.put("audio-2", Format.MP3, new byte[40], renditionCache.generation());
+        renditionCache.get("audio-1", Format.MP3);
+        renditionCache.put("audio-3", Format.MP3, new byte[30], renditionCache.generation());
+
+        assertTrue(renditionCache.get("audio-1", Format.MP3).isPresent());
+        assertTrue(renditionCache.get("audio-2", Format.MP3).isEmpty());
+        assertTrue(renditionCache.get("audio-3", Format.MP3).isPresent());
+        assertEquals(1, renditionCache.stats().getMemoryEvictions());
+        assertEquals(80, renditionCache.stats().getMemoryBytes());
+    }
+
+    @Test
+    void testGet_EvictedFromMemory_ShouldHitDisk() throws IOException {
+        ReflectionTestUtils.setField(renditionCache, "diskPath", diskDirectory.toString());
+        renditionCache.init();
+        renditionCache.put("audio-1", Format.MP3, new byte[60], renditionCache.generation());
+        renditionCache.put("audio-2", Format.MP3, new byte[60], renditionCache.generation());
+
+        Optional<Resource> result = renditionCache.get("audio-1", Format.MP3);
+
+        assertTrue(result.isPresent());
+        assertEquals(1, renditionCache.stats().getDiskHits());
+    }
+
+    @Test
+    void testPut_EntryLargerThanMemoryLimit_ShouldGoToDisk() throws IOException {
+        ReflectionTestUtils.setField(renditionCache, "diskPath", diskDirectory.toString());
+        renditionCache.init();
+        renditionCache.put("audio-1", Format.M4A, new byte[500], renditionCache.generation());
+
+        assertEquals(0, renditionCache.stats().getMemoryBytes());
+        assertEquals(500, renditionCache.stats().getDiskBytes());
+        assertTrue(renditionCache.get("audio-1", Format.M4A).isPresent());
+    }
+
+    @Test
+    void testInvalidate_ShouldDropAllFormatsFromBothTiers() throws IOException {
+        ReflectionTestUtils.setField(renditionCache, "diskPath", diskDirectory.toString());
+        renditionCache.init();
+        renditionCache.put("audio-1", Format.MP3, new byte[10], renditionCache.generation());
+        renditionCache.put("audio-1", Format.M4A, new byte[500], renditionCache.generation());
+        renditionCache.put("audio-2", Format.MP3, new byte[10], renditionCache.generation());
+
+        renditionCache.invalidate("audio-1");
+
+        assertTrue(renditionCache.get("audio-1", Format.MP3).isEmpty());
+        assertTrue(renditionCache.get("audio-1", Format.M4A).isEmpty());
+        assertTrue(renditionCache.get("audio-2", Format.MP3).isPresent());
+        assertEquals(0, renditionCache.stats().getDiskBytes());
+    }
+
+    @Test
+    void testPut_ConvertedBeforeInvalidate_ShouldBeDropped() throws IOException {
+        ReflectionTestUtils.setField(renditionCache, "diskPath", diskDirectory.toString());
+        renditionCache.init();
+        long generation = renditionCache.generation();
+
+        renditionCache.invalidate("audio-1");
+        renditionCache.put("audio-1", Format.MP3, new byte[10], generation);
+        renditionCache.put("audio-1", Format.M4A, new byte[500], generation);
+        renditionCache.put("audio-2", Format.MP3, new byte[10], generation);
+
+        assertTrue(renditionCache.get("audio-1", Format.MP3).isEmpty());
+        assertTrue(renditionCache.get("audio-1", Format.M4A).isEmpty());
+        assertTrue(renditionCache.get("audio-2", Format.MP3).isPresent());
+        assertEquals(0, renditionCache.stats().getDiskBytes());
+        assertEquals(0, diskDirectory.toFile().list().length);
+    }
+
+    @Test
+    void testPut_ConvertedAfterInvalidate_ShouldBeStored() throws IOException {
+        renditionCache.init();
+        renditionCache.invalidate("audio-1");
+
+        renditionCache.put("audio-1", Format.MP3, new byte[10], renditionCache.generation());
+
+        assertTrue(renditionCache.get("audio-1", Format.MP3).isPresent());
+    }
+
+    @Test
+    void testPut_OlderThanForgottenInvalidation_ShouldBeDropped() throws IOException {
+        renditionCache.init();
+        long generation = renditionCache.generation();
+
+        renditionCache.invalidate("audio-1");
+        renditionCache.invalidate("audio-2");
+        renditionCache.invalidate("audio-3");
+        renditionCache.put("audio-1", Format.MP3, new byte[10], generation);
+        renditionCache.put("audio-4", Format.MP3, new byte[10], generation);
+
+        assertTrue(renditionCache.get("audio-1", Format.MP3).isEmpty());
+        assertTrue(renditionCache.get("audio-4", Format.MP3).isEmpty());
+    }
+}
@@ -0,0 +1,107 @@
+package com.audio.converter.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResamplerTest {
+
+    @Test
+    void testResample_ShouldProduceRateScaledLength() {
+        float[] output = resample(new float[44_100], 44_100, 16_000, 1, 4096);
+
+        assertEquals(16_000, output.length);
+    }
+
+    @Test
+    void testResample_Sine_ShouldMatchSineAtTargetRate() {
+        float[] output = resample(sine(1_000, 48_000, 48_000), 48_000, 44_100, 1, 4096);
+
+        assertEquals(44_100, output.length);
+        // The edges see the silence padding; everything in between should be the same tone
+        for (int i = 100; i < output.length - 100; i++) {
+            assertEquals(0.5 * Math.sin(2 * Math.PI * 1_000 * i / 44_100.0), output[i], 2e-3, "sample " + i);
+        }
+    }
+
+    @Test
+    void testResample_ToneAboveTargetNyquist_ShouldBeFilteredOut() {
+        float[] output = resample(sine(12_000, 48_000, 48_000), 48_000, 16_000, 1, 4096);
+
+        for (int i = 100; i < output.length - 100; i++) {
+            assertEquals(0, output[i], 5e-3, "sample " + i);
+        }
+    }
+
+    @Test
+    void testResample_ShouldNotDependOnBlockSize() {
+        float[] input = sine(440, 22_050, 10_000);
+
+        assertArrayEquals(resample(input, 22_050, 48_000, 1, 4096), resample(input, 22_050, 48_000, 1, 97));
+    }
+
+    @Test
+    void testResample_Stereo_ShouldKeepChannelsApart() {
+        float[] input = new float[2 * 8_000];
+        for (int frame = 0; frame < 8_000; frame++) {
+            input[2 * frame] = 0.25f;
+            input[2 * frame + 1] = -0.25f;
+        }
+
+        float[] output = resample(input, 8_000, 11_025, 2, 1024);
+
+        assertEquals(2 * 11_025, output.length);
+        for (int frame = 100; frame < 11_025 - 100; frame++) {
+            assertEquals(0.25f, output[2 * frame], 1e-4);
+            assertEquals(-0.25f, output[2 * frame + 1], 1e-4);
+        }
+    }
+
+    @Test
+    void testProcess_BlockLargerThanConfigured_ShouldThrow() {
+        Resampler resampler = new Resampler(48_000, 44_100, 1, 16);
+
+        assertThrows(IllegalArgumentException.class, () -> resampler.process(new float[32], 32, new float[64]));
+    }
+
+    @Test
+    void testChannelMixer_ShouldAverageToMonoAndDuplicateFromMono() {
+        float[] mono = new float[2];
+        new ChannelMixer(2, 1).process(new float[]{0.5f, -0.25f, 1f, 1f}, 2, mono);
+        float[] stereo = new float[4];
+        new ChannelMixer(1, 2).process(mono, 2, stereo);
+
+        assertArrayEquals(new float[]{0.125f, 1f}, mono);
+        assertArrayEquals(new float[]{0.125f, 0.125f, 1f, 1f}, stereo);
+        assertThrows(IllegalArgumentException.class, () -> new ChannelMixer(6, 2));
+    }
+
+    private static float[] resample(float[] input, int inputRate, int outputRate, int channels, int block) {
+        Resampler resampler = new Resampler(inputRate, outputRate, channels, block);
+        int frames = input.length / channels;
+        float[] output = new float[(int) ((long) frames * outputRate / inputRate + 2) * channels];
+        float[] blockIn = new float[block * channels];
+        float[] blockOut = new float[resampler.maxOutputFrames(block) * channels];
+        int written = 0;
+        for (int offset = 0; offset < frames; offset += block) {
+            int count = Math.min(block, frames - offset);
+            System.arraycopy(input, offset * channels, blockIn, 0, count * channels);
+            int produced = resampler.process(blockIn, count, blockOut) * channels;
+            System.arraycopy(blockOut, 0, output, written, produced);
+            written += produced;
+        }
+        int produced = resampler.flush(blockOut) * channels;
+        System.arraycopy(blockOut, 0, output, written, produced);
+        return Arrays.copyOf(output, written + produced);
+    }
+
+    private static float[] sine(double frequency, int rate, int frames) {
+        float[] samples = new float[frames];
+        for (int i = 0; i < frames; i++) {
+            samples[i] = (float) (0.5 * Math.sin(2 * Math.PI * frequency * i / rate));
+        }
+        return samples;
+    }
+}
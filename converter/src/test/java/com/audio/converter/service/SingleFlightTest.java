@@ -0,0 +1,83 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.ResponseCode;
+import com.audio.converter.util.BusinessLogicException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    private CompletableFuture<String> call(String key, TranscodingExecutor.TranscodingTask<String> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return singleFlight.execute(key, task);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private void awaitInFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.inFlight() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void testConcurrentCalls_ShouldShareOneExecution() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        TranscodingExecutor.TranscodingTask<String> task = () -> {
+            executions.incrementAndGet();
+            release.await();
+            return "converted";
+        };
+
+        CompletableFuture<String> first = call("a.wav:mp3", task);
+        awaitInFlight();
+        CompletableFuture<String> second = call("a.wav:mp3", task);
+        Thread.sleep(50);
+        release.countDown();
+
+        assertEquals("converted", first.get(5, TimeUnit.SECONDS));
+        assertEquals("converted", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void testFailure_ShouldReachWaitersAndFreeTheKey() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = call("a.wav:mp3", () -> {
+            release.await();
+            throw new BusinessLogicException(ResponseCode.CONVERSION_FAILED.getCode(), "FFmpeg conversion failed.");
+        });
+        awaitInFlight();
+        CompletableFuture<String> second = call("a.wav:mp3", () -> "not run");
+        Thread.sleep(50);
+        release.countDown();
+
+        ExecutionException firstError = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        ExecutionException secondError = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(BusinessLogicException.class, firstError.getCause().getCause());
+        assertInstanceOf(BusinessLogicException.class, secondError.getCause().getCause());
+        // Nothing is remembered once the call has ended
+        assertEquals("retried", singleFlight.execute("a.wav:mp3", () -> "retried"));
+    }
+
+    @Test
+    void testDifferentKeys_ShouldRunIndependently() throws Exception {
+        assertEquals("mp3", singleFlight.execute("a.wav:mp3", () -> "mp3"));
+        assertEquals("m4a", singleFlight.execute("a.wav:m4a", () -> "m4a"));
+    }
+}
@@ -0,0 +1,148 @@
+package com.audio.converter.service;
+
+import com.audio.converter.model.ResponseCode;
+import com.audio.converter.util.BusinessLogicException;
+import com.audio.converter.util.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranscodingExecutorTest {
+
+    private TranscodingExecutor transcodingExecutor;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        transcodingExecutor = new TranscodingExecutor();
+        ReflectionTestUtils.setField(transcodingExecutor, "threads", 1);
+        ReflectionTestUtils.setField(transcodingExecutor, "queueCapacity", 1);
+        ReflectionTestUtils.setField(transcodingExecutor, "queueTimeoutMillis", 200L);
+        ReflectionTestUtils.setField(transcodingExecutor, "retryAfterSeconds", 7L);
+        transcodingExecutor.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        transcodingExecutor.shutdown();
+    }
+
+    private CompletableFuture<String> occupyWorker() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        CompletableFuture<String> result = CompletableFuture.supplyAsync(() -> {
+            try {
+                return transcodingExecutor.execute(() -> {
+                    running.countDown();
+                    release.await();
+                    return "done";
+                });
+            } catch (IOException | InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        return result;
+    }
+
+    @Test
+    void testExecute_ShouldReturnResult() throws Exception {
+        assertEquals("converted", transcodingExecutor.execute(() -> "converted"));
+    }
+
+    @Test
+    void testExecute_TaskFails_ShouldRethrowOriginalException() {
+        assertThrows(BusinessLogicException.class, () -> transcodingExecutor.execute(() -> {
+            throw new BusinessLogicException(ResponseCode.CONVERSION_FAILED.getCode(), "FFmpeg conversion failed.");
+        }));
+        assertThrows(IOException.class, () -> transcodingExecutor.execute(() -> {
+            throw new IOException("broken pipe");
+        }));
+    }
+
+    @Test
+    void testExecute_NotStartedWithinDeadline_ShouldThrowServiceUnavailable() throws Exception {
+        CompletableFuture<String> running = occupyWorker();
+
+        ServiceOverloadedException exception = assertThrows(ServiceOverloadedException.class,
+                () -> transcodingExecutor.execute(() -> "queued"));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+        assertEquals(ResponseCode.TRANSCODER_TIMEOUT.getCode(), exception.getCode());
+        assertEquals(7L, exception.getRetryAfterSeconds());
+
+        release.countDown();
+        assertEquals("done", running.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testExecute_QueueFull_ShouldThrowTooManyRequests() throws Exception {
+        occupyWorker();
+        ReflectionTestUtils.setField(transcodingExecutor, "queueTimeoutMillis", 5_000L);
+        CompletableFuture.runAsync(() -> {
+            try {
+                transcodingExecutor.execute(() -> "queued");
+            } catch (IOException | InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        // Wait for the second task to take the only queue slot
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (transcodingExecutor.getQueuedTasks() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        ServiceOverloadedException exception = assertThrows(ServiceOverloadedException.class,
+                () -> transcodingExecutor.execute(() -> "rejected"));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getStatus());
+        assertEquals(ResponseCode.TRANSCODER_BUSY.getCode(), exception.getCode());
+    }
+
+    @Test
+    void testSubmit_ShouldCompleteWithResult() throws Exception {
+        assertEquals("converted", transcodingExecutor.submit(() -> "converted").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testSubmit_QueueFull_ShouldFailFutureWithoutBlocking() throws Exception {
+        occupyWorker();
+        transcodingExecutor.submit(() -> "queued");
+
+        CompletableFuture<String> rejected = transcodingExecutor.submit(() -> "rejected");
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+        ServiceOverloadedException cause = assertInstanceOf(ServiceOverloadedException.class, exception.getCause());
+        assertEquals(ResponseCode.TRANSCODER_BUSY.getCode(), cause.getCode());
+    }
+
+    @Test
+    void testVirtualThreads_ShouldRunProcessEngineTasksOnVirtualThreads() throws Exception {
+        transcodingExecutor.shutdown();
+        ReflectionTestUtils.setField(transcodingExecutor, "virtualThreads", true);
+        ReflectionTestUtils.setField(transcodingExecutor, "engine", "process");
+        transcodingExecutor.init();
+
+        assertTrue(transcodingExecutor.execute(() -> Thread.currentThread().isVirtual()));
+    }
+
+    @Test
+    void testVirtualThreads_JavacvEngine_ShouldKeepPlatformThreads() throws Exception {
+        transcodingExecutor.shutdown();
+        ReflectionTestUtils.setField(transcodingExecutor, "virtualThreads", true);
+        ReflectionTestUtils.setField(transcodingExecutor, "engine", "javacv");
+        transcodingExecutor.init();
+
+        assertFalse(transcodingExecutor.execute(() -> Thread.currentThread().isVirtual()));
+    }
+}